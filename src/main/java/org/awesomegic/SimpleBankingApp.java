@@ -15,6 +15,9 @@ public class SimpleBankingApp
                 config.getAccountService(),
                 config.getTransactionService(),
                 config.getInterestRuleService(),
-                config.getStatementService()).start();
+                config.getStatementService(),
+                config.getStatementExportService(),
+                config.getInterestPostingService(),
+                config.getMonthEndInterestJob()).start();
     }
 }
@@ -2,15 +2,29 @@ package org.awesomegic.config;
 
 import org.awesomegic.model.Account;
 import org.awesomegic.model.InterestRule;
-import org.awesomegic.model.Transaction;
 import org.awesomegic.repositoy.*;
 import org.awesomegic.service.AccountService;
+import org.awesomegic.service.InterestPostingService;
 import org.awesomegic.service.InterestRuleService;
+import org.awesomegic.service.MonthEndInterestJob;
+import org.awesomegic.service.RuleChangeImpactService;
+import org.awesomegic.service.StatementExportService;
 import org.awesomegic.service.StatementService;
 import org.awesomegic.service.TransactionService;
+import org.awesomegic.util.AccountNumberDictionary;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
 
 public class BankingConfiguration {
 
+    // Directory for the durable ledger; the ledger is kept in memory only when this is not set
+    public static final String DATA_DIRECTORY_PROPERTY = "awesomegic.data.dir";
+    public static final String DURABILITY_PROPERTY = "awesomegic.durability";
+    // ISO-8601 duration between background snapshots of the durable ledger, e.g. PT5M
+    public static final String SNAPSHOT_INTERVAL_PROPERTY = "awesomegic.snapshot.interval";
+
     private static BankingConfiguration instance;
 
     private final TransactionRepository transactionRepository;
@@ -21,19 +35,73 @@ public class BankingConfiguration {
     private final TransactionService transactionService;
     private final InterestRuleService interestRuleService;
     private final StatementService statementService;
+    private final InterestPostingService interestPostingService;
+    private final MonthEndInterestJob monthEndInterestJob;
+    private final RuleChangeImpactService ruleChangeImpactService;
+    private final StatementExportService statementExportService;
 
     private BankingConfiguration() {
-        this.transactionRepository = new InMemoryTransactionRepository();
-        this.interestRuleRepository = new InMemoryInterestRuleRepository();
+        // One numbering of accounts shared by the ledger indexes and the account service
+        AccountNumberDictionary accountNumbers = new AccountNumberDictionary();
+        DurableStore durableStore = openDurableStore(accountNumbers);
+        this.transactionRepository = durableStore == null
+                ? new InMemoryTransactionRepository(accountNumbers)
+                : durableStore.transactionRepository();
+        this.interestRuleRepository = durableStore == null
+                ? new InMemoryInterestRuleRepository()
+                : durableStore.interestRuleRepository();
         this.accountRepository = new InMemoryAccountRepository();
 
-        this.accountService = new AccountService(transactionRepository,accountRepository);
+        this.accountService = new AccountService(transactionRepository, accountRepository, accountNumbers);
+        restoreAccountBalances();
         this.transactionService = new TransactionService(transactionRepository, accountService);
         this.interestRuleService = new InterestRuleService(interestRuleRepository);
         this.statementService = new StatementService(
                 transactionService,
-                interestRuleService,
+                interestRuleService);
+        this.interestPostingService = new InterestPostingService(
+                transactionService,
+                statementService,
                 accountService);
+        this.monthEndInterestJob = new MonthEndInterestJob(
+                accountService,
+                interestRuleService,
+                interestPostingService,
+                ForkJoinPool.commonPool());
+        this.ruleChangeImpactService = new RuleChangeImpactService(
+                accountService,
+                transactionService,
+                interestRuleService,
+                interestPostingService,
+                monthEndInterestJob,
+                ForkJoinPool.commonPool());
+        interestRuleService.addRuleChangeListener(ruleChangeImpactService::reprocess);
+        this.statementExportService = new StatementExportService(
+                statementService,
+                accountService,
+                interestRuleService,
+                ForkJoinPool.commonPool());
+    }
+
+    // Null when no data directory is configured and everything stays in memory
+    private static DurableStore openDurableStore(AccountNumberDictionary accountNumbers) {
+        String dataDirectory = System.getProperty(DATA_DIRECTORY_PROPERTY);
+        if (dataDirectory == null || dataDirectory.isBlank()) {
+            return null;
+        }
+
+        TransactionLog.Durability durability = TransactionLog.Durability.valueOf(
+                System.getProperty(DURABILITY_PROPERTY, TransactionLog.Durability.SYNC_PER_BATCH.name()));
+        DurableStore store = DurableStore.open(
+                Path.of(dataDirectory, "ledger"), durability, DurableStore.DEFAULT_SEGMENT_BYTES, accountNumbers);
+        store.scheduleSnapshots(Duration.parse(System.getProperty(SNAPSHOT_INTERVAL_PROPERTY, "PT5M")));
+        Runtime.getRuntime().addShutdownHook(new Thread(store::close, "transaction-log-shutdown"));
+        return store;
+    }
+
+    // Accounts are not persisted separately; each balance is the closing running balance of its ledger
+    private void restoreAccountBalances() {
+        transactionRepository.findAccountNumbers().forEach(accountService::refreshAccountBalance);
     }
 
     public static synchronized BankingConfiguration getInstance() {
@@ -70,4 +138,20 @@ public class BankingConfiguration {
     public StatementService getStatementService() {
         return statementService;
     }
+
+    public InterestPostingService getInterestPostingService() {
+        return interestPostingService;
+    }
+
+    public MonthEndInterestJob getMonthEndInterestJob() {
+        return monthEndInterestJob;
+    }
+
+    public RuleChangeImpactService getRuleChangeImpactService() {
+        return ruleChangeImpactService;
+    }
+
+    public StatementExportService getStatementExportService() {
+        return statementExportService;
+    }
 }
\ No newline at end of file
@@ -2,15 +2,24 @@ package org.awesomegic.menu;
 
 import org.awesomegic.config.BankingConfiguration;
 import org.awesomegic.model.InterestRule;
+import org.awesomegic.model.Money;
 import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
 import org.awesomegic.service.AccountService;
+import org.awesomegic.service.InterestPostingService;
 import org.awesomegic.service.InterestRuleService;
+import org.awesomegic.service.MonthEndInterestJob;
+import org.awesomegic.service.StatementExportService;
 import org.awesomegic.service.StatementService;
 import org.awesomegic.service.TransactionService;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
 
 public class BankingMenu {
@@ -19,6 +28,9 @@ public class BankingMenu {
     private final TransactionService transactionService;
     private final InterestRuleService interestRuleService;
     private final StatementService statementService;
+    private final StatementExportService statementExportService;
+    private final InterestPostingService interestPostingService;
+    private final MonthEndInterestJob monthEndInterestJob;
 
 
     private static final DateTimeFormatter DATE_FORMATTER =
@@ -28,12 +40,18 @@ public class BankingMenu {
                        AccountService accountService,
                        TransactionService transactionService,
                        InterestRuleService interestRuleService,
-                       StatementService statementService) {
+                       StatementService statementService,
+                       StatementExportService statementExportService,
+                       InterestPostingService interestPostingService,
+                       MonthEndInterestJob monthEndInterestJob) {
         this.scanner = scanner;
         this.accountService = accountService;
         this.transactionService = transactionService;
         this.interestRuleService = interestRuleService;
         this.statementService = statementService;
+        this.statementExportService = statementExportService;
+        this.interestPostingService = interestPostingService;
+        this.monthEndInterestJob = monthEndInterestJob;
     }
 
 
@@ -62,6 +80,9 @@ public class BankingMenu {
         System.out.println("[T] Input transactions");
         System.out.println("[I] Define interest rules");
         System.out.println("[P] Print statement");
+        System.out.println("[E] Export statements");
+        System.out.println("[M] Post month-end interest");
+        System.out.println("[R] Run month-end interest for all accounts");
         System.out.println("[Q] Quit");
         System.out.print("> ");
     }
@@ -71,6 +92,9 @@ public class BankingMenu {
             case "T" -> handleTransactionInput();
             case "I" -> handleInterestRule();
             case "P" -> handleStatement();
+            case "E" -> handleStatementExport();
+            case "M" -> handleInterestPosting();
+            case "R" -> handleMonthEndRun();
             case "Q" -> {
                 displayQuitMessage();
                 return false;
@@ -161,13 +185,133 @@ public class BankingMenu {
         }
     }
 
+    private void handleStatementExport() {
+        while (true) {
+            System.out.println("\nPlease enter export details in <Year><Month> <Directory> [gzip] [<Account> ...] format");
+            System.out.println("(all accounts are exported when none are listed, or enter blank to go back to main menu):");
+            System.out.print("> ");
+
+            String input = scanner.nextLine().trim();
+
+            if (input.isEmpty()) {
+                return;
+            }
+
+            try {
+                String[] parts = input.split("\\s+");
+                if (parts.length < 2) {
+                    System.out.println("Invalid input. Please use <Year><Month> <Directory> [gzip] [<Account> ...] format.");
+                    continue;
+                }
+
+                int year = Integer.parseInt(parts[0].substring(0, 4));
+                int month = Integer.parseInt(parts[0].substring(4));
+                statementService.validateStatementInput(year, month);
+
+                Path directory = Path.of(parts[1]);
+                boolean gzip = parts.length > 2 && parts[2].equalsIgnoreCase("gzip");
+                List<String> accountNumbers = Arrays.asList(parts).subList(gzip ? 3 : 2, parts.length);
+
+                YearMonth ym = YearMonth.of(year, month);
+                StatementExportService.Report report = accountNumbers.isEmpty()
+                        ? statementExportService.exportAll(ym, directory, gzip)
+                        : statementExportService.export(ym, accountNumbers, directory, gzip);
+
+                System.out.printf("\nExported %d statement(s), %d bytes, to %s (%.1f statements/sec)\n",
+                        report.statementsWritten(), report.bytesWritten(), directory, report.statementsPerSecond());
+                break;
+            } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                System.out.println("Invalid year/month format. Please use YYYYMM format.");
+            } catch (Exception e) {
+                System.out.println("Error exporting statements: " + e.getMessage());
+            }
+        }
+    }
+
+    private void handleInterestPosting() {
+        while (true) {
+            System.out.println("\nPlease enter account and month to post interest for <Account> <Year><Month>");
+            System.out.println("(or enter blank to go back to main menu):");
+            System.out.print("> ");
+
+            String input = scanner.nextLine().trim();
+
+            if (input.isEmpty()) {
+                return;
+            }
+
+            try {
+                String[] parts = input.split("\\s+");
+                if (parts.length != 2) {
+                    System.out.println("Invalid input. Please use <Account> <Year><Month> format.");
+                    continue;
+                }
+
+                String accountNumber = parts[0];
+                int year = Integer.parseInt(parts[1].substring(0, 4));
+                int month = Integer.parseInt(parts[1].substring(4));
+                statementService.validateStatementInput(year, month);
+
+                YearMonth ym = YearMonth.of(year, month);
+                interestPostingService.validateMonthEnded(ym);
+                Optional<Transaction> interest = interestPostingService.postMonthlyInterest(accountNumber, ym);
+                if (interest.isPresent()) {
+                    System.out.printf("\nPosted interest of %.2f to %s for %s\n",
+                            Money.toBigDecimal(interest.get().amount()), accountNumber, ym);
+                } else {
+                    System.out.printf("\nNo interest due to %s for %s\n", accountNumber, ym);
+                }
+                break;
+            } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                System.out.println("Invalid year/month format. Please use YYYYMM format.");
+            } catch (Exception e) {
+                System.out.println("Error posting interest: " + e.getMessage());
+            }
+        }
+    }
+
+    private void handleMonthEndRun() {
+        while (true) {
+            System.out.println("\nPlease enter the month to post interest for every account <Year><Month>");
+            System.out.println("(or enter blank to go back to main menu):");
+            System.out.print("> ");
+
+            String input = scanner.nextLine().trim();
+
+            if (input.isEmpty()) {
+                return;
+            }
+
+            try {
+                int year = Integer.parseInt(input.substring(0, 4));
+                int month = Integer.parseInt(input.substring(4));
+                statementService.validateStatementInput(year, month);
+                interestPostingService.validateMonthEnded(YearMonth.of(year, month));
+
+                // Progress arrives from the job's pool threads; println keeps each line whole
+                MonthEndInterestJob.Report report = monthEndInterestJob.run(YearMonth.of(year, month), progress ->
+                        System.out.println(String.format("Posted %d/%d accounts (%.1f accounts/sec)",
+                                progress.completed(), progress.total(), progress.accountsPerSecond())));
+
+                System.out.printf("\nCredited interest to %d of %d account(s) for %s (%.1f accounts/sec)\n",
+                        report.accountsCredited(), report.accountsProcessed(), report.month(),
+                        report.accountsPerSecond());
+                break;
+            } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                System.out.println("Invalid year/month format. Please use YYYYMM format.");
+            } catch (Exception e) {
+                System.out.println("Error running month-end interest: " + e.getMessage());
+            }
+        }
+    }
+
     private void displayTransactions(String accountNumber) {
         List<Transaction> transactions = transactionService.getTransactionsByAccountNumber(accountNumber);
         System.out.println("\nAccount: " + accountNumber);
         System.out.println("| Date | Txn Id | Type | Amount |");
         transactions.forEach(txn ->
                 System.out.printf("| %s | %s | %s | %.2f |\n",
-                        txn.date(), txn.id(), txn.type(), txn.amount())
+                        txn.date(), TransactionId.format(txn.id()), txn.type(), Money.toBigDecimal(txn.amount()))
         );
     }
 
@@ -178,13 +322,19 @@ public class BankingMenu {
         System.out.println("| Date | Txn Id | Type | Amount | Balance |");
         transactions.forEach(txn ->
                 System.out.printf("| %s | %s | %s | %.2f | %.2f \n",
-                        txn.date(), txn.id(), txn.type(), txn.amount(), txn.balance())
+                        txn.date(), statementTransactionId(txn), txn.type(),
+                        Money.toBigDecimal(txn.amount()), Money.toBigDecimal(txn.balance()))
         );
 
-        BigDecimal balance = accountService.getAccountBalance(accountNumber);
+        BigDecimal balance = Money.toBigDecimal(accountService.getAccountBalance(accountNumber));
         System.out.printf("\nCurrent Balance: %.2f\n", balance);
     }
 
+    // Interest lines may not be posted yet, so their ID is not shown
+    private String statementTransactionId(Transaction txn) {
+        return txn.type() == Transaction.TransactionType.INTEREST ? "" : TransactionId.format(txn.id());
+    }
+
     private void displayInterestRules() {
         List<InterestRule> rules = interestRuleService.getAllInterestRules();
 
@@ -1,17 +1,16 @@
 package org.awesomegic.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
-public record Account(String accountNumber, BigDecimal balance, LocalDate createdDate) {
+/**
+ * An account and its current balance in cents, see {@link Money}.
+ */
+public record Account(String accountNumber, long balance, LocalDate createdDate) {
     public Account {
         if (accountNumber == null || accountNumber.isBlank()) {
             throw new IllegalArgumentException("Account number cannot be null or empty");
         }
-        if (balance == null) {
-            throw new IllegalArgumentException("Balance cannot be null");
-        }
-        if (balance.compareTo(BigDecimal.ZERO) < 0) {
+        if (balance < 0) {
             throw new IllegalArgumentException("Initial balance cannot be negative");
         }
         if (createdDate == null) {
@@ -20,6 +19,6 @@ public record Account(String accountNumber, BigDecimal balance, LocalDate create
     }
 
     public static Account createNew(String accountNumber) {
-        return new Account(accountNumber, BigDecimal.ZERO, LocalDate.now());
+        return new Account(accountNumber, 0, LocalDate.now());
     }
 }
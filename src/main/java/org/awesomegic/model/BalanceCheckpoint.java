@@ -0,0 +1,30 @@
+package org.awesomegic.model;
+
+/**
+ * Account position at the end of a month, in cents: the closing balance and how much of it was credited as interest.
+ */
+public record BalanceCheckpoint(long balance, long interestCredited) {
+
+    public static final BalanceCheckpoint ZERO = new BalanceCheckpoint(0, 0);
+
+    public BalanceCheckpoint plus(Transaction transaction) {
+        long interest = transaction.type() == Transaction.TransactionType.INTEREST ? transaction.amount() : 0;
+        return new BalanceCheckpoint(
+                Money.add(balance, transaction.signedAmount()),
+                Money.add(interestCredited, interest));
+    }
+
+    public BalanceCheckpoint minus(Transaction transaction) {
+        long interest = transaction.type() == Transaction.TransactionType.INTEREST ? transaction.amount() : 0;
+        return new BalanceCheckpoint(
+                Money.subtract(balance, transaction.signedAmount()),
+                Money.subtract(interestCredited, interest));
+    }
+
+    /**
+     * Balance that interest accrues on: interest already credited does not itself earn interest.
+     */
+    public long balanceExcludingInterest() {
+        return balance - interestCredited;
+    }
+}
@@ -0,0 +1,130 @@
+package org.awesomegic.model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Interest-bearing activity of one account in one month, kept as the net amount posted on each day of the month.
+ * A posting moves the balance for every remaining day of the month, so its share of the month's balance-days
+ * weighted by rate is its amount times the rate-days from its date to month end. The accrual is kept free of
+ * rates: a rule change needs no update, and pricing reads at most one rate-day sum per active day, however many
+ * postings the month holds. Interest postings are left out because credited interest does not itself earn
+ * interest.
+ * <p>
+ * Instances are immutable. A ledger keeps an {@link Accumulator} per month, updated in place on every posting,
+ * and takes an instance from it when the month is read.
+ */
+public final class InterestAccrual {
+
+    private final YearMonth month;
+
+    // Net signed amount posted on each day, indexed by day-of-month - 1
+    private final long[] netByDay;
+
+    private InterestAccrual(YearMonth month, long[] netByDay) {
+        this.month = month;
+        this.netByDay = netByDay;
+    }
+
+    public static InterestAccrual none(YearMonth month) {
+        return new InterestAccrual(month, new long[month.lengthOfMonth()]);
+    }
+
+    public static InterestAccrual of(YearMonth month, Collection<Transaction> transactions) {
+        Accumulator accumulator = new Accumulator(month);
+        transactions.forEach(accumulator::add);
+        return accumulator.toAccrual();
+    }
+
+    public YearMonth month() {
+        return month;
+    }
+
+    /**
+     * Sum over the month of balance x daily rate in basis points, with the given balance brought forward into
+     * the month. Divide by {@link InterestRule#INTEREST_DIVISOR} for the interest in cents.
+     */
+    public long basisPointBalanceDays(long openingBalance, InterestRateSchedule rateSchedule) {
+        LocalDate monthEndExclusive = month.atEndOfMonth().plusDays(1);
+        long total = Money.multiply(openingBalance, rateSchedule.basisPointDays(month.atDay(1), monthEndExclusive));
+
+        for (int day = 0; day < netByDay.length; day++) {
+            if (netByDay[day] != 0) {
+                total = Money.add(total, Money.multiply(
+                        netByDay[day], rateSchedule.basisPointDays(month.atDay(day + 1), monthEndExclusive)));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Running accrual of one month, adjusted in O(1) per posting. Not thread-safe: writers must be serialised,
+     * and a reader racing a writer must discard what it read, as the ledger's optimistic reads do.
+     */
+    public static final class Accumulator {
+
+        private final YearMonth month;
+        private final long[] netByDay;
+
+        public Accumulator(YearMonth month) {
+            this.month = month;
+            this.netByDay = new long[month.lengthOfMonth()];
+        }
+
+        public void add(Transaction transaction) {
+            adjust(transaction, transaction.signedAmount());
+        }
+
+        public void remove(Transaction transaction) {
+            adjust(transaction, -transaction.signedAmount());
+        }
+
+        /**
+         * The accrual so far, as an immutable copy.
+         */
+        public InterestAccrual toAccrual() {
+            return new InterestAccrual(month, netByDay.clone());
+        }
+
+        private void adjust(Transaction transaction, long delta) {
+            if (accrues(transaction)) {
+                int day = dayIndex(month, transaction.date());
+                netByDay[day] = Money.add(netByDay[day], delta);
+            }
+        }
+    }
+
+    private static boolean accrues(Transaction transaction) {
+        return transaction.type() != Transaction.TransactionType.INTEREST;
+    }
+
+    private static int dayIndex(YearMonth month, LocalDate date) {
+        if (!YearMonth.from(date).equals(month)) {
+            throw new IllegalArgumentException("Transaction date " + date + " is outside " + month);
+        }
+        return date.getDayOfMonth() - 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InterestAccrual other)) {
+            return false;
+        }
+        return month.equals(other.month) && Arrays.equals(netByDay, other.netByDay);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * month.hashCode() + Arrays.hashCode(netByDay);
+    }
+
+    @Override
+    public String toString() {
+        return "InterestAccrual[month=" + month + ", netByDay=" + Arrays.toString(netByDay) + "]";
+    }
+}
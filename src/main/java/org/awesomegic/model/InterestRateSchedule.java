@@ -0,0 +1,155 @@
+package org.awesomegic.model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rule set compiled into daily rates. For each calendar year it keeps a running total of the rate in basis
+ * points indexed by day-of-year, so the sum of daily rates over any date range is two array reads per year.
+ * Interest on a constant balance over a range is then balance x basisPointDays / {@link InterestRule#INTEREST_DIVISOR}.
+ * Days before the first rule carry no rate.
+ * <p>
+ * Instances are immutable snapshots of the rule set. Year tables and per-month rule periods are built on first
+ * use and shared by every caller holding the snapshot.
+ */
+public final class InterestRateSchedule {
+
+    private final NavigableMap<LocalDate, InterestRule> rulesByDate;
+
+    // cumulative[d] = sum of daily rates for days 1..d of the year; cumulative[0] = 0
+    private final Map<Integer, long[]> cumulativeByYear;
+
+    private final Map<YearMonth, List<InterestRulePeriod>> periodsByMonth;
+
+    private InterestRateSchedule(
+            NavigableMap<LocalDate, InterestRule> rulesByDate,
+            Map<Integer, long[]> reusableYears,
+            Map<YearMonth, List<InterestRulePeriod>> reusableMonths) {
+        this.rulesByDate = Collections.unmodifiableNavigableMap(rulesByDate);
+        this.cumulativeByYear = new ConcurrentHashMap<>(reusableYears);
+        this.periodsByMonth = new ConcurrentHashMap<>(reusableMonths);
+    }
+
+    public static InterestRateSchedule of(Collection<InterestRule> rules) {
+        return new InterestRateSchedule(toRuleMap(rules), Map.of(), Map.of());
+    }
+
+    /**
+     * Schedule for a new rule set that differs from this one only on or after {@code changedFrom}. Tables already
+     * built for earlier years and months are carried over as they are.
+     */
+    public InterestRateSchedule rebuiltFrom(Collection<InterestRule> rules, LocalDate changedFrom) {
+        Map<Integer, long[]> unaffectedYears = new HashMap<>();
+        cumulativeByYear.forEach((year, table) -> {
+            if (year < changedFrom.getYear()) {
+                unaffectedYears.put(year, table);
+            }
+        });
+
+        YearMonth changedMonth = YearMonth.from(changedFrom);
+        Map<YearMonth, List<InterestRulePeriod>> unaffectedMonths = new HashMap<>();
+        periodsByMonth.forEach((month, periods) -> {
+            if (month.isBefore(changedMonth)) {
+                unaffectedMonths.put(month, periods);
+            }
+        });
+
+        return new InterestRateSchedule(toRuleMap(rules), unaffectedYears, unaffectedMonths);
+    }
+
+    /**
+     * Sum of daily rates in basis points over [startDate, endDateExclusive).
+     */
+    public long basisPointDays(LocalDate startDate, LocalDate endDateExclusive) {
+        long total = 0;
+        LocalDate cursor = startDate;
+
+        while (cursor.isBefore(endDateExclusive)) {
+            LocalDate nextYear = LocalDate.of(cursor.getYear() + 1, 1, 1);
+            LocalDate sliceEnd = endDateExclusive.isBefore(nextYear) ? endDateExclusive : nextYear;
+
+            long[] cumulative = cumulativeByYear.computeIfAbsent(cursor.getYear(), this::buildYearTable);
+            int fromIndex = cursor.getDayOfYear() - 1;
+            int toIndex = sliceEnd.equals(nextYear) ? cumulative.length - 1 : sliceEnd.getDayOfYear() - 1;
+            total = Money.add(total, cumulative[toIndex] - cumulative[fromIndex]);
+
+            cursor = sliceEnd;
+        }
+        return total;
+    }
+
+    /**
+     * The month split into stretches with a single applicable rule, or empty if no rule is in effect on the
+     * first of the month. The returned list is unmodifiable.
+     */
+    public List<InterestRulePeriod> periodsIn(YearMonth month) {
+        return periodsByMonth.computeIfAbsent(month, this::buildPeriods);
+    }
+
+    private long[] buildYearTable(int year) {
+        LocalDate day = LocalDate.of(year, 1, 1);
+        long[] cumulative = new long[day.lengthOfYear() + 1];
+        Map.Entry<LocalDate, InterestRule> inEffect = rulesByDate.floorEntry(day);
+        long rate = inEffect == null ? 0 : inEffect.getValue().rateBasisPoints();
+
+        for (int d = 1; d < cumulative.length; d++) {
+            InterestRule change = rulesByDate.get(day);
+            if (change != null) {
+                rate = change.rateBasisPoints();
+            }
+            cumulative[d] = cumulative[d - 1] + rate;
+            day = day.plusDays(1);
+        }
+        return cumulative;
+    }
+
+    private List<InterestRulePeriod> buildPeriods(YearMonth month) {
+        LocalDate startDate = month.atDay(1);
+        LocalDate endDate = month.atEndOfMonth();
+
+        Map.Entry<LocalDate, InterestRule> inEffect = rulesByDate.floorEntry(startDate);
+        if (inEffect == null) {
+            return List.of();
+        }
+
+        List<InterestRulePeriod> periods = new ArrayList<>();
+        InterestRule currentRule = inEffect.getValue();
+        LocalDate currentPeriodStart = startDate;
+
+        for (InterestRule rule : rulesByDate.subMap(startDate, false, endDate, true).values()) {
+            periods.add(new InterestRulePeriod(
+                    currentPeriodStart,
+                    rule.effectiveDate().minusDays(1),
+                    currentRule
+            ));
+
+            currentPeriodStart = rule.effectiveDate();
+            currentRule = rule;
+        }
+
+        periods.add(new InterestRulePeriod(
+                currentPeriodStart,
+                endDate,
+                currentRule
+        ));
+
+        return List.copyOf(periods);
+    }
+
+    private static NavigableMap<LocalDate, InterestRule> toRuleMap(Collection<InterestRule> rules) {
+        NavigableMap<LocalDate, InterestRule> byDate = new TreeMap<>();
+        for (InterestRule rule : rules) {
+            byDate.put(rule.effectiveDate(), rule);
+        }
+        return byDate;
+    }
+}
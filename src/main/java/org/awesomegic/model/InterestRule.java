@@ -4,6 +4,14 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 public record InterestRule(LocalDate effectiveDate, String ruleId, BigDecimal interestRate) {
+
+    public static final int DAYS_IN_YEAR = 365;
+
+    /**
+     * Turns cents x days x basis points into cents of interest: 365 days x 10,000 basis points.
+     */
+    public static final long INTEREST_DIVISOR = DAYS_IN_YEAR * 10_000L;
+
     public InterestRule {
         if (effectiveDate == null) {
             throw new IllegalArgumentException("Effective date cannot be null");
@@ -17,4 +25,11 @@ public record InterestRule(LocalDate effectiveDate, String ruleId, BigDecimal in
             throw new IllegalArgumentException("Interest rate must be between 0 and 100");
         }
     }
+
+    /**
+     * Annual rate in basis points (hundredths of a percent), e.g. 2.20% is 220.
+     */
+    public long rateBasisPoints() {
+        return Money.fromBigDecimal(interestRate);
+    }
 }
@@ -0,0 +1,17 @@
+package org.awesomegic.model;
+
+import java.time.LocalDate;
+
+/**
+ * Stretch of days, both ends inclusive, during which one interest rule applies.
+ */
+public record InterestRulePeriod(
+        LocalDate startDate,
+        LocalDate endDate,
+        InterestRule interestRule,
+        long rateBasisPoints
+) {
+    public InterestRulePeriod(LocalDate startDate, LocalDate endDate, InterestRule interestRule) {
+        this(startDate, endDate, interestRule, interestRule.rateBasisPoints());
+    }
+}
@@ -0,0 +1,27 @@
+package org.awesomegic.model;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Consistent read of one account's month: the position brought forward from the previous month-end, the
+ * month's transactions in (date, id) order and the interest accrual they add up to.
+ */
+public record LedgerMonth(
+        YearMonth month,
+        BalanceCheckpoint opening,
+        List<Transaction> transactions,
+        InterestAccrual accrual) {
+
+    public LedgerMonth {
+        transactions = List.copyOf(transactions);
+    }
+
+    public LedgerMonth(YearMonth month, BalanceCheckpoint opening, List<Transaction> transactions) {
+        this(month, opening, transactions, InterestAccrual.of(month, transactions));
+    }
+
+    public static LedgerMonth empty(YearMonth month) {
+        return new LedgerMonth(month, BalanceCheckpoint.ZERO, List.of(), InterestAccrual.none(month));
+    }
+}
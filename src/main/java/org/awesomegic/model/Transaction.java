@@ -1,11 +1,12 @@
 package org.awesomegic.model;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 
-public record Transaction(String id, LocalDate date, String accountNumber,
-                          TransactionType type, BigDecimal amount, BigDecimal balance) {
+/**
+ * A posting to an account ledger. {@code amount} and {@code balance} are in cents, see {@link Money}.
+ */
+public record Transaction(long id, LocalDate date, String accountNumber,
+                          TransactionType type, long amount, long balance) {
 
     public enum TransactionType {
         DEPOSIT("D"),
@@ -42,8 +43,8 @@ public record Transaction(String id, LocalDate date, String accountNumber,
     }
 
     public Transaction {
-        if (id == null || id.trim().isEmpty()) {
-            throw new IllegalArgumentException("Id cannot be null or empty");
+        if (TransactionId.sequence(id) == 0) {
+            throw new IllegalArgumentException("Id must have a positive sequence");
         }
         if(date == null) {
             throw new IllegalArgumentException("Transaction date cannot be null");
@@ -54,9 +55,19 @@ public record Transaction(String id, LocalDate date, String accountNumber,
         if(type == null) {
             throw new IllegalArgumentException("Transaction type cannot be null");
         }
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (amount <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
-        amount = amount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public Transaction withBalance(long newBalance) {
+        return new Transaction(id, date, accountNumber, type, amount, newBalance);
+    }
+
+    /**
+     * Amount as it affects the balance: positive for deposits and interest, negative for withdrawals.
+     */
+    public long signedAmount() {
+        return type == TransactionType.WITHDRAWAL ? -amount : amount;
     }
 }
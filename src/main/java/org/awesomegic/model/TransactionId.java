@@ -0,0 +1,75 @@
+package org.awesomegic.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Transaction ids packed into a {@code long}: the epoch day in the high bits and a per-day sequence in the low
+ * {@value #SEQUENCE_BITS} bits. Numeric order is (date, sequence) order, and the {@code yyyyMMdd-NN} text form is
+ * only produced when an id is displayed.
+ */
+public final class TransactionId {
+
+    public static final int SEQUENCE_BITS = 24;
+    public static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+
+    private static final DateTimeFormatter ID_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private TransactionId() {
+    }
+
+    public static long of(LocalDate date, int sequence) {
+        if (sequence < 0 || sequence > MAX_SEQUENCE) {
+            throw new IllegalArgumentException("Sequence must be between 0 and " + MAX_SEQUENCE);
+        }
+        return (date.toEpochDay() << SEQUENCE_BITS) | sequence;
+    }
+
+    public static LocalDate date(long id) {
+        return LocalDate.ofEpochDay(id >> SEQUENCE_BITS);
+    }
+
+    public static int sequence(long id) {
+        return (int) (id & MAX_SEQUENCE);
+    }
+
+    /**
+     * Lowest id that can exist on {@code date}, for use as an inclusive range bound.
+     */
+    public static long first(LocalDate date) {
+        return of(date, 0);
+    }
+
+    /**
+     * Highest id that can exist on {@code date}, for use as an inclusive range bound.
+     */
+    public static long last(LocalDate date) {
+        return of(date, MAX_SEQUENCE);
+    }
+
+    public static String format(long id) {
+        int sequence = sequence(id);
+        StringBuilder builder = new StringBuilder(12);
+        ID_DATE_FORMATTER.formatTo(date(id), builder);
+        builder.append('-');
+        if (sequence < 10) {
+            builder.append('0');
+        }
+        return builder.append(sequence).toString();
+    }
+
+    public static long parse(String text) {
+        int separator = text.indexOf('-');
+        if (separator != 8) {
+            throw new IllegalArgumentException("Transaction id must be in yyyyMMdd-NN format");
+        }
+
+        try {
+            LocalDate date = LocalDate.parse(text.substring(0, separator), ID_DATE_FORMATTER);
+            return of(date, Integer.parseInt(text.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Transaction id must be in yyyyMMdd-NN format", e);
+        }
+    }
+}
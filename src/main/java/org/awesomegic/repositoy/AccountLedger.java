@@ -0,0 +1,197 @@
+package org.awesomegic.repositoy;
+
+import org.awesomegic.model.BalanceCheckpoint;
+import org.awesomegic.model.InterestAccrual;
+import org.awesomegic.model.LedgerMonth;
+import org.awesomegic.model.Money;
+import org.awesomegic.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * One account's transactions in (date, id) order together with its month-end balance checkpoints.
+ * The ledger owns running balances: each stored transaction's balance is the account balance right after it.
+ * Writers must be serialised per account. Readers never block writers: single lookups go straight to the
+ * concurrent maps, and multi-part reads such as {@link #month} use an optimistic stamp and retry if a write
+ * slipped in between.
+ */
+final class AccountLedger {
+
+    private final ConcurrentNavigableMap<LedgerKey, Transaction> transactions = new ConcurrentSkipListMap<>();
+
+    // Cumulative position at the end of each month that has activity; later months without activity inherit it
+    private final ConcurrentNavigableMap<YearMonth, BalanceCheckpoint> checkpoints = new ConcurrentSkipListMap<>();
+
+    // Revision of the latest write in or before each month with activity, so readers can tell whether
+    // anything up to a given month-end has changed since they last looked
+    private final ConcurrentNavigableMap<YearMonth, Long> revisions = new ConcurrentSkipListMap<>();
+
+    // Running interest accrual of each month with activity, adjusted in place under the write lock
+    private final Map<YearMonth, InterestAccrual.Accumulator> accruals = new ConcurrentHashMap<>();
+
+    private final LongSupplier revisionSource;
+
+    private final StampedLock lock = new StampedLock();
+
+    AccountLedger(LongSupplier revisionSource) {
+        this.revisionSource = revisionSource;
+    }
+
+    /**
+     * Inserts the transaction with its running balance and shifts the balances of the transactions after it.
+     * Returns the stamped transaction followed by every later transaction whose balance changed.
+     */
+    List<Transaction> add(Transaction transaction) {
+        long stamp = lock.writeLock();
+        try {
+            return insert(transaction);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the transaction and returns the later transactions whose running balance changed as a result.
+     */
+    List<Transaction> remove(Transaction transaction) {
+        long stamp = lock.writeLock();
+        try {
+            return delete(transaction);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * The month's transactions together with the position at the end of the previous month, read as one view.
+     */
+    LedgerMonth month(YearMonth month) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            LedgerMonth view = readMonth(month);
+            if (lock.validate(stamp)) {
+                return view;
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return readMonth(month);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private LedgerMonth readMonth(YearMonth month) {
+        return new LedgerMonth(
+                month,
+                closingPosition(month.minusMonths(1)),
+                new ArrayList<>(between(month.atDay(1), month.atEndOfMonth())),
+                accrual(month));
+    }
+
+    private InterestAccrual accrual(YearMonth month) {
+        InterestAccrual.Accumulator accumulator = accruals.get(month);
+        return accumulator == null ? InterestAccrual.none(month) : accumulator.toAccrual();
+    }
+
+    private List<Transaction> insert(Transaction transaction) {
+        LedgerKey key = LedgerKey.of(transaction);
+        Map.Entry<LedgerKey, Transaction> previous = transactions.lowerEntry(key);
+        long openingBalance = previous == null ? 0 : previous.getValue().balance();
+
+        Transaction stamped = transaction.withBalance(Money.add(openingBalance, transaction.signedAmount()));
+        transactions.put(key, stamped);
+
+        List<Transaction> restamped = new ArrayList<>();
+        restamped.add(stamped);
+        restamped.addAll(shiftBalancesAfter(key, transaction.signedAmount()));
+
+        YearMonth month = YearMonth.from(transaction.date());
+        checkpoints.putIfAbsent(month, closingPosition(month));
+        checkpoints.tailMap(month, true).replaceAll((m, checkpoint) -> checkpoint.plus(transaction));
+        accruals.computeIfAbsent(month, InterestAccrual.Accumulator::new).add(transaction);
+        markRevised(month);
+        return restamped;
+    }
+
+    private List<Transaction> delete(Transaction transaction) {
+        LedgerKey key = LedgerKey.of(transaction);
+        if (transactions.remove(key) == null) {
+            return List.of();
+        }
+        List<Transaction> restamped = shiftBalancesAfter(key, -transaction.signedAmount());
+
+        YearMonth month = YearMonth.from(transaction.date());
+        checkpoints.tailMap(month, true).replaceAll((m, checkpoint) -> checkpoint.minus(transaction));
+        InterestAccrual.Accumulator accumulator = accruals.get(month);
+        if (accumulator != null) {
+            accumulator.remove(transaction);
+        }
+        markRevised(month);
+        return restamped;
+    }
+
+    private void markRevised(YearMonth month) {
+        long revision = revisionSource.getAsLong();
+        revisions.put(month, revision);
+        revisions.tailMap(month, false).replaceAll((m, r) -> revision);
+    }
+
+    // Only the suffix after the insertion point is touched, so appends cost nothing extra
+    private List<Transaction> shiftBalancesAfter(LedgerKey key, long delta) {
+        ConcurrentNavigableMap<LedgerKey, Transaction> later = transactions.tailMap(key, false);
+        if (later.isEmpty()) {
+            return List.of();
+        }
+        later.replaceAll((k, t) -> t.withBalance(Money.add(t.balance(), delta)));
+        return new ArrayList<>(later.values());
+    }
+
+    boolean isEmpty() {
+        return transactions.isEmpty();
+    }
+
+    Collection<Transaction> all() {
+        return transactions.values();
+    }
+
+    Collection<Transaction> between(LocalDate startDate, LocalDate endDate) {
+        return transactions.subMap(LedgerKey.first(startDate), true, LedgerKey.last(endDate), true).values();
+    }
+
+    // Running balances make this one lookup: the balance stamped on the last transaction on or before the date
+    long balanceAsOf(LocalDate date) {
+        Map.Entry<LedgerKey, Transaction> last = transactions.floorEntry(LedgerKey.last(date));
+        return last == null ? 0 : last.getValue().balance();
+    }
+
+    // Walks the suffix a back-dated posting would shift, which an insert on that date has to walk anyway
+    long lowestBalanceFrom(LocalDate date) {
+        long lowest = balanceAsOf(date);
+        for (Transaction later : transactions.tailMap(LedgerKey.last(date), false).values()) {
+            lowest = Math.min(lowest, later.balance());
+        }
+        return lowest;
+    }
+
+    long revisionAsOf(YearMonth month) {
+        Map.Entry<YearMonth, Long> entry = revisions.floorEntry(month);
+        return entry == null ? 0 : entry.getValue();
+    }
+
+    BalanceCheckpoint closingPosition(YearMonth month) {
+        Map.Entry<YearMonth, BalanceCheckpoint> entry = checkpoints.floorEntry(month);
+        return entry == null ? BalanceCheckpoint.ZERO : entry.getValue();
+    }
+}
@@ -0,0 +1,165 @@
+package org.awesomegic.repositoy;
+
+import org.awesomegic.util.AccountNumberDictionary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Transactions and interest rules kept in memory and made durable by one shared {@link TransactionLog}, with
+ * periodic {@link LedgerSnapshot snapshots} so a restart loads the latest snapshot and replays only the log
+ * written after it.
+ * <p>
+ * A snapshot stops writers only while the log rolls to a new segment: once every change logged before the roll
+ * has reached memory, writers carry on and the rules and transactions are copied alongside them. The copy may
+ * already include some changes from the new segment, which is harmless because replaying a save or delete onto
+ * state that already has it leaves the same result. Segments and snapshots the new snapshot covers are deleted.
+ * <p>
+ * Besides the ledger, a snapshot keeps the last transaction sequence used on each date, so ids of transactions
+ * deleted before it are still never reissued after a restart.
+ * <p>
+ * Snapshots bound the log replay, not the restart: the ledger is held in memory in full, so loading a snapshot
+ * still saves every transaction ever kept back into it, and restart time grows with the size of the ledger.
+ */
+public final class DurableStore implements AutoCloseable {
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private final Path directory;
+    private final TransactionLog log;
+    private final InMemoryTransactionRepository ledger;
+    private final InMemoryInterestRuleRepository rules;
+    private final LoggedTransactionRepository transactionRepository;
+    private final LoggedInterestRuleRepository interestRuleRepository;
+
+    private final ReadWriteLock writeGate = new ReentrantReadWriteLock();
+    private ScheduledExecutorService snapshotScheduler;
+
+    private DurableStore(
+            Path directory,
+            TransactionLog log,
+            InMemoryTransactionRepository ledger,
+            InMemoryInterestRuleRepository rules) {
+        this.directory = directory;
+        this.log = log;
+        this.ledger = ledger;
+        this.rules = rules;
+        this.transactionRepository = new LoggedTransactionRepository(ledger, log, writeGate);
+        this.interestRuleRepository = new LoggedInterestRuleRepository(rules, log, writeGate);
+    }
+
+    public static DurableStore open(Path directory, TransactionLog.Durability durability) {
+        return open(directory, durability, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public static DurableStore open(Path directory, TransactionLog.Durability durability, long maxSegmentBytes) {
+        return open(directory, durability, maxSegmentBytes, new AccountNumberDictionary());
+    }
+
+    /**
+     * Opens the store in the directory, loading the latest snapshot and replaying the log segments after it.
+     * Accounts are numbered with the given dictionary, shared with the services.
+     */
+    public static DurableStore open(
+            Path directory,
+            TransactionLog.Durability durability,
+            long maxSegmentBytes,
+            AccountNumberDictionary accountNumbers) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create data directory " + directory, e);
+        }
+
+        InMemoryTransactionRepository ledger = new InMemoryTransactionRepository(accountNumbers);
+        InMemoryInterestRuleRepository rules = new InMemoryInterestRuleRepository();
+
+        Optional<Path> snapshot = LedgerSnapshot.latest(directory);
+        long fromSegment = snapshot
+                .map(file -> LedgerSnapshot.read(file, rules::save, ledger::restoreLastSequence, ledger::save))
+                .orElse(1L);
+
+        TransactionLog log = TransactionLog.open(directory, durability, maxSegmentBytes, fromSegment, record -> {
+            LoggedTransactionRepository.apply(ledger, record);
+            LoggedInterestRuleRepository.apply(rules, record);
+        });
+        return new DurableStore(directory, log, ledger, rules);
+    }
+
+    public TransactionRepository transactionRepository() {
+        return transactionRepository;
+    }
+
+    public InterestRuleRepository interestRuleRepository() {
+        return interestRuleRepository;
+    }
+
+    /**
+     * Writes a snapshot of the current state and drops the log segments it makes redundant. Returns the first
+     * segment a restart will replay.
+     */
+    public synchronized long snapshot() {
+        long segment;
+        writeGate.writeLock().lock();
+        try {
+            segment = log.rollSegment();
+        } finally {
+            writeGate.writeLock().unlock();
+        }
+
+        LedgerSnapshot.write(directory, segment, rules.findAll(), ledger.lastSequences(), ledger.findAll());
+        log.deleteSegmentsBefore(segment);
+        LedgerSnapshot.deleteBefore(directory, segment);
+        return segment;
+    }
+
+    /**
+     * Takes a snapshot in the background every {@code interval} until the store is closed.
+     */
+    public synchronized void scheduleSnapshots(Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        if (snapshotScheduler != null) {
+            throw new IllegalStateException("Snapshots are already scheduled");
+        }
+
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    // A failed snapshot leaves the previous one and the full log tail in place, so the next attempt just retries
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IllegalStateException ignored) {
+            // Nothing to undo
+        }
+    }
+
+    /**
+     * Stops scheduled snapshots and closes the log once every accepted change is written.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (snapshotScheduler != null) {
+                snapshotScheduler.shutdownNow();
+            }
+        }
+        log.close();
+    }
+}
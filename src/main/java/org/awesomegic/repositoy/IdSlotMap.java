@@ -0,0 +1,114 @@
+package org.awesomegic.repositoy;
+
+/**
+ * Transaction id to slot number map in two primitive arrays with linear probing, sixteen bytes per entry and
+ * no objects per entry. Not thread-safe.
+ */
+final class IdSlotMap {
+
+    static final long ABSENT = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] ids;
+    // Slot number + 1, so zero marks an empty entry whatever the id
+    private long[] slots;
+    private int size;
+
+    IdSlotMap() {
+        ids = new long[MIN_CAPACITY];
+        slots = new long[MIN_CAPACITY];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(long id) {
+        for (int i = indexFor(id, ids.length); slots[i] != 0; i = next(i)) {
+            if (ids[i] == id) {
+                return slots[i] - 1;
+            }
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Maps the id to the slot and returns the slot it was mapped to before, or {@link #ABSENT}.
+     */
+    long put(long id, long slot) {
+        if ((size + 1) * 4L > ids.length * 3L) {
+            resize(ids.length * 2);
+        }
+
+        int i = indexFor(id, ids.length);
+        for (; slots[i] != 0; i = next(i)) {
+            if (ids[i] == id) {
+                long previous = slots[i] - 1;
+                slots[i] = slot + 1;
+                return previous;
+            }
+        }
+        ids[i] = id;
+        slots[i] = slot + 1;
+        size++;
+        return ABSENT;
+    }
+
+    /**
+     * Removes the id and returns the slot it was mapped to, or {@link #ABSENT}.
+     */
+    long remove(long id) {
+        int i = indexFor(id, ids.length);
+        while (slots[i] != 0 && ids[i] != id) {
+            i = next(i);
+        }
+        if (slots[i] == 0) {
+            return ABSENT;
+        }
+
+        long removed = slots[i] - 1;
+        slots[i] = 0;
+        size--;
+
+        // Pull later entries of the probe run back so lookups never stop early at the hole
+        for (int j = next(i); slots[j] != 0; j = next(j)) {
+            int home = indexFor(ids[j], ids.length);
+            boolean movable = i <= j ? (home <= i || home > j) : (home <= i && home > j);
+            if (movable) {
+                ids[i] = ids[j];
+                slots[i] = slots[j];
+                slots[j] = 0;
+                i = j;
+            }
+        }
+        return removed;
+    }
+
+    private void resize(int capacity) {
+        long[] oldIds = ids;
+        long[] oldSlots = slots;
+        ids = new long[capacity];
+        slots = new long[capacity];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldSlots[i] != 0) {
+                int j = indexFor(oldIds[i], capacity);
+                while (slots[j] != 0) {
+                    j = (j + 1) & (capacity - 1);
+                }
+                ids[j] = oldIds[i];
+                slots[j] = oldSlots[i];
+            }
+        }
+    }
+
+    private int next(int index) {
+        return (index + 1) & (ids.length - 1);
+    }
+
+    // Ids pack the date into the high bits, so mix before masking
+    private static int indexFor(long id, int capacity) {
+        long mixed = id * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & (capacity - 1);
+    }
+}
@@ -4,40 +4,93 @@ import org.awesomegic.model.InterestRule;
 
 import java.time.LocalDate;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 public final class InMemoryInterestRuleRepository implements InMemoryRepository<InterestRule,String>, InterestRuleRepository {
 
-    private final Map<String,InterestRule> interestRulesMap = new ConcurrentHashMap<>();
+    // Copy-on-write timeline: readers work on an immutable snapshot, writers swap in a new one under the lock
+    private volatile RuleTimeline timeline = RuleTimeline.EMPTY;
+
     @Override
-    public InterestRule save(InterestRule interestRule) {
-        interestRulesMap.put(interestRule.ruleId(), interestRule);
+    public synchronized InterestRule save(InterestRule interestRule) {
+        NavigableMap<LocalDate, InterestRule> rulesByDate = new TreeMap<>(timeline.rulesByDate());
+        Map<String, InterestRule> rulesById = new HashMap<>(timeline.rulesById());
+
+        InterestRule previous = rulesById.remove(interestRule.ruleId());
+        if (previous != null) {
+            rulesByDate.remove(previous.effectiveDate());
+        }
+
+        InterestRule sameDateRule = rulesByDate.put(interestRule.effectiveDate(), interestRule);
+        if (sameDateRule != null) {
+            rulesById.remove(sameDateRule.ruleId());
+        }
+        rulesById.put(interestRule.ruleId(), interestRule);
+
+        timeline = new RuleTimeline(rulesByDate, rulesById);
         return interestRule;
     }
 
     @Override
     public Optional<InterestRule> findById(String ruleId) {
-        return Optional.ofNullable(interestRulesMap.get(ruleId));
+        return Optional.ofNullable(timeline.rulesById().get(ruleId));
 
     }
 
     @Override
     public List<InterestRule> findAll() {
-        return interestRulesMap.values().stream()
-                .sorted(Comparator.comparing(InterestRule::effectiveDate))
-                .collect(Collectors.toList());
+        return new ArrayList<>(timeline.rulesByDate().values());
     }
 
     @Override
-    public boolean deleteById(String ruleId) {
-        return interestRulesMap.remove(ruleId) != null;
+    public synchronized boolean deleteById(String ruleId) {
+        InterestRule existing = timeline.rulesById().get(ruleId);
+        if (existing == null) {
+            return false;
+        }
+
+        NavigableMap<LocalDate, InterestRule> rulesByDate = new TreeMap<>(timeline.rulesByDate());
+        Map<String, InterestRule> rulesById = new HashMap<>(timeline.rulesById());
+        rulesByDate.remove(existing.effectiveDate());
+        rulesById.remove(ruleId);
+
+        timeline = new RuleTimeline(rulesByDate, rulesById);
+        return true;
     }
 
     @Override
     public Optional<InterestRule> findMostRecentRuleBeforeDate(LocalDate date) {
-        return interestRulesMap.values().stream()
-                .filter(rule -> !rule.effectiveDate().isAfter(date))
-                .max(java.util.Comparator.comparing(InterestRule::effectiveDate));
+        Map.Entry<LocalDate, InterestRule> entry = timeline.rulesByDate().floorEntry(date);
+        return entry == null ? Optional.empty() : Optional.of(entry.getValue());
+    }
+
+    @Override
+    public Optional<InterestRule> findByEffectiveDate(LocalDate effectiveDate) {
+        return Optional.ofNullable(timeline.rulesByDate().get(effectiveDate));
+    }
+
+    @Override
+    public List<InterestRule> findRulesInEffectBetween(LocalDate startDate, LocalDate endDate) {
+        NavigableMap<LocalDate, InterestRule> rulesByDate = timeline.rulesByDate();
+        List<InterestRule> rules = new ArrayList<>();
+        if (startDate.isAfter(endDate)) {
+            return rules;
+        }
+
+        Map.Entry<LocalDate, InterestRule> startingRule = rulesByDate.floorEntry(startDate);
+        if (startingRule != null) {
+            rules.add(startingRule.getValue());
+        }
+        rules.addAll(rulesByDate.subMap(startDate, false, endDate, true).values());
+        return rules;
+    }
+
+    private record RuleTimeline(NavigableMap<LocalDate, InterestRule> rulesByDate,
+                                Map<String, InterestRule> rulesById) {
+        static final RuleTimeline EMPTY = new RuleTimeline(new TreeMap<>(), new HashMap<>());
+
+        RuleTimeline {
+            rulesByDate = Collections.unmodifiableNavigableMap(rulesByDate);
+            rulesById = Collections.unmodifiableMap(rulesById);
+        }
     }
 }
@@ -1,37 +1,80 @@
 package org.awesomegic.repositoy;
 
+import org.awesomegic.model.BalanceCheckpoint;
+import org.awesomegic.model.LedgerMonth;
 import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
+import org.awesomegic.util.AccountNumberDictionary;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
-public final class InMemoryTransactionRepository implements InMemoryRepository<Transaction,String>, TransactionRepository {
-    private final Map<String,Transaction> transactionMap = new ConcurrentHashMap<String, Transaction>();
+public final class InMemoryTransactionRepository implements InMemoryRepository<Transaction,Long>, TransactionRepository {
+    private final Map<Long,Transaction> transactionMap = new ConcurrentHashMap<Long, Transaction>();
+
+    private final AccountNumberDictionary accountNumbers;
+
+    // Secondary index: dense account id -> ledger ordered by (date, id), kept in step with transactionMap.
+    // Grown by copying under the lock and republished after every new ledger; ledger writes synchronise on
+    // the ledger so they are serialised per account.
+    private volatile AccountLedger[] accountIndex = new AccountLedger[64];
+
+    // Shared across ledgers so a revision is never reused when an account's ledger is emptied and refilled
+    private final AtomicLong ledgerRevisions = new AtomicLong();
+
+    private final InterestMonths interestMonths = new InterestMonths();
+
+    // Highest sequence saved per date; never lowered by a delete, so a deleted id is not handed out again
+    private final Map<LocalDate, Integer> lastSequences = new ConcurrentHashMap<>();
+
+    public InMemoryTransactionRepository() {
+        this(new AccountNumberDictionary());
+    }
+
+    /**
+     * Creates a repository that numbers accounts with the given dictionary, shared with the services.
+     */
+    public InMemoryTransactionRepository(AccountNumberDictionary accountNumbers) {
+        this.accountNumbers = accountNumbers;
+    }
 
     @Override
     public Transaction save(Transaction transaction) {
+        int accountId = accountNumbers.idOf(transaction.accountNumber());
+        restoreLastSequence(TransactionId.date(transaction.id()), TransactionId.sequence(transaction.id()));
 
-        if(transaction.id() == null || transaction.id().isEmpty()) {
-            throw new RuntimeException("Transaction should have ID");
-        }
-
-        Transaction newTransaction = new Transaction(
-                transaction.id(),
-                transaction.date(),
-                transaction.accountNumber(),
-                transaction.type(),
-                transaction.amount(),
-                transaction.balance()
-        );
+        // Every stored transaction of an account shares the dictionary's copy of its number
+        String canonical = accountNumbers.accountNumber(accountId);
+        Transaction newTransaction = transaction.accountNumber() == canonical
+                ? transaction
+                : new Transaction(
+                        transaction.id(),
+                        transaction.date(),
+                        canonical,
+                        transaction.type(),
+                        transaction.amount(),
+                        transaction.balance()
+                );
 
-        transactionMap.put(transaction.id(), newTransaction);
-        return newTransaction;
+        Transaction previous = transactionMap.put(transaction.id(), newTransaction);
+        if (previous != null) {
+            removeFromIndex(previous);
+        }
+        AccountLedger ledger = ledgerFor(accountId);
+        synchronized (ledger) {
+            List<Transaction> restamped = ledger.add(newTransaction);
+            restamped.forEach(t -> transactionMap.replace(t.id(), t));
+            interestMonths.added(newTransaction);
+            return restamped.get(0);
+        }
     }
 
     @Override
-    public Optional<Transaction> findById(String id) {
+    public Optional<Transaction> findById(Long id) {
         return Optional.ofNullable(transactionMap.get(id));
     }
 
@@ -41,23 +84,102 @@ public final class InMemoryTransactionRepository implements InMemoryRepository<T
     }
 
     @Override
-    public boolean deleteById(String id) {
-        return transactionMap.remove(id) != null;
+    public boolean deleteById(Long id) {
+        Transaction removed = transactionMap.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        removeFromIndex(removed);
+        return true;
     }
 
     public List<Transaction> findByAccountNumber(String accountNumber) {
-        return transactionMap.values().stream()
-                .filter(t -> t.accountNumber().equals(accountNumber))
-                .collect(Collectors.toList());
+        AccountLedger ledger = ledger(accountNumber);
+        if (ledger == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(ledger.all());
     }
 
     @Override
     public List<Transaction> findByAccountNumberAndDateRange(String accountNumber, LocalDate startDate, LocalDate endDate) {
-        return transactionMap.values().stream()
-                .filter(t -> t.accountNumber().equals(accountNumber))
-                .filter(t -> !t.date().isBefore(startDate) && !t.date().isAfter(endDate))
-                .sorted((t1, t2) -> t1.date().compareTo(t2.date()))
-                .collect(Collectors.toList());
+        AccountLedger ledger = ledger(accountNumber);
+        if (ledger == null || startDate.isAfter(endDate)) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(ledger.between(startDate, endDate));
+    }
+
+    @Override
+    public long findBalanceAsOf(String accountNumber, LocalDate date) {
+        AccountLedger ledger = ledger(accountNumber);
+        return ledger == null ? 0 : ledger.balanceAsOf(date);
+    }
+
+    @Override
+    public long findLowestBalanceFrom(String accountNumber, LocalDate date) {
+        AccountLedger ledger = ledger(accountNumber);
+        return ledger == null ? 0 : ledger.lowestBalanceFrom(date);
+    }
+
+    @Override
+    public BalanceCheckpoint findBalanceCheckpoint(String accountNumber, YearMonth month) {
+        AccountLedger ledger = ledger(accountNumber);
+        return ledger == null ? BalanceCheckpoint.ZERO : ledger.closingPosition(month);
+    }
+
+    @Override
+    public long findLedgerRevision(String accountNumber, YearMonth month) {
+        AccountLedger ledger = ledger(accountNumber);
+        return ledger == null ? 0 : ledger.revisionAsOf(month);
+    }
+
+    @Override
+    public LedgerMonth findLedgerMonth(String accountNumber, YearMonth month) {
+        AccountLedger ledger = ledger(accountNumber);
+        return ledger == null ? LedgerMonth.empty(month) : ledger.month(month);
+    }
+
+    @Override
+    public NavigableSet<YearMonth> findInterestMonths() {
+        return interestMonths.months();
+    }
+
+    @Override
+    public int findLastSequence(LocalDate date) {
+        return lastSequences.getOrDefault(date, 0);
+    }
+
+    @Override
+    public List<String> findAccountNumbers() {
+        AccountLedger[] ledgers = accountIndex;
+        List<String> accounts = new ArrayList<>();
+        for (int accountId = 0; accountId < ledgers.length; accountId++) {
+            if (ledgers[accountId] != null && !ledgers[accountId].isEmpty()) {
+                accounts.add(accountNumbers.accountNumber(accountId));
+            }
+        }
+        return accounts;
+    }
+
+    @Override
+    public boolean hasTransactions(String accountNumber) {
+        AccountLedger ledger = ledger(accountNumber);
+        return ledger != null && !ledger.isEmpty();
+    }
+
+    /**
+     * Copy of the highest sequence saved on each date, for a snapshot.
+     */
+    Map<LocalDate, Integer> lastSequences() {
+        return new TreeMap<>(lastSequences);
+    }
+
+    /**
+     * Raises the date's last sequence to at least the given one, such as when loading it from a snapshot.
+     */
+    void restoreLastSequence(LocalDate date, int sequence) {
+        lastSequences.merge(date, sequence, Math::max);
     }
 
     @Override
@@ -66,4 +188,41 @@ public final class InMemoryTransactionRepository implements InMemoryRepository<T
                 .filter(t -> t.date().isEqual(startDate))
                 .collect(Collectors.toList());
     }
+
+    private void removeFromIndex(Transaction transaction) {
+        AccountLedger ledger = ledger(transaction.accountNumber());
+        if (ledger == null) {
+            return;
+        }
+        synchronized (ledger) {
+            ledger.remove(transaction).forEach(t -> transactionMap.replace(t.id(), t));
+            interestMonths.removed(transaction);
+        }
+    }
+
+    // Null for an account with no ledger yet
+    private AccountLedger ledger(String accountNumber) {
+        int accountId = accountNumbers.find(accountNumber);
+        AccountLedger[] ledgers = accountIndex;
+        return accountId >= 0 && accountId < ledgers.length ? ledgers[accountId] : null;
+    }
+
+    private AccountLedger ledgerFor(int accountId) {
+        AccountLedger[] ledgers = accountIndex;
+        if (accountId < ledgers.length && ledgers[accountId] != null) {
+            return ledgers[accountId];
+        }
+
+        synchronized (this) {
+            ledgers = accountIndex;
+            if (accountId >= ledgers.length) {
+                ledgers = Arrays.copyOf(ledgers, Math.max(ledgers.length * 2, accountId + 1));
+            }
+            if (ledgers[accountId] == null) {
+                ledgers[accountId] = new AccountLedger(ledgerRevisions::incrementAndGet);
+            }
+            accountIndex = ledgers;
+            return ledgers[accountId];
+        }
+    }
 }
@@ -0,0 +1,34 @@
+package org.awesomegic.repositoy;
+
+import org.awesomegic.model.Transaction;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Months carrying at least one INTEREST transaction, counted so a month drops out once its last posting is
+ * deleted. Kept in step with a repository's stored transactions, so it survives a restart with them.
+ */
+final class InterestMonths {
+
+    private final ConcurrentNavigableMap<YearMonth, Integer> postings = new ConcurrentSkipListMap<>();
+
+    void added(Transaction transaction) {
+        if (transaction.type() == Transaction.TransactionType.INTEREST) {
+            postings.merge(YearMonth.from(transaction.date()), 1, Integer::sum);
+        }
+    }
+
+    void removed(Transaction transaction) {
+        if (transaction.type() == Transaction.TransactionType.INTEREST) {
+            postings.computeIfPresent(YearMonth.from(transaction.date()), (month, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    NavigableSet<YearMonth> months() {
+        return Collections.unmodifiableNavigableSet(postings.keySet());
+    }
+}
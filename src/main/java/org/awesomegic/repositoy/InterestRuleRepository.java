@@ -7,9 +7,19 @@ import java.util.List;
 import java.util.Optional;
 
 public interface InterestRuleRepository {
+    /**
+     * Saves the rule, replacing any rule with the same rule ID or the same effective date.
+     */
     InterestRule save(InterestRule interestRule);
     Optional<InterestRule> findById(String ruleId);
     List<InterestRule> findAll();
     boolean deleteById(String ruleId);
     Optional<InterestRule> findMostRecentRuleBeforeDate(LocalDate date);
+    Optional<InterestRule> findByEffectiveDate(LocalDate effectiveDate);
+
+    /**
+     * Returns the rule in effect on {@code startDate} (if any) followed by every rule that takes effect
+     * after {@code startDate} up to and including {@code endDate}, ordered by effective date.
+     */
+    List<InterestRule> findRulesInEffectBetween(LocalDate startDate, LocalDate endDate);
 }
@@ -0,0 +1,29 @@
+package org.awesomegic.repositoy;
+
+import org.awesomegic.model.Transaction;
+
+import java.time.LocalDate;
+
+/**
+ * Position of a transaction in an account ledger: ordered by date, then by transaction id.
+ */
+record LedgerKey(LocalDate date, long id) implements Comparable<LedgerKey> {
+
+    static LedgerKey of(Transaction transaction) {
+        return new LedgerKey(transaction.date(), transaction.id());
+    }
+
+    static LedgerKey first(LocalDate date) {
+        return new LedgerKey(date, Long.MIN_VALUE);
+    }
+
+    static LedgerKey last(LocalDate date) {
+        return new LedgerKey(date, Long.MAX_VALUE);
+    }
+
+    @Override
+    public int compareTo(LedgerKey other) {
+        int byDate = date.compareTo(other.date);
+        return byDate != 0 ? byDate : Long.compare(id, other.id);
+    }
+}
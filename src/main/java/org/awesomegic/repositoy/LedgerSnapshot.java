@@ -0,0 +1,276 @@
+package org.awesomegic.repositoy;
+
+import org.awesomegic.model.InterestRule;
+import org.awesomegic.model.Money;
+import org.awesomegic.model.Transaction;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact binary image of the rule timeline and every account ledger, named after the first log segment it does
+ * not cover. Transactions are stored per account in ledger order and without running balances, so loading one
+ * appends each transaction at the tail of its ledger and the balances, checkpoints and indexes come back in a
+ * single pass with no restamping. That pass is still one save per transaction in the ledger's history: the
+ * snapshot holds the transactions themselves, not a summary of them. The file ends with a CRC32 of everything
+ * before it.
+ * <p>
+ * Layout: magic, version, segment, rule count, rules, date count and the last sequence used on each date, account
+ * count, then per account its number, closing balance, transaction count and transactions. The last sequences
+ * cover transactions deleted before the snapshot, whose ids must still not be reused. Each closing balance is
+ * checked against the loaded transactions. Version 1 files, without sequences or balances, still load.
+ */
+final class LedgerSnapshot {
+
+    private static final int MAGIC = 0x41475353;
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_SEQUENCES = 1;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private static final Comparator<Transaction> LEDGER_ORDER = Comparator.comparing(LedgerKey::of);
+
+    private LedgerSnapshot() {
+    }
+
+    /**
+     * Writes the snapshot for the given segment. The file only appears under its final name once it is complete
+     * and synced, so a crash part way through leaves the previous snapshot in charge.
+     */
+    static Path write(
+            Path directory,
+            long segment,
+            Collection<InterestRule> rules,
+            Map<LocalDate, Integer> lastSequences,
+            Collection<Transaction> transactions) {
+        Path file = snapshotPath(directory, segment);
+        Path temporary = directory.resolve(file.getFileName() + TEMPORARY_SUFFIX);
+
+        Map<String, List<Transaction>> ledgers = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            ledgers.computeIfAbsent(transaction.accountNumber(), account -> new ArrayList<>()).add(transaction);
+        }
+
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 checksum = new CRC32();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024), checksum));
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(segment);
+
+            out.writeInt(rules.size());
+            for (InterestRule rule : rules) {
+                out.writeLong(rule.effectiveDate().toEpochDay());
+                out.writeLong(rule.rateBasisPoints());
+                writeString(out, rule.ruleId());
+            }
+
+            out.writeInt(lastSequences.size());
+            for (Map.Entry<LocalDate, Integer> lastSequence : lastSequences.entrySet()) {
+                out.writeLong(lastSequence.getKey().toEpochDay());
+                out.writeInt(lastSequence.getValue());
+            }
+
+            out.writeInt(ledgers.size());
+            for (Map.Entry<String, List<Transaction>> ledger : ledgers.entrySet()) {
+                List<Transaction> ordered = ledger.getValue();
+                ordered.sort(LEDGER_ORDER);
+
+                writeString(out, ledger.getKey());
+                out.writeLong(closingBalance(ordered));
+                out.writeInt(ordered.size());
+                for (Transaction transaction : ordered) {
+                    out.writeLong(transaction.id());
+                    out.writeLong(transaction.date().toEpochDay());
+                    out.writeLong(transaction.amount());
+                    out.writeByte(transaction.type().getCode().charAt(0));
+                }
+            }
+
+            out.flush();
+            // Written past the checksummed stream so the trailer does not cover itself
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, (int) checksum.getValue()));
+            channel.force(true);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write ledger snapshot " + file, e);
+        }
+
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write ledger snapshot " + file, e);
+        }
+        return file;
+    }
+
+    /**
+     * Feeds the snapshot's rules, the last sequence used on each date and then its transactions, account by
+     * account in ledger order, to the given consumers and returns the first segment the snapshot does not cover.
+     */
+    static long read(
+            Path file,
+            Consumer<InterestRule> rules,
+            ObjIntConsumer<LocalDate> lastSequences,
+            Consumer<Transaction> transactions) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer contents = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int bodyLength = contents.limit() - Integer.BYTES;
+            if (bodyLength < 2 * Integer.BYTES + Long.BYTES) {
+                throw new IllegalStateException("Ledger snapshot " + file + " is truncated");
+            }
+
+            CRC32 checksum = new CRC32();
+            checksum.update(contents.slice(0, bodyLength));
+            if ((int) checksum.getValue() != contents.getInt(bodyLength)) {
+                throw new IllegalStateException("Ledger snapshot " + file + " fails its checksum");
+            }
+
+            ByteBuffer body = contents.slice(0, bodyLength);
+            int magic = body.getInt();
+            int version = body.getInt();
+            if (magic != MAGIC || (version != VERSION && version != VERSION_WITHOUT_SEQUENCES)) {
+                throw new IllegalStateException("Ledger snapshot " + file + " has an unknown format");
+            }
+            long segment = body.getLong();
+
+            int ruleCount = body.getInt();
+            for (int i = 0; i < ruleCount; i++) {
+                LocalDate effectiveDate = LocalDate.ofEpochDay(body.getLong());
+                long rateBasisPoints = body.getLong();
+                rules.accept(new InterestRule(effectiveDate, readString(body), Money.toBigDecimal(rateBasisPoints)));
+            }
+
+            boolean withSequences = version != VERSION_WITHOUT_SEQUENCES;
+            if (withSequences) {
+                int dateCount = body.getInt();
+                for (int i = 0; i < dateCount; i++) {
+                    LocalDate date = LocalDate.ofEpochDay(body.getLong());
+                    lastSequences.accept(date, body.getInt());
+                }
+            }
+
+            int accountCount = body.getInt();
+            for (int i = 0; i < accountCount; i++) {
+                String accountNumber = readString(body);
+                long expectedBalance = withSequences ? body.getLong() : 0;
+                long balance = 0;
+                int transactionCount = body.getInt();
+                for (int j = 0; j < transactionCount; j++) {
+                    long id = body.getLong();
+                    LocalDate date = LocalDate.ofEpochDay(body.getLong());
+                    long amount = body.getLong();
+                    Transaction.TransactionType type =
+                            Transaction.TransactionType.fromCode(String.valueOf((char) body.get()));
+                    Transaction transaction = new Transaction(id, date, accountNumber, type, amount, 0);
+                    balance = Money.add(balance, transaction.signedAmount());
+                    transactions.accept(transaction);
+                }
+                if (withSequences && balance != expectedBalance) {
+                    throw new IllegalStateException("Ledger snapshot " + file + " does not add up for account " + accountNumber);
+                }
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read ledger snapshot " + file, e);
+        }
+    }
+
+    /**
+     * The snapshot covering the most segments, if any has been written.
+     */
+    static Optional<Path> latest(Path directory) {
+        List<Long> segments = snapshotSegments(directory);
+        if (segments.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshotPath(directory, segments.get(segments.size() - 1)));
+    }
+
+    /**
+     * Deletes the snapshots older than the given segment's, along with any left half-written.
+     */
+    static void deleteBefore(Path directory, long segment) {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(TEMPORARY_SUFFIX)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+            for (long number : snapshotSegments(directory)) {
+                if (number < segment) {
+                    Files.deleteIfExists(snapshotPath(directory, number));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not delete old ledger snapshots in " + directory, e);
+        }
+    }
+
+    private static List<Long> snapshotSegments(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not list ledger snapshots in " + directory, e);
+        }
+    }
+
+    private static Path snapshotPath(Path directory, long segment) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX));
+    }
+
+    private static long closingBalance(List<Transaction> transactions) {
+        long balance = 0;
+        for (Transaction transaction : transactions) {
+            balance = Money.add(balance, transaction.signedAmount());
+        }
+        return balance;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xffff) {
+            throw new IllegalArgumentException("Value is too long to snapshot: " + value);
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer body) {
+        byte[] bytes = new byte[body.getShort() & 0xffff];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package org.awesomegic.repositoy;
+
+import org.awesomegic.model.InterestRule;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Durable interest rule repository: rule changes share the {@link TransactionLog} with the ledger and are applied
+ * to an in-memory rule timeline, which serves all reads. Instances come from a {@link DurableStore}.
+ */
+public final class LoggedInterestRuleRepository implements InterestRuleRepository {
+
+    private final InMemoryInterestRuleRepository rules;
+    private final TransactionLog log;
+    private final ReadWriteLock writeGate;
+
+    LoggedInterestRuleRepository(InMemoryInterestRuleRepository rules, TransactionLog log, ReadWriteLock writeGate) {
+        this.rules = rules;
+        this.log = log;
+        this.writeGate = writeGate;
+    }
+
+    static void apply(InMemoryInterestRuleRepository rules, TransactionLog.LogRecord record) {
+        if (record instanceof TransactionLog.RuleSaved saved) {
+            rules.save(saved.rule());
+        } else if (record instanceof TransactionLog.RuleDeleted deleted) {
+            rules.deleteById(deleted.ruleId());
+        }
+    }
+
+    @Override
+    public InterestRule save(InterestRule interestRule) {
+        writeGate.readLock().lock();
+        try {
+            log.append(new TransactionLog.RuleSaved(interestRule));
+            return rules.save(interestRule);
+        } finally {
+            writeGate.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<InterestRule> findById(String ruleId) {
+        return rules.findById(ruleId);
+    }
+
+    @Override
+    public List<InterestRule> findAll() {
+        return rules.findAll();
+    }
+
+    @Override
+    public boolean deleteById(String ruleId) {
+        if (rules.findById(ruleId).isEmpty()) {
+            return false;
+        }
+        writeGate.readLock().lock();
+        try {
+            log.append(new TransactionLog.RuleDeleted(ruleId));
+            return rules.deleteById(ruleId);
+        } finally {
+            writeGate.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<InterestRule> findMostRecentRuleBeforeDate(LocalDate date) {
+        return rules.findMostRecentRuleBeforeDate(date);
+    }
+
+    @Override
+    public Optional<InterestRule> findByEffectiveDate(LocalDate effectiveDate) {
+        return rules.findByEffectiveDate(effectiveDate);
+    }
+
+    @Override
+    public List<InterestRule> findRulesInEffectBetween(LocalDate startDate, LocalDate endDate) {
+        return rules.findRulesInEffectBetween(startDate, endDate);
+    }
+}
@@ -0,0 +1,137 @@
+package org.awesomegic.repositoy;
+
+import org.awesomegic.model.BalanceCheckpoint;
+import org.awesomegic.model.LedgerMonth;
+import org.awesomegic.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Durable transaction repository: every change is appended to a {@link TransactionLog} before it is applied to
+ * an in-memory ledger, which serves all reads. Instances come from a {@link DurableStore}, which rebuilds the
+ * ledger from its latest snapshot and the log written since.
+ * Changes to the same transaction ID must not race each other, which the services already guarantee; changes to
+ * different IDs may be applied in a different order than they were logged without affecting the result.
+ */
+public final class LoggedTransactionRepository implements TransactionRepository {
+
+    private final InMemoryTransactionRepository ledger;
+    private final TransactionLog log;
+
+    // Held shared from append to apply, so a snapshot can wait for every logged change to reach the ledger
+    private final ReadWriteLock writeGate;
+
+    LoggedTransactionRepository(InMemoryTransactionRepository ledger, TransactionLog log, ReadWriteLock writeGate) {
+        this.ledger = ledger;
+        this.log = log;
+        this.writeGate = writeGate;
+    }
+
+    static void apply(InMemoryTransactionRepository ledger, TransactionLog.LogRecord record) {
+        if (record instanceof TransactionLog.Saved saved) {
+            ledger.save(saved.transaction());
+        } else if (record instanceof TransactionLog.Deleted deleted) {
+            ledger.deleteById(deleted.id());
+        }
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        writeGate.readLock().lock();
+        try {
+            log.append(new TransactionLog.Saved(transaction));
+            return ledger.save(transaction);
+        } finally {
+            writeGate.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        return ledger.findById(id);
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        return ledger.findAll();
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        if (ledger.findById(id).isEmpty()) {
+            return false;
+        }
+        writeGate.readLock().lock();
+        try {
+            log.append(new TransactionLog.Deleted(id));
+            return ledger.deleteById(id);
+        } finally {
+            writeGate.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByAccountNumber(String accountNumber) {
+        return ledger.findByAccountNumber(accountNumber);
+    }
+
+    @Override
+    public List<Transaction> findByAccountNumberAndDateRange(String accountNumber, LocalDate startDate, LocalDate endDate) {
+        return ledger.findByAccountNumberAndDateRange(accountNumber, startDate, endDate);
+    }
+
+    @Override
+    public List<Transaction> findTransactionsByDate(LocalDate startDate) {
+        return ledger.findTransactionsByDate(startDate);
+    }
+
+    @Override
+    public long findBalanceAsOf(String accountNumber, LocalDate date) {
+        return ledger.findBalanceAsOf(accountNumber, date);
+    }
+
+    @Override
+    public long findLowestBalanceFrom(String accountNumber, LocalDate date) {
+        return ledger.findLowestBalanceFrom(accountNumber, date);
+    }
+
+    @Override
+    public NavigableSet<YearMonth> findInterestMonths() {
+        return ledger.findInterestMonths();
+    }
+
+    @Override
+    public int findLastSequence(LocalDate date) {
+        return ledger.findLastSequence(date);
+    }
+
+    @Override
+    public List<String> findAccountNumbers() {
+        return ledger.findAccountNumbers();
+    }
+
+    @Override
+    public boolean hasTransactions(String accountNumber) {
+        return ledger.hasTransactions(accountNumber);
+    }
+
+    @Override
+    public BalanceCheckpoint findBalanceCheckpoint(String accountNumber, YearMonth month) {
+        return ledger.findBalanceCheckpoint(accountNumber, month);
+    }
+
+    @Override
+    public long findLedgerRevision(String accountNumber, YearMonth month) {
+        return ledger.findLedgerRevision(accountNumber, month);
+    }
+
+    @Override
+    public LedgerMonth findLedgerMonth(String accountNumber, YearMonth month) {
+        return ledger.findLedgerMonth(accountNumber, month);
+    }
+}
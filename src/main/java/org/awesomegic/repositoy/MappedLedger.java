@@ -0,0 +1,279 @@
+package org.awesomegic.repositoy;
+
+import org.awesomegic.model.BalanceCheckpoint;
+import org.awesomegic.model.LedgerMonth;
+import org.awesomegic.model.Money;
+import org.awesomegic.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * One account's index into {@link TransactionSegments}: the slot numbers of its transactions in (date, id) order,
+ * in a single growable array. Running balances and running interest live in the slots themselves, so balance and
+ * month-end lookups are a binary search and one read, and a date range is a contiguous run of the array.
+ * Inserting or removing shifts the running totals of the later slots in place.
+ */
+final class MappedLedger {
+
+    private final TransactionSegments segments;
+    private final LongSupplier revisionSource;
+
+    private long[] slots = new long[8];
+    private int size;
+
+    // Revision of the latest write in or before each month with activity, as in AccountLedger
+    private final ConcurrentNavigableMap<YearMonth, Long> revisions = new ConcurrentSkipListMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    MappedLedger(TransactionSegments segments, LongSupplier revisionSource) {
+        this.segments = segments;
+        this.revisionSource = revisionSource;
+    }
+
+    record Inserted(long slot, Transaction transaction) {
+    }
+
+    /**
+     * Stores the transaction with its running balance and shifts the totals of the transactions after it.
+     */
+    Inserted insert(Transaction transaction) {
+        lock.writeLock().lock();
+        try {
+            int position = upperBound(transaction.date().toEpochDay(), transaction.id());
+            long openingBalance = position == 0 ? 0 : segments.balance(slots[position - 1]);
+            long openingInterest = position == 0 ? 0 : segments.interestCredited(slots[position - 1]);
+
+            long balance = Money.add(openingBalance, transaction.signedAmount());
+            long slot = segments.append(transaction, balance, Money.add(openingInterest, interestOf(transaction)));
+            shiftFrom(position, transaction.signedAmount(), interestOf(transaction));
+
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, position, slots, position + 1, size - position);
+            slots[position] = slot;
+            size++;
+
+            markRevised(YearMonth.from(transaction.date()));
+            return new Inserted(slot, transaction.withBalance(balance));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the slot from the ledger and shifts the totals of the transactions after it. The slot itself is left
+     * for the caller to mark deleted.
+     */
+    void remove(long slot) {
+        lock.writeLock().lock();
+        try {
+            long epochDay = segments.epochDay(slot);
+            long id = segments.id(slot);
+            // A replacement is inserted before its original is removed, so both can share the (date, id) position
+            int position = upperBound(epochDay, id) - 1;
+            while (position >= 0 && slots[position] != slot
+                    && segments.epochDay(slots[position]) == epochDay && segments.id(slots[position]) == id) {
+                position--;
+            }
+            if (position < 0 || slots[position] != slot) {
+                return;
+            }
+            Transaction transaction = segments.read(slot);
+
+            System.arraycopy(slots, position + 1, slots, position, size - position - 1);
+            size--;
+            shiftFrom(position, -transaction.signedAmount(), -interestOf(transaction));
+
+            markRevised(YearMonth.from(transaction.date()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a slot found when reopening the segments. Call {@link #restamp} once every slot is back.
+     */
+    void restore(long slot) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+        }
+        slots[size++] = slot;
+    }
+
+    /**
+     * Puts restored slots in ledger order and rewrites their running totals, which a crash in the middle of a
+     * shift may have left part-way.
+     */
+    void restamp() {
+        lock.writeLock().lock();
+        try {
+            Comparator<Long> ledgerOrder = Comparator.<Long>comparingLong(segments::epochDay).thenComparingLong(segments::id);
+            slots = Arrays.stream(slots, 0, size).boxed().sorted(ledgerOrder).mapToLong(Long::longValue).toArray();
+            size = slots.length;
+            if (size == 0) {
+                slots = new long[8];
+            }
+
+            long balance = 0;
+            long interest = 0;
+            for (int i = 0; i < size; i++) {
+                Transaction transaction = segments.read(slots[i]);
+                balance = Money.add(balance, transaction.signedAmount());
+                interest = Money.add(interest, interestOf(transaction));
+                segments.shiftTotals(slots[i],
+                        balance - segments.balance(slots[i]),
+                        interest - segments.interestCredited(slots[i]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return size == 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Transaction> all() {
+        lock.readLock().lock();
+        try {
+            return read(0, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Transaction> between(LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            return read(firstOnOrAfter(startDate), firstAfter(endDate));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long balanceAsOf(LocalDate date) {
+        lock.readLock().lock();
+        try {
+            int last = firstAfter(date) - 1;
+            return last < 0 ? 0 : segments.balance(slots[last]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long lowestBalanceFrom(LocalDate date) {
+        lock.readLock().lock();
+        try {
+            int first = firstAfter(date);
+            long lowest = first == 0 ? 0 : segments.balance(slots[first - 1]);
+            for (int i = first; i < size; i++) {
+                lowest = Math.min(lowest, segments.balance(slots[i]));
+            }
+            return lowest;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    BalanceCheckpoint closingPosition(YearMonth month) {
+        lock.readLock().lock();
+        try {
+            return positionBefore(firstAfter(month.atEndOfMonth()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long revisionAsOf(YearMonth month) {
+        Map.Entry<YearMonth, Long> entry = revisions.floorEntry(month);
+        return entry == null ? 0 : entry.getValue();
+    }
+
+    /**
+     * The month's transactions together with the position at the end of the previous month, read as one view.
+     */
+    LedgerMonth month(YearMonth month) {
+        lock.readLock().lock();
+        try {
+            int from = firstOnOrAfter(month.atDay(1));
+            return new LedgerMonth(month, positionBefore(from), read(from, firstAfter(month.atEndOfMonth())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BalanceCheckpoint positionBefore(int position) {
+        if (position == 0) {
+            return BalanceCheckpoint.ZERO;
+        }
+        long slot = slots[position - 1];
+        return new BalanceCheckpoint(segments.balance(slot), segments.interestCredited(slot));
+    }
+
+    private List<Transaction> read(int from, int to) {
+        List<Transaction> transactions = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            transactions.add(segments.read(slots[i]));
+        }
+        return transactions;
+    }
+
+    private void shiftFrom(int position, long balanceDelta, long interestDelta) {
+        for (int i = position; i < size; i++) {
+            segments.shiftTotals(slots[i], balanceDelta, interestDelta);
+        }
+    }
+
+    private void markRevised(YearMonth month) {
+        long revision = revisionSource.getAsLong();
+        revisions.put(month, revision);
+        revisions.tailMap(month, false).replaceAll((m, r) -> revision);
+    }
+
+    private int firstOnOrAfter(LocalDate date) {
+        return upperBound(date.toEpochDay() - 1, Long.MAX_VALUE);
+    }
+
+    private int firstAfter(LocalDate date) {
+        return upperBound(date.toEpochDay(), Long.MAX_VALUE);
+    }
+
+    // Index of the first slot ordered after (epochDay, id)
+    private int upperBound(long epochDay, long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long slot = slots[mid];
+            long slotDay = segments.epochDay(slot);
+            if (slotDay < epochDay || (slotDay == epochDay && segments.id(slot) <= id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long interestOf(Transaction transaction) {
+        return transaction.type() == Transaction.TransactionType.INTEREST ? transaction.amount() : 0;
+    }
+}
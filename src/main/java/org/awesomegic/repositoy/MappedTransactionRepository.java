@@ -0,0 +1,255 @@
+package org.awesomegic.repositoy;
+
+import org.awesomegic.model.BalanceCheckpoint;
+import org.awesomegic.model.LedgerMonth;
+import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transaction repository that keeps its history in memory-mapped {@link TransactionSegments} instead of on the
+ * heap. Each transaction is one fixed-width slot, and the page cache decides what stays resident. The heap holds
+ * only indexes: a primitive id-to-slot table and, per account, its slots in ledger order. Heap use therefore
+ * grows by a couple of longs per transaction, and account and date-range reads walk the mapped slots in order.
+ * <p>
+ * Account numbers are stored inline and limited to {@value TransactionSegments#MAX_ACCOUNT_BYTES} UTF-8 bytes.
+ * Reopening the directory, with the same segment size, rebuilds the indexes from the slots. Changes to the same
+ * transaction ID must not race each other, which the services already guarantee.
+ */
+public final class MappedTransactionRepository implements TransactionRepository, AutoCloseable {
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private final TransactionSegments segments;
+
+    // Guarded by itself
+    private final IdSlotMap idIndex = new IdSlotMap();
+
+    private final Map<String, MappedLedger> accountIndex = new ConcurrentHashMap<>();
+
+    // Shared across ledgers, as in InMemoryTransactionRepository
+    private final AtomicLong ledgerRevisions = new AtomicLong();
+
+    private final InterestMonths interestMonths = new InterestMonths();
+
+    // Highest sequence saved per date, as in InMemoryTransactionRepository; retired slots keep their ids, so
+    // reopening finds the same marks
+    private final Map<LocalDate, Integer> lastSequences = new ConcurrentHashMap<>();
+
+    private MappedTransactionRepository(TransactionSegments segments) {
+        this.segments = segments;
+    }
+
+    public static MappedTransactionRepository open(Path directory) {
+        return open(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens the repository in the directory, indexing every live transaction already stored there.
+     */
+    public static MappedTransactionRepository open(Path directory, long segmentBytes) {
+        MappedTransactionRepository repository = new MappedTransactionRepository(
+                TransactionSegments.open(directory, segmentBytes));
+        repository.rebuildIndexes();
+        return repository;
+    }
+
+    private void rebuildIndexes() {
+        long slotCount = segments.slotCount();
+        for (long slot = 0; slot < slotCount; slot++) {
+            recordSequence(segments.id(slot));
+            if (segments.isLive(slot)) {
+                // A crash between writing a replacement and retiring the original leaves both; the later one wins
+                long superseded = idIndex.put(segments.id(slot), slot);
+                if (superseded != IdSlotMap.ABSENT) {
+                    segments.markDeleted(superseded);
+                }
+            }
+        }
+
+        for (long slot = 0; slot < slotCount; slot++) {
+            if (segments.isLive(slot)) {
+                Transaction transaction = segments.read(slot);
+                ledgerFor(transaction.accountNumber()).restore(slot);
+                interestMonths.added(transaction);
+            }
+        }
+        accountIndex.values().forEach(MappedLedger::restamp);
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        TransactionSegments.checkAccountNumber(transaction.accountNumber());
+        recordSequence(transaction.id());
+
+        // The replacement is appended before the original is retired, so a crash in between leaves both slots
+        // live and reopening keeps the later one, rather than leaving neither
+        MappedLedger.Inserted inserted = ledgerFor(transaction.accountNumber()).insert(transaction);
+        long previous;
+        synchronized (idIndex) {
+            previous = idIndex.put(transaction.id(), inserted.slot());
+        }
+        interestMonths.added(transaction);
+        if (previous == IdSlotMap.ABSENT) {
+            return inserted.transaction();
+        }
+
+        retire(previous);
+        // Retiring the original from the same ledger shifted the replacement's running balance
+        return segments.read(inserted.slot());
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        long slot;
+        synchronized (idIndex) {
+            slot = idIndex.get(id);
+        }
+        if (slot == IdSlotMap.ABSENT || !segments.isLive(slot)) {
+            return Optional.empty();
+        }
+        return Optional.of(segments.read(slot));
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        List<Transaction> transactions = new ArrayList<>();
+        long slotCount = segments.slotCount();
+        for (long slot = 0; slot < slotCount; slot++) {
+            if (segments.isLive(slot)) {
+                transactions.add(segments.read(slot));
+            }
+        }
+        return transactions;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        long slot;
+        synchronized (idIndex) {
+            slot = idIndex.remove(id);
+        }
+        if (slot == IdSlotMap.ABSENT) {
+            return false;
+        }
+        retire(slot);
+        return true;
+    }
+
+    @Override
+    public List<Transaction> findByAccountNumber(String accountNumber) {
+        MappedLedger ledger = accountIndex.get(accountNumber);
+        return ledger == null ? new ArrayList<>() : ledger.all();
+    }
+
+    @Override
+    public List<Transaction> findByAccountNumberAndDateRange(String accountNumber, LocalDate startDate, LocalDate endDate) {
+        MappedLedger ledger = accountIndex.get(accountNumber);
+        if (ledger == null || startDate.isAfter(endDate)) {
+            return new ArrayList<>();
+        }
+        return ledger.between(startDate, endDate);
+    }
+
+    // Compares the stored day before decoding, so a scan only builds the transactions it returns
+    @Override
+    public List<Transaction> findTransactionsByDate(LocalDate startDate) {
+        long epochDay = startDate.toEpochDay();
+        List<Transaction> transactions = new ArrayList<>();
+        long slotCount = segments.slotCount();
+        for (long slot = 0; slot < slotCount; slot++) {
+            if (segments.epochDay(slot) == epochDay && segments.isLive(slot)) {
+                transactions.add(segments.read(slot));
+            }
+        }
+        return transactions;
+    }
+
+    @Override
+    public long findBalanceAsOf(String accountNumber, LocalDate date) {
+        MappedLedger ledger = accountIndex.get(accountNumber);
+        return ledger == null ? 0 : ledger.balanceAsOf(date);
+    }
+
+    @Override
+    public long findLowestBalanceFrom(String accountNumber, LocalDate date) {
+        MappedLedger ledger = accountIndex.get(accountNumber);
+        return ledger == null ? 0 : ledger.lowestBalanceFrom(date);
+    }
+
+    @Override
+    public BalanceCheckpoint findBalanceCheckpoint(String accountNumber, YearMonth month) {
+        MappedLedger ledger = accountIndex.get(accountNumber);
+        return ledger == null ? BalanceCheckpoint.ZERO : ledger.closingPosition(month);
+    }
+
+    @Override
+    public long findLedgerRevision(String accountNumber, YearMonth month) {
+        MappedLedger ledger = accountIndex.get(accountNumber);
+        return ledger == null ? 0 : ledger.revisionAsOf(month);
+    }
+
+    @Override
+    public LedgerMonth findLedgerMonth(String accountNumber, YearMonth month) {
+        MappedLedger ledger = accountIndex.get(accountNumber);
+        return ledger == null ? LedgerMonth.empty(month) : ledger.month(month);
+    }
+
+    @Override
+    public NavigableSet<YearMonth> findInterestMonths() {
+        return interestMonths.months();
+    }
+
+    @Override
+    public int findLastSequence(LocalDate date) {
+        return lastSequences.getOrDefault(date, 0);
+    }
+
+    @Override
+    public List<String> findAccountNumbers() {
+        return accountIndex.entrySet().stream()
+                .filter(entry -> !entry.getValue().isEmpty())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Override
+    public boolean hasTransactions(String accountNumber) {
+        MappedLedger ledger = accountIndex.get(accountNumber);
+        return ledger != null && !ledger.isEmpty();
+    }
+
+    /**
+     * Flushes the segments to disk.
+     */
+    @Override
+    public void close() {
+        segments.close();
+    }
+
+    private void recordSequence(long id) {
+        lastSequences.merge(TransactionId.date(id), TransactionId.sequence(id), Math::max);
+    }
+
+    private void retire(long slot) {
+        Transaction transaction = segments.read(slot);
+        ledgerFor(transaction.accountNumber()).remove(slot);
+        segments.markDeleted(slot);
+        interestMonths.removed(transaction);
+    }
+
+    private MappedLedger ledgerFor(String accountNumber) {
+        return accountIndex.computeIfAbsent(accountNumber,
+                account -> new MappedLedger(segments, ledgerRevisions::incrementAndGet));
+    }
+}
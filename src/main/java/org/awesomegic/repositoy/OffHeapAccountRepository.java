@@ -0,0 +1,74 @@
+package org.awesomegic.repositoy;
+
+import org.awesomegic.model.Account;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Account repository over an {@link OffHeapAccountTable}. Accounts live in direct memory and saving an existing
+ * account overwrites its slot in place, so a posting leaves nothing behind for the collector; the {@link Account}
+ * records handed out are short-lived copies of the slots. Account numbers are limited to
+ * {@value OffHeapAccountTable#MAX_KEY_BYTES} UTF-8 bytes.
+ */
+public final class OffHeapAccountRepository implements AccountRepository {
+
+    private static final long DEFAULT_EXPECTED_ACCOUNTS = 1024;
+
+    private final OffHeapAccountTable table;
+
+    public OffHeapAccountRepository() {
+        this(DEFAULT_EXPECTED_ACCOUNTS);
+    }
+
+    /**
+     * Sizes the table up front for the expected number of accounts; it still grows past that if needed.
+     */
+    public OffHeapAccountRepository(long expectedAccounts) {
+        this.table = new OffHeapAccountTable(expectedAccounts);
+    }
+
+    @Override
+    public Account save(Account account) {
+        table.put(account.accountNumber(), account.balance(), (int) account.createdDate().toEpochDay());
+        return account;
+    }
+
+    @Override
+    public Optional<Account> findById(String accountNumber) {
+        return Optional.ofNullable(table.get(accountNumber)).map(OffHeapAccountRepository::toAccount);
+    }
+
+    @Override
+    public List<Account> findAll() {
+        OffHeapAccountTable.Entry[] entries = table.entries();
+        List<Account> accounts = new ArrayList<>(entries.length);
+        for (OffHeapAccountTable.Entry entry : entries) {
+            accounts.add(toAccount(entry));
+        }
+        return accounts;
+    }
+
+    @Override
+    public boolean deleteById(String accountNumber) {
+        return table.remove(accountNumber);
+    }
+
+    /**
+     * Number of times the account has been saved, or 0 if it does not exist.
+     */
+    public long findVersion(String accountNumber) {
+        OffHeapAccountTable.Entry entry = table.get(accountNumber);
+        return entry == null ? 0 : entry.version();
+    }
+
+    public long count() {
+        return table.size();
+    }
+
+    private static Account toAccount(OffHeapAccountTable.Entry entry) {
+        return new Account(entry.key(), entry.balance(), LocalDate.ofEpochDay(entry.createdEpochDay()));
+    }
+}
@@ -0,0 +1,300 @@
+package org.awesomegic.repositoy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Open-addressing hash table of accounts in direct memory, one fixed-size slot per account:
+ * <pre>
+ *  0 state          byte   empty, used or deleted
+ *  1 key length     byte
+ *  4 key hash       int
+ *  8 account number UTF-8, at most {@value #MAX_KEY_BYTES} bytes
+ * 40 balance        long   cents
+ * 48 version        long   1 when created, incremented by every update
+ * 56 created date   int    epoch day
+ * </pre>
+ * Slots live in fixed-size direct buffer chunks, so the table holds no per-account objects and stays out of the
+ * collector's way however many accounts it holds. Lookups probe linearly from the key's hash.
+ * <p>
+ * Updating an existing account rewrites its slot in place and only needs the table's shared lock plus the
+ * slot's stripe lock, so postings to different accounts proceed in parallel. Adding or removing an account, and
+ * growing the table, take the table lock exclusively.
+ */
+final class OffHeapAccountTable {
+
+    static final int MAX_KEY_BYTES = 32;
+
+    private static final int SLOT_BYTES = 64;
+    private static final int STATE = 0;
+    private static final int KEY_LENGTH = 1;
+    private static final int KEY_HASH = 4;
+    private static final int KEY = 8;
+    private static final int BALANCE = 40;
+    private static final int VERSION = 48;
+    private static final int CREATED = 56;
+
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    private static final byte DELETED = 2;
+
+    private static final int MAX_SLOTS_PER_CHUNK = 1 << 20;
+    private static final int MIN_CAPACITY = 16;
+    private static final int STRIPES = 64;
+
+    private final ReadWriteLock tableLock = new ReentrantReadWriteLock();
+    private final Object[] stripes = new Object[STRIPES];
+
+    // Guarded by tableLock
+    private ByteBuffer[] chunks;
+    private int slotsPerChunk;
+    private long capacity;
+    private long used;
+    private long deleted;
+
+    /**
+     * A copy of one slot's contents.
+     */
+    record Entry(String key, long balance, int createdEpochDay, long version) {
+    }
+
+    OffHeapAccountTable(long initialCapacity) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        allocate(tableSizeFor(initialCapacity));
+    }
+
+    long size() {
+        tableLock.readLock().lock();
+        try {
+            return used;
+        } finally {
+            tableLock.readLock().unlock();
+        }
+    }
+
+    Entry get(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        tableLock.readLock().lock();
+        try {
+            long slot = find(keyBytes, hash(keyBytes));
+            return slot < 0 ? null : read(slot);
+        } finally {
+            tableLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores the balance and created date under the key, in place if the key is already present, and returns
+     * the slot's new version.
+     */
+    long put(String key, long balance, int createdEpochDay) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException(
+                    "Account number must be at most " + MAX_KEY_BYTES + " bytes to be stored: " + key);
+        }
+        int hash = hash(keyBytes);
+
+        // Fast path: an existing account is updated under the shared lock
+        tableLock.readLock().lock();
+        try {
+            long slot = find(keyBytes, hash);
+            if (slot >= 0) {
+                return update(slot, balance, createdEpochDay);
+            }
+        } finally {
+            tableLock.readLock().unlock();
+        }
+
+        tableLock.writeLock().lock();
+        try {
+            long slot = find(keyBytes, hash);
+            if (slot >= 0) {
+                return update(slot, balance, createdEpochDay);
+            }
+            if ((used + deleted + 1) * 4 > capacity * 3) {
+                resize(used + 1 > capacity / 2 ? capacity * 2 : capacity);
+            }
+            insert(keyBytes, hash, balance, createdEpochDay, 1);
+            return 1;
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+    }
+
+    boolean remove(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        tableLock.writeLock().lock();
+        try {
+            long slot = find(keyBytes, hash(keyBytes));
+            if (slot < 0) {
+                return false;
+            }
+            // Left as a marker so probes for keys stored further along keep going
+            chunk(slot).put(offset(slot) + STATE, DELETED);
+            used--;
+            deleted++;
+            return true;
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies out every entry. Entries updated during the scan may be seen before or after the update.
+     */
+    Entry[] entries() {
+        tableLock.readLock().lock();
+        try {
+            Entry[] entries = new Entry[(int) used];
+            int count = 0;
+            for (long slot = 0; slot < capacity; slot++) {
+                if (chunk(slot).get(offset(slot) + STATE) == USED) {
+                    entries[count++] = read(slot);
+                }
+            }
+            return count == entries.length ? entries : Arrays.copyOf(entries, count);
+        } finally {
+            tableLock.readLock().unlock();
+        }
+    }
+
+    private long update(long slot, long balance, int createdEpochDay) {
+        ByteBuffer chunk = chunk(slot);
+        int base = offset(slot);
+        synchronized (stripe(slot)) {
+            long version = chunk.getLong(base + VERSION) + 1;
+            chunk.putLong(base + BALANCE, balance);
+            chunk.putInt(base + CREATED, createdEpochDay);
+            chunk.putLong(base + VERSION, version);
+            return version;
+        }
+    }
+
+    private Entry read(long slot) {
+        ByteBuffer chunk = chunk(slot);
+        int base = offset(slot);
+        byte[] key = new byte[chunk.get(base + KEY_LENGTH)];
+        chunk.get(base + KEY, key);
+        synchronized (stripe(slot)) {
+            return new Entry(
+                    new String(key, StandardCharsets.UTF_8),
+                    chunk.getLong(base + BALANCE),
+                    chunk.getInt(base + CREATED),
+                    chunk.getLong(base + VERSION));
+        }
+    }
+
+    // Slot holding the key, or -1
+    private long find(byte[] key, int hash) {
+        long mask = capacity - 1;
+        for (long slot = hash & mask; ; slot = (slot + 1) & mask) {
+            ByteBuffer chunk = chunk(slot);
+            int base = offset(slot);
+            byte state = chunk.get(base + STATE);
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state == USED && chunk.getInt(base + KEY_HASH) == hash && keyEquals(chunk, base, key)) {
+                return slot;
+            }
+        }
+    }
+
+    // Caller holds the write lock and has checked the key is absent and there is room
+    private void insert(byte[] key, int hash, long balance, int createdEpochDay, long version) {
+        long mask = capacity - 1;
+        long slot = hash & mask;
+        while (chunk(slot).get(offset(slot) + STATE) == USED) {
+            slot = (slot + 1) & mask;
+        }
+
+        ByteBuffer chunk = chunk(slot);
+        int base = offset(slot);
+        if (chunk.get(base + STATE) == DELETED) {
+            deleted--;
+        }
+        chunk.put(base + KEY_LENGTH, (byte) key.length);
+        chunk.putInt(base + KEY_HASH, hash);
+        chunk.put(base + KEY, key);
+        chunk.putLong(base + BALANCE, balance);
+        chunk.putLong(base + VERSION, version);
+        chunk.putInt(base + CREATED, createdEpochDay);
+        chunk.put(base + STATE, USED);
+        used++;
+    }
+
+    // Rehashes live slots into a fresh table, which also clears out deleted markers
+    private void resize(long newCapacity) {
+        ByteBuffer[] oldChunks = chunks;
+        int oldSlotsPerChunk = slotsPerChunk;
+        long oldCapacity = capacity;
+
+        allocate(newCapacity);
+        byte[] key = new byte[MAX_KEY_BYTES];
+        for (long slot = 0; slot < oldCapacity; slot++) {
+            ByteBuffer chunk = oldChunks[(int) (slot / oldSlotsPerChunk)];
+            int base = (int) (slot % oldSlotsPerChunk) * SLOT_BYTES;
+            if (chunk.get(base + STATE) == USED) {
+                byte[] slotKey = Arrays.copyOf(key, chunk.get(base + KEY_LENGTH));
+                chunk.get(base + KEY, slotKey);
+                insert(slotKey, chunk.getInt(base + KEY_HASH),
+                        chunk.getLong(base + BALANCE), chunk.getInt(base + CREATED), chunk.getLong(base + VERSION));
+            }
+        }
+    }
+
+    private void allocate(long newCapacity) {
+        slotsPerChunk = (int) Math.min(newCapacity, MAX_SLOTS_PER_CHUNK);
+        ByteBuffer[] newChunks = new ByteBuffer[(int) (newCapacity / slotsPerChunk)];
+        for (int i = 0; i < newChunks.length; i++) {
+            newChunks[i] = ByteBuffer.allocateDirect(slotsPerChunk * SLOT_BYTES);
+        }
+        chunks = newChunks;
+        capacity = newCapacity;
+        used = 0;
+        deleted = 0;
+    }
+
+    private ByteBuffer chunk(long slot) {
+        return chunks[(int) (slot / slotsPerChunk)];
+    }
+
+    private int offset(long slot) {
+        return (int) (slot % slotsPerChunk) * SLOT_BYTES;
+    }
+
+    private Object stripe(long slot) {
+        return stripes[(int) (slot & (STRIPES - 1))];
+    }
+
+    private static boolean keyEquals(ByteBuffer chunk, int base, byte[] key) {
+        if (chunk.get(base + KEY_LENGTH) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (chunk.get(base + KEY + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(byte[] key) {
+        int hash = Arrays.hashCode(key);
+        return hash ^ (hash >>> 16);
+    }
+
+    private static long tableSizeFor(long expectedAccounts) {
+        long capacity = MIN_CAPACITY;
+        while (capacity * 3 < expectedAccounts * 4) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
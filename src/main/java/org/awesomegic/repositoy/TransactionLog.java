@@ -0,0 +1,532 @@
+package org.awesomegic.repositoy;
+
+import org.awesomegic.model.InterestRule;
+import org.awesomegic.model.Money;
+import org.awesomegic.model.Transaction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of ledger and interest rule changes, split into numbered segment files. Every record is framed as
+ * {@code [payload length][CRC32 of payload][payload]} so a torn write at the tail is detected and cut off on the
+ * next open.
+ * <p>
+ * Appends are group-committed: callers queue their record and wait while a single writer thread drains whatever
+ * has queued up, writes it with one channel write and syncs according to the {@link Durability} mode. Under load
+ * many postings share one fsync, so throughput grows with concurrency while each caller waits for at most one
+ * batch ahead of its own.
+ * <p>
+ * A failed write or sync fails the log: the segment is cut back to the end of the last completed append, so
+ * nothing a caller was told had failed can come back on replay, and every later append is rejected. After an
+ * fsync error the kernel may already have dropped the unwritten pages, so carrying on could not be trusted;
+ * reopening the log recovers it.
+ */
+public final class TransactionLog implements AutoCloseable {
+
+    public enum Durability {
+        /** Every record is synced on its own before its append returns. */
+        SYNC_EACH_COMMIT,
+        /** Each batch is synced once before any append in it returns. */
+        SYNC_PER_BATCH,
+        /** Appends return once written to the OS; a crash of the machine may lose the latest records. */
+        OS_BUFFERED
+    }
+
+    public sealed interface LogRecord permits Saved, Deleted, RuleSaved, RuleDeleted {
+    }
+
+    /**
+     * A saved transaction. Its running balance is not logged; the ledger restamps it on replay.
+     */
+    public record Saved(Transaction transaction) implements LogRecord {
+    }
+
+    public record Deleted(long id) implements LogRecord {
+    }
+
+    public record RuleSaved(InterestRule rule) implements LogRecord {
+    }
+
+    public record RuleDeleted(String ruleId) implements LogRecord {
+    }
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int FRAME_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final byte SAVED = 1;
+    private static final byte DELETED = 2;
+    private static final byte RULE_SAVED = 3;
+    private static final byte RULE_DELETED = 4;
+
+    private static final int MAX_BATCH = 4096;
+
+    private static final PendingAppend CLOSE = new PendingAppend(null, null);
+
+    private final Path directory;
+    private final Durability durability;
+    private final long maxSegmentBytes;
+
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+
+    // Appends hold the read side so close cannot slip its marker in ahead of an append it has not yet rejected
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    // Set by the writer when a write or sync fails; the log accepts nothing after that
+    private volatile Throwable failure;
+
+    private final Thread writer;
+
+    // Owned by the writer thread after construction
+    private FileChannel segment;
+    private long segmentNumber;
+    private long segmentSize;
+    // End of the last completed append in the current segment
+    private long completedSize;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final CRC32 crc = new CRC32();
+
+    private TransactionLog(Path directory, Durability durability, long maxSegmentBytes,
+                           long segmentNumber, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.durability = durability;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.segmentNumber = segmentNumber;
+        this.segmentSize = segmentSize;
+        this.completedSize = segmentSize;
+        this.segment = openSegment(segmentNumber);
+        this.segment.truncate(segmentSize);
+        this.segment.position(segmentSize);
+
+        this.writer = new Thread(this::runWriter, "transaction-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Opens the log in the directory, first feeding every record already in it to {@code replay} in log order.
+     * An incomplete or corrupt record at the end of the last segment is taken to be a torn write and discarded;
+     * one anywhere else means the log is damaged and fails the open.
+     */
+    public static TransactionLog open(
+            Path directory,
+            Durability durability,
+            long maxSegmentBytes,
+            Consumer<LogRecord> replay) {
+        return open(directory, durability, maxSegmentBytes, 1, replay);
+    }
+
+    /**
+     * Opens the log like {@link #open(Path, Durability, long, Consumer)} but replays only the segments numbered
+     * {@code fromSegment} and up, the ones written after a snapshot that already covers the earlier ones.
+     */
+    public static TransactionLog open(
+            Path directory,
+            Durability durability,
+            long maxSegmentBytes,
+            long fromSegment,
+            Consumer<LogRecord> replay) {
+        if (maxSegmentBytes <= FRAME_HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size is too small");
+        }
+
+        try {
+            Files.createDirectories(directory);
+            List<Long> segments = segmentNumbers(directory).stream()
+                    .filter(number -> number >= fromSegment)
+                    .toList();
+
+            long lastSegment = segments.isEmpty() ? fromSegment : segments.get(segments.size() - 1);
+            long lastSegmentSize = 0;
+            for (long number : segments) {
+                lastSegmentSize = replaySegment(directory, number, number == lastSegment, replay);
+            }
+
+            return new TransactionLog(directory, durability, maxSegmentBytes, lastSegment, lastSegmentSize);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open transaction log in " + directory, e);
+        }
+    }
+
+    /**
+     * Appends the record and returns once it is as durable as the log's mode promises.
+     */
+    public void append(LogRecord record) {
+        // Encoded on the caller's thread so the writer only copies bytes
+        submit(new PendingAppend(encode(record), new CompletableFuture<>()));
+    }
+
+    /**
+     * Closes the current segment once every append queued ahead of this call is written and synced, and returns
+     * the number of the new segment. Records appended after this returns land in that segment or later ones.
+     */
+    public long rollSegment() {
+        return submit(new PendingAppend(null, new CompletableFuture<>()));
+    }
+
+    /**
+     * Deletes every segment numbered below {@code segmentNumber}. Only segments a snapshot already covers may go.
+     */
+    public void deleteSegmentsBefore(long segmentNumber) {
+        try {
+            for (long number : segmentNumbers(directory)) {
+                if (number < segmentNumber) {
+                    Files.deleteIfExists(segmentPath(directory, number));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not delete transaction log segments in " + directory, e);
+        }
+    }
+
+    private long submit(PendingAppend append) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Transaction log is closed");
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Transaction log has failed and must be reopened", failure);
+            }
+            queue.add(append);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+
+        try {
+            return append.done().join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Could not append to transaction log", e.getCause());
+        }
+    }
+
+    /**
+     * Writes out every append already accepted, syncs the log and stops the writer.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(CLOSE);
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        List<PendingAppend> batch = new ArrayList<>();
+        boolean closing = false;
+
+        try {
+            while (!closing) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+
+                closing = batch.remove(CLOSE);
+                writeBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                segment.force(false);
+                segment.close();
+            } catch (IOException ignored) {
+                // Every accepted append has already been completed one way or the other
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingAppend> batch) {
+        // Appends queued before the failure was seen are rejected like the ones that raced it
+        if (failure != null) {
+            batch.forEach(append -> append.done().completeExceptionally(failure));
+            return;
+        }
+
+        int completed = 0;
+        try {
+            buffer.clear();
+            for (int i = 0; i < batch.size(); i++) {
+                PendingAppend append = batch.get(i);
+                byte[] payload = append.payload();
+
+                if (payload == null) {
+                    // Roll request: everything ahead of it stays in the current segment
+                    completed = completeThrough(batch, completed, i);
+                    startNextSegment();
+                    append.done().complete(segmentNumber);
+                    completed++;
+                    continue;
+                }
+
+                int frameBytes = FRAME_HEADER_BYTES + payload.length;
+                if (segmentSize + buffer.position() + frameBytes > maxSegmentBytes
+                        && segmentSize + buffer.position() > 0) {
+                    completed = completeThrough(batch, completed, i);
+                    startNextSegment();
+                }
+
+                ensureCapacity(frameBytes);
+                crc.reset();
+                crc.update(payload);
+                buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+
+                if (durability == Durability.SYNC_EACH_COMMIT) {
+                    completed = completeThrough(batch, completed, i + 1);
+                }
+            }
+
+            completeThrough(batch, completed, batch.size());
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+            for (int i = completed; i < batch.size(); i++) {
+                batch.get(i).done().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void fail(Exception cause) {
+        failure = cause;
+        buffer.clear();
+        try {
+            if (segment.isOpen()) {
+                segment.truncate(completedSize);
+                segment.force(true);
+            }
+        } catch (IOException e) {
+            // Replay still drops a torn frame left at the tail
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Writes out and syncs the buffered records, then completes the appends in [from, to) with the segment
+     * now holding them. Returns {@code to}.
+     */
+    private int completeThrough(List<PendingAppend> batch, int from, int to) throws IOException {
+        writeBuffer();
+        sync();
+        completedSize = segmentSize;
+        for (int i = from; i < to; i++) {
+            batch.get(i).done().complete(segmentNumber);
+        }
+        return to;
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segmentSize += segment.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // force(false) maps to fdatasync, which still persists the file length needed to read appended data back
+    private void sync() throws IOException {
+        if (durability != Durability.OS_BUFFERED) {
+            segment.force(false);
+        }
+    }
+
+    private void startNextSegment() throws IOException {
+        segment.close();
+        segmentNumber++;
+        segmentSize = 0;
+        completedSize = 0;
+        segment = openSegment(segmentNumber);
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+
+    private static byte[] encode(LogRecord record) {
+        if (record instanceof Saved saved) {
+            Transaction transaction = saved.transaction();
+            byte[] account = transaction.accountNumber().getBytes(StandardCharsets.UTF_8);
+            if (account.length > 0xffff) {
+                throw new IllegalArgumentException("Account number is too long to log");
+            }
+            return ByteBuffer.allocate(1 + 3 * Long.BYTES + 1 + Short.BYTES + account.length)
+                    .put(SAVED)
+                    .putLong(transaction.id())
+                    .putLong(transaction.date().toEpochDay())
+                    .putLong(transaction.amount())
+                    .put((byte) transaction.type().getCode().charAt(0))
+                    .putShort((short) account.length)
+                    .put(account)
+                    .array();
+        }
+        if (record instanceof RuleSaved ruleSaved) {
+            InterestRule rule = ruleSaved.rule();
+            byte[] ruleId = shortString(rule.ruleId());
+            return ByteBuffer.allocate(1 + 2 * Long.BYTES + Short.BYTES + ruleId.length)
+                    .put(RULE_SAVED)
+                    .putLong(rule.effectiveDate().toEpochDay())
+                    .putLong(rule.rateBasisPoints())
+                    .putShort((short) ruleId.length)
+                    .put(ruleId)
+                    .array();
+        }
+        if (record instanceof RuleDeleted ruleDeleted) {
+            byte[] ruleId = shortString(ruleDeleted.ruleId());
+            return ByteBuffer.allocate(1 + Short.BYTES + ruleId.length)
+                    .put(RULE_DELETED)
+                    .putShort((short) ruleId.length)
+                    .put(ruleId)
+                    .array();
+        }
+        Deleted deleted = (Deleted) record;
+        return ByteBuffer.allocate(1 + Long.BYTES)
+                .put(DELETED)
+                .putLong(deleted.id())
+                .array();
+    }
+
+    private static byte[] shortString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xffff) {
+            throw new IllegalArgumentException("Rule ID is too long to log");
+        }
+        return bytes;
+    }
+
+    private static LogRecord decode(ByteBuffer payload) {
+        byte kind = payload.get();
+        if (kind == DELETED) {
+            return new Deleted(payload.getLong());
+        }
+        if (kind == RULE_SAVED) {
+            LocalDate effectiveDate = LocalDate.ofEpochDay(payload.getLong());
+            long rateBasisPoints = payload.getLong();
+            return new RuleSaved(new InterestRule(effectiveDate, readShortString(payload), Money.toBigDecimal(rateBasisPoints)));
+        }
+        if (kind == RULE_DELETED) {
+            return new RuleDeleted(readShortString(payload));
+        }
+        if (kind != SAVED) {
+            throw new IllegalStateException("Unknown transaction log record kind " + kind);
+        }
+
+        long id = payload.getLong();
+        LocalDate date = LocalDate.ofEpochDay(payload.getLong());
+        long amount = payload.getLong();
+        Transaction.TransactionType type = Transaction.TransactionType.fromCode(String.valueOf((char) payload.get()));
+        byte[] account = new byte[payload.getShort() & 0xffff];
+        payload.get(account);
+        return new Saved(new Transaction(id, date, new String(account, StandardCharsets.UTF_8), type, amount, 0));
+    }
+
+    private static String readShortString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort() & 0xffff];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Replays one segment and returns the length of its intact prefix.
+     */
+    private static long replaySegment(Path directory, long number, boolean last, Consumer<LogRecord> replay)
+            throws IOException {
+        Path path = segmentPath(directory, number);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer contents = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 checksum = new CRC32();
+
+            while (contents.hasRemaining()) {
+                int frameStart = contents.position();
+                LogRecord record = readFrame(contents, checksum);
+                if (record == null) {
+                    if (!last) {
+                        throw new IllegalStateException("Corrupt transaction log segment " + path + " at " + frameStart);
+                    }
+                    return frameStart;
+                }
+                replay.accept(record);
+            }
+            return contents.position();
+        }
+    }
+
+    // Returns null for a frame that is cut short or fails its checksum
+    private static LogRecord readFrame(ByteBuffer contents, CRC32 checksum) {
+        if (contents.remaining() < FRAME_HEADER_BYTES) {
+            return null;
+        }
+        int length = contents.getInt();
+        int expectedCrc = contents.getInt();
+        if (length <= 0 || length > contents.remaining()) {
+            return null;
+        }
+
+        ByteBuffer payload = contents.slice(contents.position(), length);
+        checksum.reset();
+        checksum.update(payload.duplicate());
+        if ((int) checksum.getValue() != expectedCrc) {
+            return null;
+        }
+        contents.position(contents.position() + length);
+        return decode(payload);
+    }
+
+    private static List<Long> segmentNumbers(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    // A null payload asks the writer to start a new segment
+    private record PendingAppend(byte[] payload, CompletableFuture<Long> done) {
+    }
+}
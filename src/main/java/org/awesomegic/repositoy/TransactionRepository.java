@@ -1,23 +1,81 @@
 package org.awesomegic.repositoy;
 
+import org.awesomegic.model.BalanceCheckpoint;
+import org.awesomegic.model.LedgerMonth;
 import org.awesomegic.model.Transaction;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.NavigableSet;
 import java.util.Optional;
 
 public interface TransactionRepository {
 
+    /**
+     * Saves the transaction and returns it with its running balance in the account ledger.
+     * Balances of later transactions in the same account are shifted to match.
+     */
     Transaction save(Transaction transaction);
 
-    Optional<Transaction> findById(String id);
+    Optional<Transaction> findById(Long id);
 
     List<Transaction> findAll();
 
-    boolean deleteById(String id);
+    boolean deleteById(Long id);
 
+    /**
+     * The account's transactions in (date, id) order.
+     */
     List<Transaction> findByAccountNumber(String accountNumber);
 
     List<Transaction> findByAccountNumberAndDateRange(String accountNumber, LocalDate startDate, LocalDate endDate);
     List<Transaction> findTransactionsByDate(LocalDate startDate);
+
+    /**
+     * Balance of the account after every transaction dated on or before {@code date}.
+     */
+    long findBalanceAsOf(String accountNumber, LocalDate date);
+
+    /**
+     * Lowest balance the account reaches from the end of {@code date} onwards: the balance as of that date and
+     * the running balance after every later transaction. A posting dated {@code date} shifts all of them.
+     */
+    long findLowestBalanceFrom(String accountNumber, LocalDate date);
+
+    /**
+     * Position of the account after every transaction up to the end of {@code month}.
+     */
+    BalanceCheckpoint findBalanceCheckpoint(String accountNumber, YearMonth month);
+
+    /**
+     * Changes whenever a transaction dated in or before {@code month} is saved or deleted for the account.
+     */
+    long findLedgerRevision(String accountNumber, YearMonth month);
+
+    /**
+     * The month's transactions and the opening position for that month, taken from a single consistent view.
+     */
+    LedgerMonth findLedgerMonth(String accountNumber, YearMonth month);
+
+    /**
+     * Months in which at least one account has an INTEREST transaction, oldest first.
+     */
+    NavigableSet<YearMonth> findInterestMonths();
+
+    /**
+     * Highest sequence ever saved on the date, counting transactions deleted since, or 0 if there was none.
+     * Ids up to it must not be issued again.
+     */
+    int findLastSequence(LocalDate date);
+
+    /**
+     * Every account that currently has at least one transaction.
+     */
+    List<String> findAccountNumbers();
+
+    /**
+     * Whether the account has at least one transaction, answered without reading its history.
+     */
+    boolean hasTransactions(String accountNumber);
 }
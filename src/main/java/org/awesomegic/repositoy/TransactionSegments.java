@@ -0,0 +1,225 @@
+package org.awesomegic.repositoy;
+
+import org.awesomegic.model.Transaction;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Fixed-width transaction slots in memory-mapped segment files. A slot is addressed by its global number and
+ * holds one transaction together with the account's running balance and running interest after it:
+ * <pre>
+ *  0 id                long
+ *  8 amount            long
+ * 16 balance           long
+ * 24 interest credited long
+ * 32 epoch day         int
+ * 36 type code         byte
+ * 37 state             byte   free, live or deleted
+ * 38 account length    byte
+ * 39 account number    UTF-8, at most {@value #MAX_ACCOUNT_BYTES} bytes
+ * </pre>
+ * Slots are only ever appended; a deleted transaction leaves its slot behind marked deleted. All access is by
+ * absolute position, so threads working on different slots never interfere. Callers serialise writes to the
+ * same slot.
+ */
+final class TransactionSegments implements AutoCloseable {
+
+    static final int SLOT_BYTES = 64;
+    static final int MAX_ACCOUNT_BYTES = SLOT_BYTES - 39;
+
+    private static final int ID = 0;
+    private static final int AMOUNT = 8;
+    private static final int BALANCE = 16;
+    private static final int INTEREST = 24;
+    private static final int EPOCH_DAY = 32;
+    private static final int TYPE = 36;
+    private static final int STATE = 37;
+    private static final int ACCOUNT_LENGTH = 38;
+    private static final int ACCOUNT = 39;
+
+    private static final byte FREE = 0;
+    private static final byte LIVE = 1;
+    private static final byte DELETED = 2;
+
+    private static final String SEGMENT_PREFIX = "transactions-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private final Path directory;
+    private final int slotsPerSegment;
+
+    // Replaced as a whole when a segment is added, so readers always see a fully mapped array
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private long nextSlot;
+
+    private TransactionSegments(Path directory, int slotsPerSegment) {
+        this.directory = directory;
+        this.slotsPerSegment = slotsPerSegment;
+    }
+
+    /**
+     * Maps every segment already in the directory; new slots are handed out after the last one in use.
+     */
+    static TransactionSegments open(Path directory, long segmentBytes) {
+        if (segmentBytes < SLOT_BYTES || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between " + SLOT_BYTES + " bytes and 2 GiB");
+        }
+
+        TransactionSegments store = new TransactionSegments(directory, (int) (segmentBytes / SLOT_BYTES));
+        try {
+            Files.createDirectories(directory);
+            while (Files.exists(store.segmentPath(store.segments.length))) {
+                store.mapNextSegment();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open transaction segments in " + directory, e);
+        }
+
+        long slot = (long) store.segments.length * store.slotsPerSegment;
+        while (slot > 0 && store.state(slot - 1) == FREE) {
+            slot--;
+        }
+        store.nextSlot = slot;
+        return store;
+    }
+
+    static void checkAccountNumber(String accountNumber) {
+        if (accountNumber.getBytes(StandardCharsets.UTF_8).length > MAX_ACCOUNT_BYTES) {
+            throw new IllegalArgumentException(
+                    "Account number must be at most " + MAX_ACCOUNT_BYTES + " bytes to be stored: " + accountNumber);
+        }
+    }
+
+    /**
+     * Number of slots handed out so far; every slot below it is live or deleted.
+     */
+    synchronized long slotCount() {
+        return nextSlot;
+    }
+
+    /**
+     * Writes the transaction, stamped with the given running totals, into a fresh slot and returns its number.
+     */
+    long append(Transaction transaction, long balance, long interestCredited) {
+        long slot;
+        synchronized (this) {
+            slot = nextSlot;
+            if (slot == (long) segments.length * slotsPerSegment) {
+                try {
+                    mapNextSegment();
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not add a transaction segment in " + directory, e);
+                }
+            }
+            nextSlot++;
+        }
+
+        byte[] account = transaction.accountNumber().getBytes(StandardCharsets.UTF_8);
+        MappedByteBuffer segment = segment(slot);
+        int base = offset(slot);
+        segment.putLong(base + ID, transaction.id());
+        segment.putLong(base + AMOUNT, transaction.amount());
+        segment.putLong(base + BALANCE, balance);
+        segment.putLong(base + INTEREST, interestCredited);
+        segment.putInt(base + EPOCH_DAY, (int) transaction.date().toEpochDay());
+        segment.put(base + TYPE, (byte) transaction.type().getCode().charAt(0));
+        segment.put(base + ACCOUNT_LENGTH, (byte) account.length);
+        segment.put(base + ACCOUNT, account);
+        // Marked live last so a slot read back after a crash is either whole or still free
+        segment.put(base + STATE, LIVE);
+        return slot;
+    }
+
+    Transaction read(long slot) {
+        MappedByteBuffer segment = segment(slot);
+        int base = offset(slot);
+        byte[] account = new byte[segment.get(base + ACCOUNT_LENGTH)];
+        segment.get(base + ACCOUNT, account);
+        return new Transaction(
+                segment.getLong(base + ID),
+                LocalDate.ofEpochDay(segment.getInt(base + EPOCH_DAY)),
+                new String(account, StandardCharsets.UTF_8),
+                Transaction.TransactionType.fromCode(String.valueOf((char) segment.get(base + TYPE))),
+                segment.getLong(base + AMOUNT),
+                segment.getLong(base + BALANCE));
+    }
+
+    boolean isLive(long slot) {
+        return state(slot) == LIVE;
+    }
+
+    void markDeleted(long slot) {
+        segment(slot).put(offset(slot) + STATE, DELETED);
+    }
+
+    long id(long slot) {
+        return segment(slot).getLong(offset(slot) + ID);
+    }
+
+    long epochDay(long slot) {
+        return segment(slot).getInt(offset(slot) + EPOCH_DAY);
+    }
+
+    long balance(long slot) {
+        return segment(slot).getLong(offset(slot) + BALANCE);
+    }
+
+    long interestCredited(long slot) {
+        return segment(slot).getLong(offset(slot) + INTEREST);
+    }
+
+    /**
+     * Adds the deltas to the slot's running totals in place.
+     */
+    void shiftTotals(long slot, long balanceDelta, long interestDelta) {
+        MappedByteBuffer segment = segment(slot);
+        int base = offset(slot);
+        segment.putLong(base + BALANCE, segment.getLong(base + BALANCE) + balanceDelta);
+        segment.putLong(base + INTEREST, segment.getLong(base + INTEREST) + interestDelta);
+    }
+
+    /**
+     * Flushes every segment to disk.
+     */
+    @Override
+    public void close() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    private byte state(long slot) {
+        return segment(slot).get(offset(slot) + STATE);
+    }
+
+    private MappedByteBuffer segment(long slot) {
+        return segments[(int) (slot / slotsPerSegment)];
+    }
+
+    private int offset(long slot) {
+        return (int) (slot % slotsPerSegment) * SLOT_BYTES;
+    }
+
+    private void mapNextSegment() throws IOException {
+        MappedByteBuffer[] current = segments;
+        try (FileChannel channel = FileChannel.open(segmentPath(current.length),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping outlives the channel and grows the file to the full segment size
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) slotsPerSegment * SLOT_BYTES);
+            MappedByteBuffer[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = mapped;
+            segments = extended;
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+}
@@ -1,26 +1,40 @@
 package org.awesomegic.service;
 
 import org.awesomegic.model.Account;
+import org.awesomegic.model.Money;
 import org.awesomegic.model.Transaction;
 import org.awesomegic.repositoy.AccountRepository;
 import org.awesomegic.repositoy.TransactionRepository;
+import org.awesomegic.util.AccountNumberDictionary;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public class AccountService {
 
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final AccountNumberDictionary accountNumbers;
 
-    public AccountService(TransactionRepository transactionRepository, AccountRepository accountRepository) {
+    /**
+     * Creates the service over the dictionary the transaction repository numbers its ledgers with, so account ids
+     * handed out here are the repository's own.
+     */
+    public AccountService(
+            TransactionRepository transactionRepository,
+            AccountRepository accountRepository,
+            AccountNumberDictionary accountNumbers) {
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
+        this.accountNumbers = accountNumbers;
     }
 
     public Account findOrCreateAccount(String accountNumber) {
         Optional<Account> account = accountRepository.findById(accountNumber);
         if(account.isEmpty()) {
+            // First sight of the account: give it its dense id before anything is posted to it
+            accountNumbers.idOf(accountNumber);
             Account newAccount = Account.createNew(accountNumber);
             accountRepository.save(newAccount);
             return newAccount;
@@ -36,7 +50,7 @@ public class AccountService {
     public Account updateAccountBalance(Transaction transaction) {
         Account account = findOrCreateAccount(transaction.accountNumber());
 
-        BigDecimal newBalance = calculateNewBalance(account, transaction);
+        long newBalance = calculateNewBalance(account, transaction);
 
         Account updatedAccount = new Account(
                 account.accountNumber(),
@@ -48,17 +62,40 @@ public class AccountService {
         return updatedAccount;
     }
 
+    /**
+     * Resets the account's current balance to the closing balance of its ledger.
+     */
+    public Account refreshAccountBalance(String accountNumber) {
+        Account account = findOrCreateAccount(accountNumber);
+
+        Account updatedAccount = new Account(
+                account.accountNumber(),
+                transactionRepository.findBalanceAsOf(accountNumber, LocalDate.MAX),
+                account.createdDate()
+        );
+
+        accountRepository.save(updatedAccount);
+        return updatedAccount;
+    }
+
     public int getAccountTransactionCount(String accountNumber) {
         return transactionRepository.findByAccountNumber(accountNumber).size();
     }
 
-    private BigDecimal calculateNewBalance(Account account, Transaction transaction) {
+    /**
+     * Whether the account has any transaction yet. Unlike the count, this does not copy the account's history.
+     */
+    public boolean hasTransactions(String accountNumber) {
+        return transactionRepository.hasTransactions(accountNumber);
+    }
+
+    private long calculateNewBalance(Account account, Transaction transaction) {
         return switch (transaction.type()) {
             case DEPOSIT, INTEREST ->
-                    account.balance().add(transaction.amount());
+                    Money.add(account.balance(), transaction.amount());
             case WITHDRAWAL -> {
-                BigDecimal newBalance = account.balance().subtract(transaction.amount());
-                if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
+                long newBalance = Money.subtract(account.balance(), transaction.amount());
+                if (newBalance < 0) {
                     throw new IllegalStateException("Insufficient funds");
                 }
                 yield newBalance;
@@ -66,9 +103,32 @@ public class AccountService {
         };
     }
 
-    public BigDecimal getAccountBalance(String accountNumber) {
+    public long balanceAsOf(String accountNumber, LocalDate date) {
+        return transactionRepository.findBalanceAsOf(accountNumber, date);
+    }
+
+    /**
+     * Dense id of the account number, assigned when the account was first seen, or
+     * {@link AccountNumberDictionary#ABSENT} for an account that has never been seen.
+     */
+    public int getAccountId(String accountNumber) {
+        return accountNumbers.find(accountNumber);
+    }
+
+    /**
+     * The account number behind a dense account id, for display.
+     */
+    public String getAccountNumber(int accountId) {
+        return accountNumbers.accountNumber(accountId);
+    }
+
+    public List<Account> getAllAccounts() {
+        return accountRepository.findAll();
+    }
+
+    public long getAccountBalance(String accountNumber) {
         return accountRepository.findById(accountNumber)
                 .map(Account::balance)
-                .orElse(BigDecimal.ZERO);
+                .orElse(0L);
     }
 }
@@ -0,0 +1,123 @@
+package org.awesomegic.service;
+
+import org.awesomegic.model.InterestRateSchedule;
+import org.awesomegic.model.LedgerMonth;
+import org.awesomegic.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * Posts month-end interest as an explicit step, separate from statement printing. Posting is idempotent:
+ * running it again for the same account and month leaves at most one INTEREST transaction, corrected to the
+ * current amount.
+ */
+public class InterestPostingService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final TransactionService transactionService;
+    private final StatementService statementService;
+    private final AccountService accountService;
+
+    // Serialises postings per account so two runs cannot both allocate an interest transaction
+    private final Object[] accountLocks = new Object[LOCK_STRIPES];
+
+    public InterestPostingService(
+            TransactionService transactionService,
+            StatementService statementService,
+            AccountService accountService) {
+        this.transactionService = transactionService;
+        this.statementService = statementService;
+        this.accountService = accountService;
+        for (int i = 0; i < accountLocks.length; i++) {
+            accountLocks[i] = new Object();
+        }
+    }
+
+    public Optional<Transaction> postMonthlyInterest(String accountNumber, YearMonth month) {
+        return postMonthlyInterest(accountNumber, month, statementService::calculateMonthlyInterest);
+    }
+
+    /**
+     * Posts interest priced against the given rate schedule rather than the live one.
+     */
+    public Optional<Transaction> postMonthlyInterest(
+            String accountNumber,
+            YearMonth month,
+            InterestRateSchedule rateSchedule) {
+        return postMonthlyInterest(
+                accountNumber,
+                month,
+                ledgerMonth -> statementService.calculateMonthlyInterest(ledgerMonth, rateSchedule));
+    }
+
+    /**
+     * Rejects a month that has not ended yet. Its interest is not final, and a posting dated at its month end
+     * would be left stale by transactions still to come in the month.
+     */
+    public void validateMonthEnded(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Interest can only be posted for a month that has ended");
+        }
+    }
+
+    /**
+     * Months with interest posted to at least one account, oldest first, as recorded in the ledger itself.
+     */
+    public NavigableSet<YearMonth> postedMonths() {
+        return transactionService.findInterestMonths();
+    }
+
+    private Optional<Transaction> postMonthlyInterest(
+            String accountNumber,
+            YearMonth month,
+            ToLongFunction<LedgerMonth> interestCalculator) {
+        validateMonthEnded(month);
+
+        synchronized (lockFor(accountNumber)) {
+            LedgerMonth ledgerMonth = transactionService.findLedgerMonth(accountNumber, month);
+
+            Optional<Transaction> postedInterest = ledgerMonth.transactions().stream()
+                    .filter(t -> t.type() == Transaction.TransactionType.INTEREST)
+                    .findFirst();
+
+            long interest = interestCalculator.applyAsLong(ledgerMonth);
+
+            if (postedInterest.isPresent() && postedInterest.get().amount() == interest) {
+                return postedInterest;
+            }
+
+            if (interest == 0) {
+                postedInterest.ifPresent(t -> transactionService.deleteById(t.id()));
+                accountService.refreshAccountBalance(accountNumber);
+                return Optional.empty();
+            }
+
+            LocalDate endDate = month.atEndOfMonth();
+            long interestTransactionId = postedInterest
+                    .map(Transaction::id)
+                    .orElseGet(() -> transactionService.generateTransactionId(endDate));
+
+            // The running balance is stamped by the repository when the posting lands in the ledger
+            Transaction savedInterest = transactionService.save(new Transaction(
+                    interestTransactionId,
+                    endDate,
+                    accountNumber,
+                    Transaction.TransactionType.INTEREST,
+                    interest,
+                    0
+            ));
+
+            accountService.refreshAccountBalance(accountNumber);
+            return Optional.of(savedInterest);
+        }
+    }
+
+    private Object lockFor(String accountNumber) {
+        return accountLocks[Math.floorMod(accountNumber.hashCode(), accountLocks.length)];
+    }
+}
@@ -1,14 +1,20 @@
 package org.awesomegic.service;
 
+import org.awesomegic.model.InterestRateSchedule;
 import org.awesomegic.model.InterestRule;
+import org.awesomegic.model.InterestRulePeriod;
+import org.awesomegic.model.Money;
 import org.awesomegic.repositoy.InterestRuleRepository;
 import org.awesomegic.util.InputValidator;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class InterestRuleService {
     public record InterestRuleRequest(
@@ -19,6 +25,11 @@ public class InterestRuleService {
 
     private final InterestRuleRepository interestRuleRepository;
 
+    // Compiled snapshot of the rule set, built on first use and replaced as a whole when a rule changes
+    private volatile InterestRateSchedule rateSchedule;
+
+    private final List<Consumer<LocalDate>> ruleChangeListeners = new CopyOnWriteArrayList<>();
+
     public InterestRuleService(InterestRuleRepository interestRuleRepository) {
         this.interestRuleRepository = interestRuleRepository;
     }
@@ -27,15 +38,34 @@ public class InterestRuleService {
         InterestRuleRequest request = parseInterestRuleInput(input);
         validateInterestRuleRequest(request);
 
-        handleExistingRulesOnSameDate(request.effectiveDate());
-
         InterestRule interestRule = new InterestRule(
                 request.effectiveDate(),
                 request.ruleId(),
                 request.interestRate().setScale(2, RoundingMode.HALF_UP)
         );
 
-        interestRuleRepository.save(interestRule);
+        LocalDate affectedFrom;
+        synchronized (this) {
+            Optional<InterestRule> replaced = interestRuleRepository.findById(interestRule.ruleId());
+            interestRuleRepository.save(interestRule);
+
+            affectedFrom = replaced
+                    .map(InterestRule::effectiveDate)
+                    .filter(date -> date.isBefore(interestRule.effectiveDate()))
+                    .orElse(interestRule.effectiveDate());
+            rateSchedule = getRateSchedule().rebuiltFrom(interestRuleRepository.findAll(), affectedFrom);
+        }
+
+        for (Consumer<LocalDate> listener : ruleChangeListeners) {
+            listener.accept(affectedFrom);
+        }
+    }
+
+    /**
+     * Registers a callback run after each rule change with the earliest date whose rate may have changed.
+     */
+    public void addRuleChangeListener(Consumer<LocalDate> listener) {
+        ruleChangeListeners.add(listener);
     }
 
     protected InterestRuleRequest parseInterestRuleInput(String input) {
@@ -64,32 +94,51 @@ public class InterestRuleService {
         }
     }
 
-    protected void handleExistingRulesOnSameDate(LocalDate effectiveDate) {
-        interestRuleRepository.findAll().stream()
-                .filter(rule -> rule.effectiveDate().equals(effectiveDate))
-                .forEach(rule -> interestRuleRepository.deleteById(rule.ruleId()));
-    }
-
     public List<InterestRule> getAllInterestRules() {
         return interestRuleRepository.findAll();
     }
 
     public Optional<InterestRule> findApplicableInterestRule(LocalDate date) {
-        return interestRuleRepository.findAll().stream()
-                .filter(rule -> !rule.effectiveDate().isAfter(date))
-                .max((r1, r2) -> r1.effectiveDate().compareTo(r2.effectiveDate()));
+        return interestRuleRepository.findMostRecentRuleBeforeDate(date);
+    }
+
+    public List<InterestRule> findInterestRulesInEffect(LocalDate startDate, LocalDate endDate) {
+        return interestRuleRepository.findRulesInEffectBetween(startDate, endDate);
     }
 
-    public BigDecimal calculateProratedInterest(
-            BigDecimal balance,
-            InterestRule interestRule,
-            long periodDays) {
+    public InterestRateSchedule getRateSchedule() {
+        InterestRateSchedule schedule = rateSchedule;
+        if (schedule == null) {
+            synchronized (this) {
+                if (rateSchedule == null) {
+                    rateSchedule = InterestRateSchedule.of(interestRuleRepository.findAll());
+                }
+                schedule = rateSchedule;
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * Rule periods for the month from the current schedule, shared across all accounts.
+     */
+    public List<InterestRulePeriod> findInterestRulePeriods(YearMonth month) {
+        return getRateSchedule().periodsIn(month);
+    }
 
-        return balance
-                .multiply(interestRule.interestRate().divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP))
-                .multiply(BigDecimal.valueOf(periodDays))
-                .divide(BigDecimal.valueOf(365), 10, RoundingMode.HALF_UP)
-                .setScale(2, RoundingMode.HALF_UP);
+    /**
+     * Interest in cents on a balance held unchanged from startDate to endDate inclusive, at whatever rates
+     * apply on each of those days.
+     */
+    public long calculateProratedInterest(
+            long balance,
+            LocalDate startDate,
+            LocalDate endDate) {
+
+        long basisPointDays = getRateSchedule().basisPointDays(startDate, endDate.plusDays(1));
+        return Money.divideHalfUp(
+                Money.multiply(balance, basisPointDays),
+                InterestRule.INTEREST_DIVISOR);
     }
 
 }
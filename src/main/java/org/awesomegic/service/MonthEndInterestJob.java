@@ -0,0 +1,152 @@
+package org.awesomegic.service;
+
+import org.awesomegic.model.Account;
+import org.awesomegic.model.InterestRateSchedule;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Posts month-end interest for every account in the bank. Accounts are split across a fork/join pool and
+ * priced against a single snapshot of the interest rules, so the whole run sees the same rates even if a
+ * rule changes part way through. Posting is idempotent, so a failed or repeated run can simply be rerun.
+ */
+public class MonthEndInterestJob {
+
+    // Accounts posted by one task before it stops splitting
+    private static final int BATCH_SIZE = 256;
+
+    private final AccountService accountService;
+    private final InterestRuleService interestRuleService;
+    private final InterestPostingService interestPostingService;
+    private final ForkJoinPool pool;
+
+    public MonthEndInterestJob(
+            AccountService accountService,
+            InterestRuleService interestRuleService,
+            InterestPostingService interestPostingService,
+            ForkJoinPool pool) {
+        this.accountService = accountService;
+        this.interestRuleService = interestRuleService;
+        this.interestPostingService = interestPostingService;
+        this.pool = pool;
+    }
+
+    public Report run(YearMonth month) {
+        return run(month, progress -> { });
+    }
+
+    /**
+     * Runs the job, reporting progress after each batch. The listener is called from pool threads.
+     * A month that has not ended yet is refused before any account is posted.
+     */
+    public Report run(YearMonth month, Consumer<Progress> progressListener) {
+        Objects.requireNonNull(month, "Month must not be null");
+        Objects.requireNonNull(progressListener, "Progress listener must not be null");
+        interestPostingService.validateMonthEnded(month);
+
+        List<Account> accounts = accountService.getAllAccounts();
+        InterestRateSchedule rateSchedule = interestRuleService.getRateSchedule();
+
+        long startNanos = System.nanoTime();
+        PostingTask task = new PostingTask(
+                new JobContext(month, rateSchedule, accounts, startNanos, progressListener),
+                0,
+                accounts.size());
+        int credited = pool.invoke(task);
+
+        return new Report(month, accounts.size(), credited, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Months closed by posting interest, oldest first. They are read from the INTEREST transactions in the
+     * ledger rather than remembered by the job, so they survive a restart and include months posted one
+     * account at a time.
+     */
+    public NavigableSet<YearMonth> closedMonths() {
+        return interestPostingService.postedMonths();
+    }
+
+    public record Progress(int completed, int total, long elapsedNanos) {
+        public double accountsPerSecond() {
+            return ratePerSecond(completed, elapsedNanos);
+        }
+    }
+
+    public record Report(YearMonth month, int accountsProcessed, int accountsCredited, long elapsedNanos) {
+        public double accountsPerSecond() {
+            return ratePerSecond(accountsProcessed, elapsedNanos);
+        }
+    }
+
+    private static double ratePerSecond(int count, long elapsedNanos) {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    private record JobContext(
+            YearMonth month,
+            InterestRateSchedule rateSchedule,
+            List<Account> accounts,
+            long startNanos,
+            Consumer<Progress> progressListener) {
+    }
+
+    private final class PostingTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final JobContext context;
+        private final int from;
+        private final int to;
+        private final AtomicInteger completed;
+
+        PostingTask(JobContext context, int from, int to) {
+            this(context, from, to, new AtomicInteger());
+        }
+
+        private PostingTask(JobContext context, int from, int to, AtomicInteger completed) {
+            this.context = context;
+            this.from = from;
+            this.to = to;
+            this.completed = completed;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from > BATCH_SIZE) {
+                int mid = (from + to) >>> 1;
+                PostingTask left = new PostingTask(context, from, mid, completed);
+                PostingTask right = new PostingTask(context, mid, to, completed);
+                left.fork();
+                int rightCredited = right.compute();
+                return left.join() + rightCredited;
+            }
+
+            int credited = 0;
+            for (int i = from; i < to; i++) {
+                String accountNumber = context.accounts().get(i).accountNumber();
+                if (interestPostingService
+                        .postMonthlyInterest(accountNumber, context.month(), context.rateSchedule())
+                        .isPresent()) {
+                    credited++;
+                }
+            }
+
+            int done = completed.addAndGet(to - from);
+            context.progressListener().accept(new Progress(
+                    done,
+                    context.accounts().size(),
+                    System.nanoTime() - context.startNanos()));
+            return credited;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.awesomegic.service;
+
+import org.awesomegic.model.Account;
+import org.awesomegic.model.InterestRateSchedule;
+import org.awesomegic.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Brings posted interest back in line after a rule change. Only (account, month) pairs on or after the change
+ * that already carry an INTEREST posting are recomputed: a correction never creates a posting for an account
+ * that was not posted for that month. They are reposted in parallel against one snapshot of the new rules.
+ */
+public class RuleChangeImpactService {
+
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final InterestRuleService interestRuleService;
+    private final InterestPostingService interestPostingService;
+    private final MonthEndInterestJob monthEndInterestJob;
+    private final ForkJoinPool pool;
+
+    public RuleChangeImpactService(
+            AccountService accountService,
+            TransactionService transactionService,
+            InterestRuleService interestRuleService,
+            InterestPostingService interestPostingService,
+            MonthEndInterestJob monthEndInterestJob,
+            ForkJoinPool pool) {
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        this.interestRuleService = interestRuleService;
+        this.interestPostingService = interestPostingService;
+        this.monthEndInterestJob = monthEndInterestJob;
+        this.pool = pool;
+    }
+
+    /**
+     * (account, month) pairs on or after the given date whose month already has interest posted to the account.
+     */
+    public List<AccountMonth> findAffected(LocalDate affectedFrom) {
+        Objects.requireNonNull(affectedFrom, "Affected date must not be null");
+
+        List<YearMonth> months = List.copyOf(monthEndInterestJob.closedMonths().tailSet(YearMonth.from(affectedFrom)));
+        if (months.isEmpty()) {
+            return List.of();
+        }
+
+        List<Account> accounts = accountService.getAllAccounts();
+        return pool.submit(() -> accounts.parallelStream()
+                        .flatMap(account -> months.stream()
+                                .filter(month -> hasPostedInterest(account.accountNumber(), month))
+                                .map(month -> new AccountMonth(account.accountNumber(), month)))
+                        .toList())
+                .join();
+    }
+
+    /**
+     * Recomputes and reposts interest for every pair affected by a change from the given date.
+     */
+    public Report reprocess(LocalDate affectedFrom) {
+        long startNanos = System.nanoTime();
+        List<AccountMonth> affected = findAffected(affectedFrom);
+        InterestRateSchedule rateSchedule = interestRuleService.getRateSchedule();
+
+        pool.submit(() -> affected.parallelStream().forEach(pair -> interestPostingService.postMonthlyInterest(
+                        pair.accountNumber(),
+                        pair.month(),
+                        rateSchedule)))
+                .join();
+
+        return new Report(affectedFrom, affected, System.nanoTime() - startNanos);
+    }
+
+    private boolean hasPostedInterest(String accountNumber, YearMonth month) {
+        return transactionService.findLedgerMonth(accountNumber, month).transactions().stream()
+                .anyMatch(t -> t.type() == Transaction.TransactionType.INTEREST);
+    }
+
+    public record AccountMonth(String accountNumber, YearMonth month) {
+    }
+
+    public record Report(LocalDate affectedFrom, List<AccountMonth> recomputed, long elapsedNanos) {
+        public Report {
+            recomputed = List.copyOf(recomputed);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.awesomegic.service;
+
+import org.awesomegic.model.InterestRulePeriod;
+import org.awesomegic.model.Transaction;
+
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of generated statements keyed by account and month. An entry is only served while the
+ * account's ledger revision for that month and the interest rule periods for it are the same as when the
+ * statement was built, so a posting in or before the month, or a rule change touching it, invalidates it.
+ * <p>
+ * The cache is split into stripes by key, each an LRU of its share of the capacity behind its own lock, so
+ * concurrent statement reads for different accounts rarely contend. Recency is therefore tracked per stripe:
+ * the entry evicted is the least recently used one in its stripe, not necessarily in the whole cache.
+ */
+public final class StatementCache {
+
+    // Stripes are only added while each can still hold this many entries, so small caches stay exact LRUs
+    private static final int MIN_STRIPE_CAPACITY = 64;
+    private static final int MAX_STRIPES = 16;
+
+    public record Stats(long hits, long misses, long evictions) {}
+
+    private record Key(String accountNumber, YearMonth month) {}
+
+    private record Entry(long ledgerRevision, List<InterestRulePeriod> interestRulePeriods, List<Transaction> statement) {}
+
+    private final Stripe[] stripes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StatementCache(int capacity) {
+        this(capacity, Math.max(1, Math.min(MAX_STRIPES, capacity / MIN_STRIPE_CAPACITY)));
+    }
+
+    /**
+     * Creates a cache of the given total capacity split evenly over the given number of stripes.
+     */
+    public StatementCache(int capacity, int stripeCount) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        if (stripeCount <= 0 || stripeCount > capacity) {
+            throw new IllegalArgumentException("Stripe count must be between 1 and the capacity");
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            // The first capacity % stripeCount stripes take one extra entry so the total is exact
+            stripes[i] = new Stripe(capacity / stripeCount + (i < capacity % stripeCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * Returns the cached statement if it is still current, otherwise null. Stale entries are dropped.
+     */
+    List<Transaction> get(
+            String accountNumber, YearMonth month, long ledgerRevision, List<InterestRulePeriod> interestRulePeriods) {
+        Key key = new Key(accountNumber, month);
+        Stripe stripe = stripeFor(key);
+
+        synchronized (stripe) {
+            Entry entry = stripe.get(key);
+            if (entry != null
+                    && entry.ledgerRevision() == ledgerRevision
+                    && entry.interestRulePeriods().equals(interestRulePeriods)) {
+                hits.increment();
+                return entry.statement();
+            }
+            if (entry != null) {
+                stripe.remove(key);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(
+            String accountNumber, YearMonth month, long ledgerRevision,
+            List<InterestRulePeriod> interestRulePeriods, List<Transaction> statement) {
+        Key key = new Key(accountNumber, month);
+        Entry entry = new Entry(ledgerRevision, List.copyOf(interestRulePeriods), List.copyOf(statement));
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, entry);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private Stripe stripeFor(Key key) {
+        int hash = key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    // Guarded by its own monitor
+    private final class Stripe extends LinkedHashMap<Key, Entry> {
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package org.awesomegic.service;
+
+import org.awesomegic.model.Account;
+import org.awesomegic.model.InterestRateSchedule;
+import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes month-end statements to one file per account, in parallel across a fork/join pool. Each worker thread
+ * keeps its own text, byte and compression buffers and reuses them for every statement it renders, so once the
+ * buffers have grown to the largest statement an export allocates next to nothing beyond the statements
+ * themselves. Files are written through a {@link FileChannel}, optionally gzip-compressed.
+ * <p>
+ * Statements are built straight from the ledger, bypassing the statement cache, and every statement in one
+ * export is priced against the same snapshot of the interest rules.
+ */
+public class StatementExportService {
+
+    private static final String HEADER = "| Date | Txn Id | Type | Amount | Balance |\n";
+
+    // Fixed gzip member header: deflate, no flags, no timestamp, unknown OS
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int GZIP_TRAILER_LENGTH = 8;
+
+    private final StatementService statementService;
+    private final AccountService accountService;
+    private final InterestRuleService interestRuleService;
+    private final ForkJoinPool pool;
+
+    private final ThreadLocal<ExportBuffers> buffers = ThreadLocal.withInitial(ExportBuffers::new);
+
+    public StatementExportService(
+            StatementService statementService,
+            AccountService accountService,
+            InterestRuleService interestRuleService,
+            ForkJoinPool pool) {
+        this.statementService = statementService;
+        this.accountService = accountService;
+        this.interestRuleService = interestRuleService;
+        this.pool = pool;
+    }
+
+    /**
+     * Exports the month's statement for every account.
+     */
+    public Report exportAll(YearMonth month, Path directory, boolean gzip) {
+        List<String> accountNumbers = accountService.getAllAccounts().stream()
+                .map(Account::accountNumber)
+                .toList();
+        return export(month, accountNumbers, directory, gzip);
+    }
+
+    /**
+     * Exports the month's statement for each of the given accounts to {@code <account>-<yyyyMM>.txt}, or
+     * {@code .txt.gz} when compressed, replacing any earlier export of the same statement. Characters of the
+     * account number other than letters, digits, '.', '_' and '-' are percent-encoded in the file name, so two
+     * accounts never write to the same file. An account listed more than once is exported once.
+     */
+    public Report export(YearMonth month, Collection<String> accountNumbers, Path directory, boolean gzip) {
+        Objects.requireNonNull(month, "Month must not be null");
+        Objects.requireNonNull(directory, "Export directory must not be null");
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create export directory " + directory, e);
+        }
+
+        List<String> accounts = accountNumbers.stream().distinct().toList();
+        InterestRateSchedule rateSchedule = interestRuleService.getRateSchedule();
+        long startNanos = System.nanoTime();
+        long bytesWritten = pool.submit(() -> accounts.parallelStream()
+                        .mapToLong(accountNumber -> exportStatement(accountNumber, month, rateSchedule, directory, gzip))
+                        .sum())
+                .join();
+
+        return new Report(month, accounts.size(), bytesWritten, System.nanoTime() - startNanos);
+    }
+
+    public record Report(YearMonth month, int statementsWritten, long bytesWritten, long elapsedNanos) {
+        public double statementsPerSecond() {
+            if (elapsedNanos <= 0) {
+                return 0;
+            }
+            return statementsWritten * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+    }
+
+    private long exportStatement(
+            String accountNumber, YearMonth month, InterestRateSchedule rateSchedule, Path directory, boolean gzip) {
+        List<Transaction> statement = statementService.buildStatement(accountNumber, month, rateSchedule);
+
+        ExportBuffers exportBuffers = buffers.get();
+        render(accountNumber, statement, exportBuffers.text);
+        ByteBuffer content = exportBuffers.encode();
+        if (gzip) {
+            content = exportBuffers.compress(content);
+        }
+
+        Path file = directory.resolve(fileName(accountNumber, month, gzip));
+        long size = content.remaining();
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write statement to " + file, e);
+        }
+        return size;
+    }
+
+    // Same layout as the statement printed by the menu
+    private static void render(String accountNumber, List<Transaction> statement, StringBuilder text) {
+        text.setLength(0);
+        text.append("Account: ").append(accountNumber).append('\n').append(HEADER);
+        for (Transaction txn : statement) {
+            text.append("| ").append(txn.date())
+                    .append(" | ").append(txn.type() == Transaction.TransactionType.INTEREST ? "" : TransactionId.format(txn.id()))
+                    .append(" | ").append(txn.type())
+                    .append(" | ");
+            appendAmount(text, txn.amount());
+            text.append(" | ");
+            appendAmount(text, txn.balance());
+            text.append(" \n");
+        }
+    }
+
+    private static void appendAmount(StringBuilder text, long cents) {
+        if (cents < 0) {
+            text.append('-');
+        }
+        long magnitude = Math.abs(cents);
+        long fraction = magnitude % 100;
+        text.append(magnitude / 100).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        text.append(fraction);
+    }
+
+    private static String fileName(String accountNumber, YearMonth month, boolean gzip) {
+        return String.format("%s-%04d%02d.txt%s",
+                encodeFileName(accountNumber), month.getYear(), month.getMonthValue(), gzip ? ".gz" : "");
+    }
+
+    // Percent-encodes every UTF-8 byte outside [A-Za-z0-9._-], '%' included, so distinct accounts never share a file
+    private static String encodeFileName(String accountNumber) {
+        StringBuilder name = new StringBuilder(accountNumber.length());
+        for (byte b : accountNumber.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '.' || c == '_' || c == '-') {
+                name.append(c);
+            } else {
+                name.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xf, 16)));
+            }
+        }
+        return name.toString();
+    }
+
+    /**
+     * Per-thread scratch space. Buffers only ever grow, so a thread settles on the size of its largest statement.
+     */
+    private static final class ExportBuffers {
+        private final StringBuilder text = new StringBuilder(4096);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer encoded = ByteBuffer.allocate(4096);
+        private ByteBuffer compressed = ByteBuffer.allocate(4096);
+
+        ByteBuffer encode() {
+            int maxBytes = (int) Math.ceil(text.length() * (double) encoder.maxBytesPerChar());
+            if (encoded.capacity() < maxBytes) {
+                encoded = ByteBuffer.allocate(maxBytes);
+            }
+
+            encoded.clear();
+            encoder.reset();
+            encoder.encode(CharBuffer.wrap(text), encoded, true);
+            encoder.flush(encoded);
+            return encoded.flip();
+        }
+
+        ByteBuffer compress(ByteBuffer input) {
+            int inputLength = input.remaining();
+            crc.reset();
+            crc.update(input.duplicate());
+
+            deflater.reset();
+            deflater.setInput(input);
+            deflater.finish();
+
+            compressed.clear();
+            compressed.put(GZIP_HEADER);
+            while (!deflater.finished()) {
+                if (!compressed.hasRemaining()) {
+                    compressed = grow(compressed);
+                }
+                deflater.deflate(compressed);
+            }
+
+            if (compressed.remaining() < GZIP_TRAILER_LENGTH) {
+                compressed = grow(compressed);
+            }
+            compressed.order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt((int) crc.getValue())
+                    .putInt(inputLength)
+                    .order(ByteOrder.BIG_ENDIAN);
+            return compressed.flip();
+        }
+
+        private static ByteBuffer grow(ByteBuffer buffer) {
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            return larger.put(buffer.flip());
+        }
+    }
+}
@@ -1,32 +1,32 @@
 package org.awesomegic.service;
 
-import org.awesomegic.model.Account;
+import org.awesomegic.model.InterestRateSchedule;
 import org.awesomegic.model.InterestRule;
+import org.awesomegic.model.InterestRulePeriod;
+import org.awesomegic.model.LedgerMonth;
+import org.awesomegic.model.Money;
 import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class StatementService {
+    private static final int STATEMENT_CACHE_CAPACITY = 10_000;
+
     private final TransactionService transactionService;
     private final InterestRuleService interestRuleService;
-    private final AccountService accountService;
+    private final StatementCache statementCache = new StatementCache(STATEMENT_CACHE_CAPACITY);
 
     public StatementService(
             TransactionService transactionService,
-            InterestRuleService interestRuleService,
-            AccountService accountService) {
+            InterestRuleService interestRuleService) {
         this.transactionService = transactionService;
         this.interestRuleService = interestRuleService;
-        this.accountService = accountService;
     }
 
     public void validateStatementInput(int year, int month) {
@@ -44,291 +44,148 @@ public class StatementService {
         }
     }
 
+    /**
+     * Builds the statement from one consistent read of the ledger without writing anything. Interest already
+     * posted for the month is shown as posted, since that is what the balance holds; otherwise it is shown as
+     * computed now, on a line with a placeholder ID.
+     * The returned list is unmodifiable and may be served from the statement cache.
+     */
     public List<Transaction> generateAccountStatement(
             String accountNumber, int year, int month) {
 
         YearMonth ym = YearMonth.of(year, month);
 
-        LocalDate startDate = ym.atDay(1);
-        LocalDate endDate = ym.atEndOfMonth();
-
-        List<Transaction> existingTransactions = transactionService
-                .findByAccountNumberAndDateRange(accountNumber, startDate, endDate);
-
-        Transaction existingInterestTransaction = null;
-
-
-        for (Transaction transaction : existingTransactions) {
-            if (transaction.type() == Transaction.TransactionType.INTEREST) {
-                existingInterestTransaction = transaction;
+        // Read the revision before the ledger so a posting racing with the build leaves a stale entry, not a wrong one
+        long ledgerRevision = transactionService.findLedgerRevision(accountNumber, ym);
+        InterestRateSchedule rateSchedule = interestRuleService.getRateSchedule();
+        List<InterestRulePeriod> interestRulePeriods = rateSchedule.periodsIn(ym);
 
-                transactionService.deleteById(transaction.id());
-                break;
-            }
+        List<Transaction> cached = statementCache.get(accountNumber, ym, ledgerRevision, interestRulePeriods);
+        if (cached != null) {
+            return cached;
         }
 
-        Account account = accountService.findOrCreateAccount(accountNumber);
-        BigDecimal endOfMonthBalance = calculateHistoricalBalance(accountNumber, endDate);
-
-        List<Transaction> monthlyTransactions = transactionService
-                .findByAccountNumberAndDateRange(accountNumber, startDate, endDate)
-                .stream()
-                .filter(t -> t.type() != Transaction.TransactionType.INTEREST)
-                .sorted(Comparator.comparing(Transaction::date).thenComparing(Transaction::id))
-                .collect(Collectors.toList());
-
-        Transaction interestTransaction = calculateMonthlyInterest(
-                accountNumber,
-                startDate,
-                endDate
-        );
-
-        if (interestTransaction != null) {
-            BigDecimal interestAdjustedBalance = endOfMonthBalance.add(interestTransaction.amount());
-
-            if (existingInterestTransaction != null) {
-                interestTransaction = new Transaction(
-                        existingInterestTransaction.id(),
-                        interestTransaction.date(),
-                        interestTransaction.accountNumber(),
-                        interestTransaction.type(),
-                        interestTransaction.amount(),
-                        interestAdjustedBalance
-                );
-            } else {
-                interestTransaction = new Transaction(
-                        interestTransaction.id(),
-                        interestTransaction.date(),
-                        interestTransaction.accountNumber(),
-                        interestTransaction.type(),
-                        interestTransaction.amount(),
-                        interestAdjustedBalance
-                );
-            }
-
-            Transaction savedInterestTransaction = transactionService.save(interestTransaction);
-
-            if (YearMonth.from(LocalDate.now()).equals(YearMonth.of(year, month))) {
-                Account updatedAccount = new Account(
-                        account.accountNumber(),
-                        interestAdjustedBalance,
-                        account.createdDate()
-                );
-                accountService.updateAccount(updatedAccount);
-            }
-
-            monthlyTransactions.add(savedInterestTransaction);
-        }
-
-        monthlyTransactions.sort(Comparator.comparing(Transaction::date));
-
-        return monthlyTransactions;
+        List<Transaction> statement = List.copyOf(buildStatement(accountNumber, ym, rateSchedule));
+        statementCache.put(accountNumber, ym, ledgerRevision, interestRulePeriods, statement);
+        return statement;
     }
 
-    private Transaction calculateMonthlyInterest(
-            String accountNumber,
-            LocalDate startDate,
-            LocalDate endDate) {
-
-        List<InterestRulePeriod> interestRulePeriods = findInterestRulePeriods(startDate, endDate);
-
-        if (interestRulePeriods.isEmpty()) {
-            return null;
-        }
-
-        BigDecimal totalInterest = calculateTotalInterest(
-                accountNumber,
-                interestRulePeriods
-        );
-
-        if (totalInterest.compareTo(BigDecimal.ZERO) > 0) {
-            return createInterestTransaction(accountNumber, endDate, totalInterest);
+    /**
+     * Statement lines for every month from {@code from} to {@code to} inclusive, in ledger order with each month's
+     * interest line after its transactions. The stream is lazy: a month is read from the ledger only when the
+     * stream reaches it, starting from its month-end checkpoint, so at most one month is held at a time. Every
+     * month is priced against the rules as they stand when the stream is created. Range reads bypass the cache.
+     */
+    public Stream<Transaction> generateStatement(String accountNumber, YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Statement range start must not be after its end");
         }
 
-        return null;
+        InterestRateSchedule rateSchedule = interestRuleService.getRateSchedule();
+        return Stream.iterate(from, ym -> !ym.isAfter(to), ym -> ym.plusMonths(1))
+                .flatMap(ym -> buildStatement(accountNumber, ym, rateSchedule).stream());
     }
 
-    private List<InterestRulePeriod> findInterestRulePeriods(
-            LocalDate startDate,
-            LocalDate endDate) {
-        List<InterestRule> allRules = interestRuleService.getAllInterestRules()
-                .stream()
-                .sorted(Comparator.comparing(InterestRule::effectiveDate))
-                .collect(Collectors.toList());
-
-        if (allRules.isEmpty()) {
-            return new ArrayList<>();
-        }
+    public StatementCache.Stats getStatementCacheStats() {
+        return statementCache.stats();
+    }
 
-        List<InterestRulePeriod> periods = new ArrayList<>();
+    /**
+     * Builds the month's statement against the given rate schedule, straight from the ledger and without
+     * touching the cache. Bulk work such as exports uses this so it neither churns the cache nor fills it with
+     * statements nobody will print.
+     */
+    public List<Transaction> buildStatement(
+            String accountNumber, YearMonth ym, InterestRateSchedule rateSchedule) {
+        LedgerMonth ledgerMonth = transactionService.findLedgerMonth(accountNumber, ym);
 
-        Optional<InterestRule> startingRuleOpt = allRules.stream()
-                .filter(rule -> !rule.effectiveDate().isAfter(startDate))
-                .max(Comparator.comparing(InterestRule::effectiveDate));
+        List<Transaction> statement = new ArrayList<>();
+        Transaction postedInterest = null;
 
-        if (startingRuleOpt.isEmpty()) {
-            return periods;
+        for (Transaction transaction : ledgerMonth.transactions()) {
+            if (transaction.type() == Transaction.TransactionType.INTEREST) {
+                postedInterest = transaction;
+            } else {
+                statement.add(transaction);
+            }
         }
 
-        InterestRule currentRule = startingRuleOpt.get();
-        LocalDate currentPeriodStart = startDate;
+        // A posting is shown even when repricing would now give a different amount or none, until it is reposted
+        long interest = postedInterest != null
+                ? postedInterest.amount()
+                : calculateMonthlyInterest(ledgerMonth, rateSchedule);
 
-        List<InterestRule> rulesWithinPeriod = allRules.stream()
-                .filter(rule -> rule.effectiveDate().isAfter(startDate) && !rule.effectiveDate().isAfter(endDate))
-                .sorted(Comparator.comparing(InterestRule::effectiveDate))
-                .collect(Collectors.toList());
+        if (interest > 0) {
+            long endOfMonthBalance = ledgerMonth.opening().balance();
+            for (Transaction transaction : statement) {
+                endOfMonthBalance = updateBalance(endOfMonthBalance, transaction);
+            }
 
-        for (InterestRule rule : rulesWithinPeriod) {
-            periods.add(new InterestRulePeriod(
-                    currentPeriodStart,
-                    rule.effectiveDate().minusDays(1),
-                    currentRule
+            LocalDate endDate = ym.atEndOfMonth();
+            long interestTransactionId = postedInterest != null
+                    ? postedInterest.id()
+                    : TransactionId.last(endDate);
+
+            statement.add(createInterestTransaction(
+                    interestTransactionId,
+                    accountNumber,
+                    endDate,
+                    interest,
+                    Money.add(endOfMonthBalance, interest)
             ));
-
-            currentPeriodStart = rule.effectiveDate();
-            currentRule = rule;
         }
 
-        periods.add(new InterestRulePeriod(
-                currentPeriodStart,
-                endDate,
-                currentRule
-        ));
-
-        return periods;
+        return statement;
     }
 
-    private BigDecimal calculateTotalInterest(
-            String accountNumber,
-            List<InterestRulePeriod> interestRulePeriods) {
-
-        BigDecimal totalInterest = BigDecimal.ZERO;
-
-        LocalDate startDate = interestRulePeriods.get(0).startDate();
-        LocalDate endDate = interestRulePeriods.get(interestRulePeriods.size() - 1).endDate();
-
-        List<DailyBalance> dailyBalances = calculateDailyBalances(accountNumber, startDate, endDate);
-
-        for (InterestRulePeriod period : interestRulePeriods) {
-            BigDecimal periodInterest = BigDecimal.ZERO;
-
-            List<DailyBalance> periodBalances = dailyBalances.stream()
-                    .filter(db ->
-                            !db.date().isBefore(period.startDate()) &&
-                                    !db.date().isAfter(period.endDate()))
-                    .collect(Collectors.toList());
-
-            for (DailyBalance dailyBalance : periodBalances) {
-                BigDecimal dailyInterest = dailyBalance.balance()
-                        .multiply(period.interestRule().interestRate())
-                        .divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP)
-                        .divide(BigDecimal.valueOf(365), 10, RoundingMode.HALF_UP);
-
-                periodInterest = periodInterest.add(dailyInterest);
-            }
-
-            totalInterest = totalInterest.add(periodInterest);
-        }
-
-        return totalInterest.setScale(2, RoundingMode.HALF_UP);
+    /**
+     * Interest earned over the month, in cents. Interest already credited does not itself earn interest.
+     */
+    public long calculateMonthlyInterest(LedgerMonth ledgerMonth) {
+        return calculateMonthlyInterest(ledgerMonth, interestRuleService.getRateSchedule());
     }
 
-    private List<DailyBalance> calculateDailyBalances(
-            String accountNumber,
-            LocalDate startDate,
-            LocalDate endDate) {
-
-        List<Transaction> allTransactions = transactionService
-                .findByAccountNumberAndDateRange(accountNumber, LocalDate.MIN, endDate)
-                .stream()
-                .filter(t -> t.type() != Transaction.TransactionType.INTEREST)
-                .sorted(Comparator.comparing(Transaction::date))
-                .collect(Collectors.toList());
+    /**
+     * Interest earned over the month against a pinned rate schedule, so a batch can price every account
+     * from the same snapshot of the rules.
+     */
+    public long calculateMonthlyInterest(LedgerMonth ledgerMonth, InterestRateSchedule rateSchedule) {
+        YearMonth ym = ledgerMonth.month();
 
-        List<DailyBalance> dailyBalances = new ArrayList<>();
-        BigDecimal runningBalance = BigDecimal.ZERO;
-
-        for (Transaction txn : allTransactions) {
-            if (txn.date().isBefore(startDate)) {
-                runningBalance = updateBalance(runningBalance, txn);
-            }
+        // No interest for a month that starts without a rule in effect
+        if (rateSchedule.periodsIn(ym).isEmpty()) {
+            return 0;
         }
 
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            final LocalDate currentDate = date;
+        // Everything before this month is summarised by the previous month-end checkpoint, and the month's
+        // postings by the accrual the ledger maintains as they land
+        long basisPointBalanceDays = ledgerMonth.accrual().basisPointBalanceDays(
+                ledgerMonth.opening().balanceExcludingInterest(),
+                rateSchedule);
 
-            List<Transaction> transactionsForDay = allTransactions.stream()
-                    .filter(t -> t.date().equals(currentDate))
-                    .collect(Collectors.toList());
-
-            for (Transaction txn : transactionsForDay) {
-                runningBalance = updateBalance(runningBalance, txn);
-            }
-
-            dailyBalances.add(new DailyBalance(currentDate, runningBalance));
-        }
-
-        return dailyBalances;
+        return Money.divideHalfUp(basisPointBalanceDays, InterestRule.INTEREST_DIVISOR);
     }
 
     private Transaction createInterestTransaction(
+            long id,
             String accountNumber,
             LocalDate valueDate,
-            BigDecimal interestAmount) {
+            long interestAmount,
+            long balance) {
         return new Transaction(
-                "ID",
+                id,
                 valueDate,
                 accountNumber,
                 Transaction.TransactionType.INTEREST,
                 interestAmount,
-                BigDecimal.ZERO
+                balance
         );
     }
 
-    private BigDecimal updateBalance(BigDecimal currentBalance, Transaction transaction) {
+    private long updateBalance(long currentBalance, Transaction transaction) {
         return switch (transaction.type()) {
-            case DEPOSIT, INTEREST -> currentBalance.add(transaction.amount());
-            case WITHDRAWAL -> currentBalance.subtract(transaction.amount());
+            case DEPOSIT, INTEREST -> Money.add(currentBalance, transaction.amount());
+            case WITHDRAWAL -> Money.subtract(currentBalance, transaction.amount());
         };
     }
-
-    private BigDecimal calculateHistoricalBalance(String accountNumber, LocalDate asOfDate) {
-        List<Transaction> allTransactions = transactionService
-                .findByAccountNumberAndDateRange(accountNumber, LocalDate.MIN, asOfDate)
-                .stream()
-                .sorted(Comparator.comparing(Transaction::date).thenComparing(Transaction::id))
-                .collect(Collectors.toList());
-
-        if (allTransactions.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-
-        Transaction lastTransaction = allTransactions.get(allTransactions.size() - 1);
-
-        if (lastTransaction.date().equals(asOfDate)) {
-            return lastTransaction.balance();
-        }
-
-        BigDecimal runningBalance = BigDecimal.ZERO;
-
-        for (Transaction transaction : allTransactions) {
-            runningBalance = switch (transaction.type()) {
-                case DEPOSIT, INTEREST -> runningBalance.add(transaction.amount());
-                case WITHDRAWAL -> runningBalance.subtract(transaction.amount());
-            };
-        }
-
-        return runningBalance;
-    }
-
-    private record InterestRulePeriod(
-            LocalDate startDate,
-            LocalDate endDate,
-            InterestRule interestRule
-    ) {}
-
-    private record DailyBalance(
-            LocalDate date,
-            BigDecimal balance
-    ) {}
 }
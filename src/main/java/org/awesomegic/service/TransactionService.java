@@ -1,15 +1,18 @@
 package org.awesomegic.service;
 
 import org.awesomegic.model.Account;
+import org.awesomegic.model.BalanceCheckpoint;
+import org.awesomegic.model.LedgerMonth;
+import org.awesomegic.model.Money;
 import org.awesomegic.model.Transaction;
 import org.awesomegic.repositoy.TransactionRepository;
 import org.awesomegic.util.InputValidator;
+import org.awesomegic.util.TransactionIdSequencer;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.NavigableSet;
 
 
 public class TransactionService {
@@ -18,39 +21,57 @@ public class TransactionService {
             LocalDate date,
             String accountNumber,
             String transactionType,
-            BigDecimal amount
+            long amount
     ) {}
 
     private final TransactionRepository transactionRepository;
     private final AccountService accountService;
+    private final TransactionIdSequencer transactionIdSequencer;
 
     public TransactionService(
             TransactionRepository transactionRepository,
             AccountService accountService) {
         this.transactionRepository = transactionRepository;
         this.accountService = accountService;
+        this.transactionIdSequencer = new TransactionIdSequencer(transactionRepository::findLastSequence);
     }
 
+    /**
+     * The account's transactions in (date, id) order, as the ledger already keeps them.
+     */
     public List<Transaction> getTransactionsByAccountNumber(String accountNumber) {
-        List<Transaction> transactions = transactionRepository.findByAccountNumber(accountNumber);
-        transactions.sort(Comparator.comparing(Transaction::date).thenComparing(Transaction::id));
-
-        return transactions;
+        return transactionRepository.findByAccountNumber(accountNumber);
     }
 
-    public void deleteById(String accountNumber) {
-        transactionRepository.deleteById(accountNumber);
+    public void deleteById(long id) {
+        transactionRepository.deleteById(id);
     }
 
     public Transaction save(Transaction transaction) {
-        transactionRepository.save(transaction);
-        return transaction;
+        transactionIdSequencer.register(transaction.id());
+        return transactionRepository.save(transaction);
     }
 
     public List<Transaction> findByAccountNumberAndDateRange(String accountNumber, LocalDate startDate, LocalDate endDate) {
         return transactionRepository.findByAccountNumberAndDateRange(accountNumber, startDate, endDate);
     }
 
+    public long findLedgerRevision(String accountNumber, YearMonth month) {
+        return transactionRepository.findLedgerRevision(accountNumber, month);
+    }
+
+    public BalanceCheckpoint findBalanceCheckpoint(String accountNumber, YearMonth month) {
+        return transactionRepository.findBalanceCheckpoint(accountNumber, month);
+    }
+
+    public LedgerMonth findLedgerMonth(String accountNumber, YearMonth month) {
+        return transactionRepository.findLedgerMonth(accountNumber, month);
+    }
+
+    public NavigableSet<YearMonth> findInterestMonths() {
+        return transactionRepository.findInterestMonths();
+    }
+
     public Transaction processTransaction(String input) {
         TransactionRequest request = parseTransactionInput(input);
 
@@ -59,12 +80,14 @@ public class TransactionService {
         Transaction.TransactionType transactionType =
                 parseTransactionType(request.transactionType());
 
-        String transactionId = generateTransactionId(request.date());
+        long transactionId = generateTransactionId(request.date());
 
         Account account = accountService.findOrCreateAccount(request.accountNumber());
-        validateAccountTransaction(account, transactionType, request.amount());
-        BigDecimal currentBalance = account.balance();
-        BigDecimal newBalance = calculateNewBalance(currentBalance, transactionType, request.amount());
+        // A back-dated posting lands after everything already booked on its date, so its running balance
+        // starts from the end of that day rather than from the account's current balance
+        long balanceOnDate = transactionRepository.findBalanceAsOf(request.accountNumber(), request.date());
+        validateAccountTransaction(account, transactionType, request.amount(), request.date());
+        long newBalance = calculateNewBalance(balanceOnDate, transactionType, request.amount());
 
         Transaction transaction = new Transaction(
                 transactionId,
@@ -79,7 +102,7 @@ public class TransactionService {
 
         try {
             savedTransaction = transactionRepository.save(transaction);
-
+            accountService.updateAccountBalance(savedTransaction);
         } catch (Exception e) {
             if(savedTransaction != null) {
                 try {
@@ -90,7 +113,7 @@ public class TransactionService {
             }
             throw new RuntimeException("Transaction creation failed");
         }
-        return transaction;
+        return savedTransaction;
     }
 
     private TransactionRequest parseTransactionInput(String input) {
@@ -103,7 +126,7 @@ public class TransactionService {
                 InputValidator.parseAndValidateDate(parts[0]),
                 parts[1],
                 parts[2].toUpperCase(),
-                new BigDecimal(parts[3])
+                Money.parse(parts[3])
         );
     }
 
@@ -117,11 +140,7 @@ public class TransactionService {
         if (request.transactionType() == null) {
             throw new IllegalArgumentException("Transaction type cannot be null");
         }
-        if (request.amount() == null) {
-            throw new IllegalStateException("Transaction amount cannot be null");
-        }
-
-        if (request.amount().compareTo(BigDecimal.ZERO) <= 0) {
+        if (request.amount() <= 0) {
             throw new IllegalStateException("Transaction amount must be positive");
         }
 
@@ -133,15 +152,17 @@ public class TransactionService {
     private void validateAccountTransaction(
             Account account,
             Transaction.TransactionType transactionType,
-            BigDecimal amount) {
-        if (accountService.getAccountTransactionCount(account.accountNumber()) == 0
-                && transactionType == Transaction.TransactionType.WITHDRAWAL) {
+            long amount,
+            LocalDate date) {
+        if (transactionType == Transaction.TransactionType.WITHDRAWAL
+                && !accountService.hasTransactions(account.accountNumber())) {
             throw new IllegalStateException("First transaction for an account cannot be a withdrawal");
         }
 
         if (transactionType == Transaction.TransactionType.WITHDRAWAL) {
-            BigDecimal currentBalance = accountService.getAccountBalance(account.accountNumber());
-            if (currentBalance.subtract(amount).compareTo(BigDecimal.ZERO) < 0) {
+            // A withdrawal lowers every balance from its date onwards, so none of them may go negative
+            long lowestBalance = transactionRepository.findLowestBalanceFrom(account.accountNumber(), date);
+            if (lowestBalance < amount) {
                 throw new IllegalStateException("Insufficient funds for withdrawal");
             }
         }
@@ -155,19 +176,17 @@ public class TransactionService {
         }
     }
 
-    private String generateTransactionId(LocalDate date) {
-        String datePrefix = date.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        int uniqueDateSuffix = transactionRepository.findTransactionsByDate(date).size() + 1;
-        return datePrefix + "-" + String.format("%02d",uniqueDateSuffix);
+    public long generateTransactionId(LocalDate date) {
+        return transactionIdSequencer.nextId(date);
     }
 
-    private BigDecimal calculateNewBalance(
-            BigDecimal currentBalance,
+    private long calculateNewBalance(
+            long currentBalance,
             Transaction.TransactionType transactionType,
-            BigDecimal amount) {
+            long amount) {
         return switch (transactionType) {
-            case DEPOSIT, INTEREST -> currentBalance.add(amount);
-            case WITHDRAWAL -> currentBalance.subtract(amount);
+            case DEPOSIT, INTEREST -> Money.add(currentBalance, amount);
+            case WITHDRAWAL -> Money.subtract(currentBalance, amount);
         };
     }
 
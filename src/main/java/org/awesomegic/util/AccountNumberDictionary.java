@@ -0,0 +1,67 @@
+package org.awesomegic.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns each account number a dense int id the first time it is seen, starting at 0, and keeps one canonical
+ * copy of the number for display. Ids are never reused, so indexes can be plain arrays sized by {@link #size()}.
+ * Lookups in both directions are lock-free; only assigning a new id takes a lock.
+ */
+public class AccountNumberDictionary {
+
+    public static final int ABSENT = -1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    // Grown by copying under the lock; slots below size are never rewritten
+    private volatile String[] accountNumbers = new String[64];
+    private volatile int size;
+
+    /**
+     * Id of the account number, assigning the next one if it has not been seen before.
+     */
+    public int idOf(String accountNumber) {
+        Integer id = ids.get(accountNumber);
+        return id != null ? id : assign(accountNumber);
+    }
+
+    /**
+     * Id of the account number, or {@link #ABSENT} if it has never been seen.
+     */
+    public int find(String accountNumber) {
+        return ids.getOrDefault(accountNumber, ABSENT);
+    }
+
+    /**
+     * The canonical account number for the id.
+     */
+    public String accountNumber(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Unknown account id " + id);
+        }
+        return accountNumbers[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private synchronized int assign(String accountNumber) {
+        Integer existing = ids.get(accountNumber);
+        if (existing != null) {
+            return existing;
+        }
+
+        int id = size;
+        if (id == accountNumbers.length) {
+            accountNumbers = Arrays.copyOf(accountNumbers, id * 2);
+        }
+        accountNumbers[id] = accountNumber;
+        size = id + 1;
+        // Published last, so whoever finds the id can already look it up in reverse
+        ids.put(accountNumber, id);
+        return id;
+    }
+}
@@ -0,0 +1,47 @@
+package org.awesomegic.util;
+
+import org.awesomegic.model.TransactionId;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * Allocates {@link TransactionId transaction ids} from a per-date counter.
+ * Ids stay unique under concurrent postings. Each date's counter starts from the last sequence already used on
+ * it, looked up the first time the date is seen, so nothing has to be scanned up front.
+ */
+public class TransactionIdSequencer {
+
+    private final Map<LocalDate, AtomicInteger> sequences = new ConcurrentHashMap<>();
+
+    private final ToIntFunction<LocalDate> lastSequence;
+
+    public TransactionIdSequencer() {
+        this(date -> 0);
+    }
+
+    /**
+     * Creates a sequencer that continues after the last sequence the function reports for each date.
+     */
+    public TransactionIdSequencer(ToIntFunction<LocalDate> lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+
+    public long nextId(LocalDate date) {
+        return TransactionId.of(date, counter(date).incrementAndGet());
+    }
+
+    /**
+     * Makes sure ids allocated later never collide with an id that already exists.
+     */
+    public void register(long id) {
+        counter(TransactionId.date(id)).accumulateAndGet(TransactionId.sequence(id), Math::max);
+    }
+
+    private AtomicInteger counter(LocalDate date) {
+        return sequences.computeIfAbsent(date, d -> new AtomicInteger(lastSequence.applyAsInt(d)));
+    }
+}
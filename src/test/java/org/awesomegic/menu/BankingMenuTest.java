@@ -2,6 +2,7 @@ package org.awesomegic.menu;
 
 import org.awesomegic.model.InterestRule;
 import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
 import org.awesomegic.service.*;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,9 +16,13 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -38,6 +43,15 @@ class BankingMenuTest {
     @Mock
     private StatementService statementService;
 
+    @Mock
+    private StatementExportService statementExportService;
+
+    @Mock
+    private InterestPostingService interestPostingService;
+
+    @Mock
+    private MonthEndInterestJob monthEndInterestJob;
+
     @InjectMocks
     private BankingMenu bankingMenu;
     private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
@@ -60,7 +74,10 @@ class BankingMenuTest {
                 accountService,
                 transactionService,
                 interestRuleService,
-                statementService
+                statementService,
+                statementExportService,
+                interestPostingService,
+                monthEndInterestJob
         );
     }
 
@@ -76,6 +93,9 @@ class BankingMenuTest {
         assertTrue(output.contains("[T] Input transactions"));
         assertTrue(output.contains("[I] Define interest rules"));
         assertTrue(output.contains("[P] Print statement"));
+        assertTrue(output.contains("[E] Export statements"));
+        assertTrue(output.contains("[M] Post month-end interest"));
+        assertTrue(output.contains("[R] Run month-end interest for all accounts"));
         assertTrue(output.contains("[Q] Quit"));
         assertTrue(output.contains("Thank you for banking with AwesomeGIC Bank"));
     }
@@ -111,7 +131,7 @@ class BankingMenuTest {
     @DisplayName("should process valid transaction")
     void handleTransactionInput_shouldProcessValidTransaction() {
         setupBankingMenuWithInput("T\n20250101 ACC123 D 100.00\nQ\n");
-        Transaction mockTransaction = new Transaction("ID", LocalDate.of(2025, 1, 1),  "ACC123", Transaction.TransactionType.DEPOSIT, new BigDecimal("100.00"), new BigDecimal("100.00"));
+        Transaction mockTransaction = new Transaction(TransactionId.of(LocalDate.of(2025, 1, 1), 1), LocalDate.of(2025, 1, 1),  "ACC123", Transaction.TransactionType.DEPOSIT, 10000, 10000);
         when(transactionService.processTransaction(anyString())).thenReturn(mockTransaction);
         when(transactionService.getTransactionsByAccountNumber(anyString())).thenReturn(List.of(mockTransaction));
 
@@ -120,7 +140,7 @@ class BankingMenuTest {
         assertTrue(output.contains("Please enter transaction details in <Date> <Account> <Type> <Amount> format"));
         verify(transactionService).processTransaction("20250101 ACC123 D 100.00");
         assertTrue(output.contains("Account: ACC123"));
-        assertTrue(output.contains("| 2025-01-01 | ID | D | 100.00 |"));
+        assertTrue(output.contains("| 2025-01-01 | 20250101-01 | D | 100.00 |"));
     }
 
     @Test
@@ -138,7 +158,7 @@ class BankingMenuTest {
 
         assertTrue(output.contains("Error: Invalid transaction format"));
         assertFalse(output.contains("Account: ACC123"));
-        assertFalse(output.contains("| 2025-01-01 | ID | D | 100.00 |"));
+        assertFalse(output.contains("| 2025-01-01 | 20250101-01 | D | 100.00 |"));
     }
 
     @Test
@@ -190,12 +210,12 @@ class BankingMenuTest {
     void handleStatement_shouldProcessStatement() {
         setupBankingMenuWithInput("P\nACC1 202501\nQ\n");
         List<Transaction> mockTransactions = List.of(
-                new Transaction("id1", LocalDate.of(2025,1,1),"ACC1", Transaction.TransactionType.DEPOSIT,BigDecimal.valueOf(100), BigDecimal.valueOf(100)),
-                new Transaction("id2", LocalDate.of(2025,1,1),"ACC1", Transaction.TransactionType.DEPOSIT,BigDecimal.valueOf(100), BigDecimal.valueOf(200))
+                new Transaction(TransactionId.of(LocalDate.of(2025,1,1), 1), LocalDate.of(2025,1,1),"ACC1", Transaction.TransactionType.DEPOSIT, 10000, 10000),
+                new Transaction(TransactionId.of(LocalDate.of(2025,1,1), 2), LocalDate.of(2025,1,1),"ACC1", Transaction.TransactionType.DEPOSIT, 10000, 20000)
                 );
 
         when(statementService.generateAccountStatement(anyString(),anyInt(),anyInt())).thenReturn(mockTransactions);
-        when(accountService.getAccountBalance(anyString())).thenReturn(BigDecimal.valueOf(200));
+        when(accountService.getAccountBalance(anyString())).thenReturn(20000L);
 
         bankingMenu.start();
 
@@ -204,8 +224,106 @@ class BankingMenuTest {
         assertTrue(output.contains("Please enter account and month to generate the statement <Account> <Year><Month>"));
         assertTrue(output.contains("Account: ACC1"));
         assertTrue(output.contains("| Date | Txn Id | Type | Amount | Balance |"));
-        assertTrue(output.contains("| 2025-01-01 | id1 | D | 100.00 | 100.00"));
-        assertTrue(output.contains("| 2025-01-01 | id2 | D | 100.00 | 200.00"));
+        assertTrue(output.contains("| 2025-01-01 | 20250101-01 | D | 100.00 | 100.00"));
+        assertTrue(output.contains("| 2025-01-01 | 20250101-02 | D | 100.00 | 200.00"));
         assertTrue(output.contains("Current Balance: 200.00"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("should export statements for the listed accounts")
+    void handleStatementExport_shouldExportListedAccounts() {
+        setupBankingMenuWithInput("E\n202501 exports gzip ACC1 ACC2\nQ\n");
+        when(statementExportService.export(YearMonth.of(2025, 1), List.of("ACC1", "ACC2"), Path.of("exports"), true))
+                .thenReturn(new StatementExportService.Report(YearMonth.of(2025, 1), 2, 512, 1_000_000));
+
+        bankingMenu.start();
+
+        String output = outContent.toString();
+        assertTrue(output.contains("Please enter export details in <Year><Month> <Directory> [gzip] [<Account> ...] format"));
+        assertTrue(output.contains("Exported 2 statement(s), 512 bytes, to exports"));
+        verify(statementExportService, never()).exportAll(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("should export statements for all accounts when none are listed")
+    void handleStatementExport_shouldExportAllAccounts() {
+        setupBankingMenuWithInput("E\n202501 exports\nQ\n");
+        when(statementExportService.exportAll(YearMonth.of(2025, 1), Path.of("exports"), false))
+                .thenReturn(new StatementExportService.Report(YearMonth.of(2025, 1), 3, 900, 1_000_000));
+
+        bankingMenu.start();
+
+        assertTrue(outContent.toString().contains("Exported 3 statement(s), 900 bytes, to exports"));
+    }
+
+    @Test
+    @DisplayName("should post month-end interest to the account")
+    void handleInterestPosting_shouldPostInterest() {
+        setupBankingMenuWithInput("M\nACC1 202501\nQ\n");
+        LocalDate monthEnd = LocalDate.of(2025, 1, 31);
+        when(interestPostingService.postMonthlyInterest("ACC1", YearMonth.of(2025, 1))).thenReturn(Optional.of(
+                new Transaction(TransactionId.of(monthEnd, 1), monthEnd, "ACC1", Transaction.TransactionType.INTEREST, 123, 10123)));
+
+        bankingMenu.start();
+
+        assertTrue(outContent.toString().contains("Posted interest of 1.23 to ACC1 for 2025-01"));
+    }
+
+    @Test
+    @DisplayName("should report when no interest is due")
+    void handleInterestPosting_shouldReportNoInterestDue() {
+        setupBankingMenuWithInput("M\nACC1 202501\nQ\n");
+        when(interestPostingService.postMonthlyInterest("ACC1", YearMonth.of(2025, 1))).thenReturn(Optional.empty());
+
+        bankingMenu.start();
+
+        assertTrue(outContent.toString().contains("No interest due to ACC1 for 2025-01"));
+    }
+
+    @Test
+    @DisplayName("should refuse to post interest for a month that has not ended")
+    void handleInterestPosting_shouldRejectMonthNotEnded() {
+        setupBankingMenuWithInput("M\nACC1 202610\n\nQ\n");
+        doThrow(new IllegalArgumentException("Interest can only be posted for a month that has ended"))
+                .when(interestPostingService).validateMonthEnded(YearMonth.of(2026, 10));
+
+        bankingMenu.start();
+
+        assertTrue(outContent.toString().contains("Error posting interest: Interest can only be posted for a month that has ended"));
+        verify(interestPostingService, never()).postMonthlyInterest(any(), any());
+    }
+
+    @Test
+    @DisplayName("should run month-end interest for every account and report progress")
+    @SuppressWarnings("unchecked")
+    void handleMonthEndRun_shouldReportProgressAndTotals() {
+        setupBankingMenuWithInput("R\n202501\nQ\n");
+        when(monthEndInterestJob.run(eq(YearMonth.of(2025, 1)), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<MonthEndInterestJob.Progress> listener = invocation.getArgument(1);
+            listener.accept(new MonthEndInterestJob.Progress(2, 3, 1_000_000));
+            listener.accept(new MonthEndInterestJob.Progress(3, 3, 2_000_000));
+            return new MonthEndInterestJob.Report(YearMonth.of(2025, 1), 3, 2, 2_000_000);
+        });
+
+        bankingMenu.start();
+
+        String output = outContent.toString();
+        assertTrue(output.contains("Posted 2/3 accounts"));
+        assertTrue(output.contains("Posted 3/3 accounts"));
+        assertTrue(output.contains("Credited interest to 2 of 3 account(s) for 2025-01"));
+    }
+
+    @Test
+    @DisplayName("should refuse to run month-end interest for a month that has not ended")
+    @SuppressWarnings("unchecked")
+    void handleMonthEndRun_shouldRejectMonthNotEnded() {
+        setupBankingMenuWithInput("R\n202610\n\nQ\n");
+        doThrow(new IllegalArgumentException("Interest can only be posted for a month that has ended"))
+                .when(interestPostingService).validateMonthEnded(YearMonth.of(2026, 10));
+
+        bankingMenu.start();
+
+        assertTrue(outContent.toString().contains("Interest can only be posted for a month that has ended"));
+        verify(monthEndInterestJob, never()).run(any(), any(Consumer.class));
+    }
+}
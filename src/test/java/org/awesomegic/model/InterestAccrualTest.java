@@ -0,0 +1,77 @@
+package org.awesomegic.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterestAccrualTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2025, 3);
+
+    private final InterestRateSchedule schedule = InterestRateSchedule.of(List.of(
+            new InterestRule(LocalDate.of(2025, 1, 1), "R1", new BigDecimal("3.00")),
+            new InterestRule(LocalDate.of(2025, 3, 15), "R2", new BigDecimal("3.50"))));
+
+    private final Transaction withdrawal = new Transaction(TransactionId.parse("20250310-01"), LocalDate.of(2025, 3, 10),
+            "ACC1", Transaction.TransactionType.WITHDRAWAL, 20000, 0);
+    private final Transaction deposit = new Transaction(TransactionId.parse("20250320-01"), LocalDate.of(2025, 3, 20),
+            "ACC1", Transaction.TransactionType.DEPOSIT, 5000, 0);
+    private final Transaction interest = new Transaction(TransactionId.parse("20250331-01"), LocalDate.of(2025, 3, 31),
+            "ACC1", Transaction.TransactionType.INTEREST, 376, 0);
+
+    @Test
+    @DisplayName("should weight each posting by the rate-days left in the month")
+    void shouldWeightPostingsByRemainingRateDays() {
+        InterestAccrual accrual = InterestAccrual.of(MARCH, List.of(withdrawal, deposit));
+
+        // 9 days at 1500.00, 5 at 1300.00 at 3.0%, then 5 at 1300.00 and 12 at 1350.00 at 3.5%
+        long expected = 150000L * 9 * 300 + 130000L * 5 * 300 + 130000L * 5 * 350 + 135000L * 12 * 350;
+        assertEquals(expected, accrual.basisPointBalanceDays(150000, schedule));
+    }
+
+    @Test
+    @DisplayName("should match an accrual built from the month's transactions in any posting order")
+    void shouldAccumulateToAccrualBuiltFromTransactions() {
+        InterestAccrual.Accumulator accumulator = new InterestAccrual.Accumulator(MARCH);
+        accumulator.add(deposit);
+        accumulator.add(withdrawal);
+
+        assertEquals(InterestAccrual.of(MARCH, List.of(withdrawal, deposit)), accumulator.toAccrual());
+    }
+
+    @Test
+    @DisplayName("should undo removed postings and leave earlier reads unchanged")
+    void shouldUndoRemovalsWithoutChangingEarlierReads() {
+        InterestAccrual.Accumulator accumulator = new InterestAccrual.Accumulator(MARCH);
+        accumulator.add(withdrawal);
+        accumulator.add(deposit);
+        InterestAccrual beforeRemoval = accumulator.toAccrual();
+
+        accumulator.remove(deposit);
+
+        assertEquals(InterestAccrual.of(MARCH, List.of(withdrawal)), accumulator.toAccrual());
+        assertEquals(InterestAccrual.of(MARCH, List.of(withdrawal, deposit)), beforeRemoval);
+    }
+
+    @Test
+    @DisplayName("should ignore interest postings")
+    void shouldIgnoreInterestPostings() {
+        InterestAccrual accrual = InterestAccrual.of(MARCH, List.of(withdrawal, interest));
+
+        assertEquals(InterestAccrual.of(MARCH, List.of(withdrawal)), accrual);
+    }
+
+    @Test
+    @DisplayName("should reject a posting outside its month")
+    void shouldRejectPostingOutsideMonth() {
+        YearMonth april = YearMonth.of(2025, 4);
+
+        assertThrows(IllegalArgumentException.class, () -> InterestAccrual.of(april, List.of(withdrawal)));
+    }
+}
@@ -0,0 +1,59 @@
+package org.awesomegic.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterestRateScheduleTest {
+
+    private final InterestRule january = new InterestRule(LocalDate.of(2024, 1, 1), "R1", new BigDecimal("2.00"));
+    private final InterestRule midMarch = new InterestRule(LocalDate.of(2024, 3, 15), "R2", new BigDecimal("3.50"));
+
+    @Test
+    @DisplayName("should sum daily rates over a range using the rule in effect on each day")
+    void shouldSumDailyRates() {
+        InterestRateSchedule schedule = InterestRateSchedule.of(List.of(january, midMarch));
+
+        assertEquals(10 * 200, schedule.basisPointDays(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 11)));
+        assertEquals(4 * 200 + 2 * 350, schedule.basisPointDays(LocalDate.of(2024, 3, 11), LocalDate.of(2024, 3, 17)));
+        assertEquals(0, schedule.basisPointDays(LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 5)));
+    }
+
+    @Test
+    @DisplayName("should carry no rate before the first rule")
+    void shouldCarryNoRateBeforeFirstRule() {
+        InterestRateSchedule schedule = InterestRateSchedule.of(List.of(midMarch));
+
+        assertEquals(350, schedule.basisPointDays(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 16)));
+    }
+
+    @Test
+    @DisplayName("should span year boundaries including leap years")
+    void shouldSpanYearBoundaries() {
+        InterestRateSchedule schedule = InterestRateSchedule.of(List.of(january));
+
+        assertEquals(366 * 200, schedule.basisPointDays(LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1)));
+        assertEquals(2 * 200, schedule.basisPointDays(LocalDate.of(2024, 12, 31), LocalDate.of(2025, 1, 2)));
+    }
+
+    @Test
+    @DisplayName("should reuse tables for periods before a change and rebuild the rest")
+    void shouldRebuildOnlyFromChange() {
+        InterestRateSchedule schedule = InterestRateSchedule.of(List.of(january));
+        List<InterestRulePeriod> february = schedule.periodsIn(YearMonth.of(2024, 2));
+        schedule.periodsIn(YearMonth.of(2024, 3));
+
+        InterestRateSchedule rebuilt = schedule.rebuiltFrom(List.of(january, midMarch), midMarch.effectiveDate());
+
+        assertSame(february, rebuilt.periodsIn(YearMonth.of(2024, 2)));
+        assertEquals(2, rebuilt.periodsIn(YearMonth.of(2024, 3)).size());
+        assertEquals(14 * 200 + 17 * 350,
+                rebuilt.basisPointDays(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 1)));
+    }
+}
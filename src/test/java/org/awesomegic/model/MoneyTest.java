@@ -0,0 +1,43 @@
+package org.awesomegic.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("should parse amounts into cents rounding half up")
+    void shouldParseAmountsIntoCents() {
+        assertEquals(10000, Money.parse("100"));
+        assertEquals(12345, Money.parse("123.45"));
+        assertEquals(1, Money.parse("0.005"));
+    }
+
+    @Test
+    @DisplayName("should print cents with two decimal places")
+    void shouldPrintCentsWithTwoDecimalPlaces() {
+        assertEquals(new BigDecimal("123.45"), Money.toBigDecimal(12345));
+        assertEquals(new BigDecimal("0.00"), Money.toBigDecimal(0));
+    }
+
+    @Test
+    @DisplayName("should throw instead of overflowing")
+    void shouldThrowInsteadOfOverflowing() {
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.multiply(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.parse("100000000000000000000"));
+    }
+
+    @Test
+    @DisplayName("should divide rounding half away from zero")
+    void shouldDivideRoundingHalfUp() {
+        assertEquals(3, Money.divideHalfUp(5, 2));
+        assertEquals(2, Money.divideHalfUp(7, 4));
+        assertEquals(-3, Money.divideHalfUp(-5, 2));
+        assertEquals(1, Money.divideHalfUp(4, 3));
+    }
+}
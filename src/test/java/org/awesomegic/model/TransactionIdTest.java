@@ -0,0 +1,45 @@
+package org.awesomegic.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdTest {
+
+    private final LocalDate date = LocalDate.of(2023, 6, 26);
+
+    @Test
+    @DisplayName("should render the yyyyMMdd-NN format")
+    void shouldRenderTextFormat() {
+        assertEquals("20230626-01", TransactionId.format(TransactionId.of(date, 1)));
+        assertEquals("20230626-100", TransactionId.format(TransactionId.of(date, 100)));
+    }
+
+    @Test
+    @DisplayName("should parse the text format back to the same ID")
+    void shouldParseTextFormat() {
+        long id = TransactionId.of(date, 42);
+
+        assertEquals(id, TransactionId.parse("20230626-42"));
+        assertEquals(date, TransactionId.date(id));
+        assertEquals(42, TransactionId.sequence(id));
+    }
+
+    @Test
+    @DisplayName("should order IDs by date and then numerically by sequence")
+    void shouldOrderByDateThenSequence() {
+        assertTrue(TransactionId.of(date, 99) < TransactionId.of(date, 100));
+        assertTrue(TransactionId.of(date, TransactionId.MAX_SEQUENCE) < TransactionId.of(date.plusDays(1), 1));
+        assertTrue(TransactionId.of(LocalDate.of(1960, 1, 1), 5) < TransactionId.of(date, 1));
+    }
+
+    @Test
+    @DisplayName("should reject text that is not in yyyyMMdd-NN format")
+    void shouldRejectInvalidText() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionId.parse("TR-001"));
+        assertThrows(IllegalArgumentException.class, () -> TransactionId.parse("20231399-01"));
+    }
+}
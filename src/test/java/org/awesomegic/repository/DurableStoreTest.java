@@ -0,0 +1,186 @@
+package org.awesomegic.repository;
+
+import org.awesomegic.model.InterestRule;
+import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
+import org.awesomegic.repositoy.DurableStore;
+import org.awesomegic.repositoy.InterestRuleRepository;
+import org.awesomegic.repositoy.TransactionLog;
+import org.awesomegic.repositoy.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurableStoreTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    private final LocalDate date = LocalDate.of(2025, 1, 10);
+
+    private Transaction deposit(String accountNumber, int sequence, long amount) {
+        return new Transaction(TransactionId.of(date, sequence), date, accountNumber,
+                Transaction.TransactionType.DEPOSIT, amount, 0);
+    }
+
+    private List<String> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dataDirectory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    @Nested
+    @DisplayName("snapshot tests")
+    class SnapshotTests {
+
+        @Test
+        @DisplayName("should restore from the snapshot plus the log tail and drop the segments it covers")
+        void shouldRestoreFromSnapshotAndTail() throws IOException {
+            long tailSegment;
+            try (DurableStore store = DurableStore.open(dataDirectory, TransactionLog.Durability.SYNC_PER_BATCH, 128)) {
+                TransactionRepository repository = store.transactionRepository();
+                IntStream.rangeClosed(1, 10).forEach(i -> repository.save(deposit("ACC001", i, 100)));
+                repository.save(deposit("ACC002", 11, 5000));
+
+                tailSegment = store.snapshot();
+
+                repository.save(deposit("ACC001", 12, 250));
+                assertTrue(repository.deleteById(TransactionId.of(date, 11)));
+            }
+
+            assertEquals(1, files("snapshot-").size());
+            assertTrue(files("segment-").stream()
+                    .allMatch(name -> Long.parseLong(name.substring(8, 28)) >= tailSegment));
+
+            try (DurableStore store = DurableStore.open(dataDirectory, TransactionLog.Durability.SYNC_PER_BATCH, 128)) {
+                TransactionRepository repository = store.transactionRepository();
+                assertEquals(1250, repository.findBalanceAsOf("ACC001", date));
+                assertEquals(1250, repository.findByAccountNumber("ACC001").get(10).balance());
+                assertTrue(repository.findByAccountNumber("ACC002").isEmpty());
+            }
+        }
+
+        @Test
+        @DisplayName("should not forget the last sequence of a deleted transaction across snapshots and restarts")
+        void shouldKeepLastSequenceOfDeletedTransaction() {
+            try (DurableStore store = DurableStore.open(dataDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                TransactionRepository repository = store.transactionRepository();
+                IntStream.rangeClosed(1, 3).forEach(i -> repository.save(deposit("ACC001", i, 100)));
+                repository.save(deposit("ACC002", 4, 100));
+                assertTrue(repository.deleteById(TransactionId.of(date, 4)));
+                store.snapshot();
+            }
+
+            try (DurableStore store = DurableStore.open(dataDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                TransactionRepository repository = store.transactionRepository();
+                assertEquals(4, repository.findLastSequence(date));
+                assertEquals(0, repository.findLastSequence(date.plusDays(1)));
+                assertEquals(List.of("ACC001"), repository.findAccountNumbers());
+                assertEquals(300, repository.findBalanceAsOf("ACC001", LocalDate.MAX));
+            }
+        }
+
+        @Test
+        @DisplayName("should remember which months have interest posted across restarts")
+        void shouldKeepInterestMonths() {
+            LocalDate january = LocalDate.of(2025, 1, 31);
+            LocalDate february = LocalDate.of(2025, 2, 28);
+            try (DurableStore store = DurableStore.open(dataDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                TransactionRepository repository = store.transactionRepository();
+                repository.save(deposit("ACC001", 1, 10000));
+                repository.save(new Transaction(TransactionId.of(january, 1), january, "ACC001",
+                        Transaction.TransactionType.INTEREST, 16, 0));
+                store.snapshot();
+                repository.save(new Transaction(TransactionId.of(february, 1), february, "ACC001",
+                        Transaction.TransactionType.INTEREST, 15, 0));
+            }
+
+            try (DurableStore store = DurableStore.open(dataDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                assertEquals(List.of(YearMonth.of(2025, 1), YearMonth.of(2025, 2)),
+                        List.copyOf(store.transactionRepository().findInterestMonths()));
+            }
+        }
+
+        @Test
+        @DisplayName("should keep the rule timeline across snapshots and restarts")
+        void shouldKeepRuleTimeline() {
+            InterestRule first = new InterestRule(LocalDate.of(2025, 1, 1), "RULE01", new BigDecimal("1.95"));
+            InterestRule second = new InterestRule(LocalDate.of(2025, 6, 1), "RULE02", new BigDecimal("2.20"));
+            InterestRule moved = new InterestRule(LocalDate.of(2025, 7, 1), "RULE02", new BigDecimal("2.25"));
+
+            try (DurableStore store = DurableStore.open(dataDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                InterestRuleRepository rules = store.interestRuleRepository();
+                rules.save(first);
+                rules.save(second);
+                store.snapshot();
+                rules.save(moved);
+            }
+
+            try (DurableStore store = DurableStore.open(dataDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                assertEquals(List.of(first, moved), store.interestRuleRepository().findAll());
+            }
+        }
+
+        @Test
+        @DisplayName("should not lose postings made while snapshots are being taken")
+        void shouldKeepPostingsDuringSnapshots() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try (DurableStore store = DurableStore.open(dataDirectory, TransactionLog.Durability.OS_BUFFERED, 4096)) {
+                TransactionRepository repository = store.transactionRepository();
+                List<Future<Transaction>> saves = IntStream.rangeClosed(1, 2000)
+                        .mapToObj(i -> executor.submit(() -> repository.save(deposit("ACC00" + i % 4, i, 1))))
+                        .toList();
+                for (int i = 0; i < 5; i++) {
+                    store.snapshot();
+                }
+                for (Future<Transaction> save : saves) {
+                    save.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            try (DurableStore store = DurableStore.open(dataDirectory, TransactionLog.Durability.OS_BUFFERED, 4096)) {
+                TransactionRepository repository = store.transactionRepository();
+                assertEquals(2000, repository.findAll().size());
+                assertEquals(500, repository.findBalanceAsOf("ACC001", date));
+            }
+        }
+
+        @Test
+        @DisplayName("should refuse to open with a corrupt snapshot")
+        void shouldRefuseCorruptSnapshot() throws IOException {
+            try (DurableStore store = DurableStore.open(dataDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                store.transactionRepository().save(deposit("ACC001", 1, 100));
+                store.snapshot();
+            }
+            Path snapshot = dataDirectory.resolve(files("snapshot-").get(0));
+            byte[] bytes = Files.readAllBytes(snapshot);
+            bytes[bytes.length / 2] ^= 0x7f;
+            Files.write(snapshot, bytes);
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                    DurableStore.open(dataDirectory, TransactionLog.Durability.SYNC_PER_BATCH));
+            assertTrue(exception.getMessage().contains("fails its checksum"));
+        }
+    }
+}
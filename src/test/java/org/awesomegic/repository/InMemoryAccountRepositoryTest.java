@@ -10,7 +10,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -29,8 +28,8 @@ class InMemoryAccountRepositoryTest {
     void setUp() {
         repository = new InMemoryAccountRepository();
 
-        testAccount1 = new Account("ACC-001", BigDecimal.ZERO,LocalDate.now());
-        testAccount2 = new Account("ACC-002", BigDecimal.ZERO,LocalDate.now());
+        testAccount1 = new Account("ACC-001", 0, LocalDate.now());
+        testAccount2 = new Account("ACC-002", 0, LocalDate.now());
     }
 
 
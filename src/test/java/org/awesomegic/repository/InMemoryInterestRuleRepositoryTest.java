@@ -63,6 +63,30 @@ class InMemoryInterestRuleRepositoryTest {
             assertEquals(rule1, updatedRule, "The returned rule should be the updated one");
             assertEquals(1, repository.findAll().size(), "There should still be only one rule");
         }
+
+        @Test
+        @DisplayName("should replace a rule with the same effective date")
+        void shouldReplaceRuleWithSameEffectiveDate() {
+            repository.save(rule1);
+            InterestRule replacement = new InterestRule(date1, "RULE-NEW", BigDecimal.TEN);
+
+            repository.save(replacement);
+
+            assertEquals(List.of(replacement), repository.findAll(), "Only the replacement rule should remain");
+            assertTrue(repository.findById("RULE-001").isEmpty(), "The replaced rule should no longer be found by ID");
+        }
+
+        @Test
+        @DisplayName("should move a rule when it is saved again with a new effective date")
+        void shouldMoveRuleWhenEffectiveDateChanges() {
+            repository.save(rule1);
+            InterestRule moved = new InterestRule(date2, "RULE-001", BigDecimal.TEN);
+
+            repository.save(moved);
+
+            assertEquals(List.of(moved), repository.findAll(), "The rule should only appear at its new date");
+            assertTrue(repository.findByEffectiveDate(date1).isEmpty(), "The old date should be free");
+        }
     }
 
     @Nested
@@ -187,4 +211,42 @@ class InMemoryInterestRuleRepositoryTest {
             assertEquals(rule2, result.get(), "Should return the rule with the matching date");
         }
     }
+
+    @Nested
+    @DisplayName("findRulesInEffectBetween method tests")
+    class FindRulesInEffectBetweenTests {
+
+        @Test
+        @DisplayName("should return the starting rule followed by rules taking effect in the range")
+        void shouldReturnStartingRuleAndRulesInRange() {
+            repository.save(rule1);
+            repository.save(rule2);
+            repository.save(rule3);
+
+            List<InterestRule> result = repository.findRulesInEffectBetween(LocalDate.of(2025, 3, 1), date3);
+
+            assertEquals(List.of(rule1, rule2, rule3), result, "Should include the rule in effect at the start");
+        }
+
+        @Test
+        @DisplayName("should not repeat a rule that takes effect on the start date")
+        void shouldNotRepeatRuleOnStartDate() {
+            repository.save(rule1);
+            repository.save(rule2);
+
+            List<InterestRule> result = repository.findRulesInEffectBetween(date2, date3);
+
+            assertEquals(List.of(rule2), result, "The rule effective on the start date should appear once");
+        }
+
+        @Test
+        @DisplayName("should return only rules in range when no rule is in effect at the start")
+        void shouldReturnRulesInRangeWhenNoStartingRule() {
+            repository.save(rule2);
+
+            List<InterestRule> result = repository.findRulesInEffectBetween(date1, date3);
+
+            assertEquals(List.of(rule2), result, "Should return the rule that takes effect within the range");
+        }
+    }
 }
@@ -1,7 +1,12 @@
 package org.awesomegic.repository;
 
+import org.awesomegic.model.BalanceCheckpoint;
+import org.awesomegic.model.InterestAccrual;
+import org.awesomegic.model.LedgerMonth;
 import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
 import org.awesomegic.repositoy.InMemoryTransactionRepository;
+import org.awesomegic.util.AccountNumberDictionary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -9,8 +14,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,14 +35,20 @@ class InMemoryTransactionRepositoryTest {
     private final LocalDate date3 = LocalDate.of(2025, 3, 25);
     private final String accountNumber1 = "ACC-001";
     private final String accountNumber2 = "ACC-002";
+    private final long id1 = TransactionId.of(date1, 1);
+    private final long id2 = TransactionId.of(date2, 1);
+    private final long id3 = TransactionId.of(date3, 1);
+    private final long id4 = TransactionId.of(date1, 4);
+    private final long id5 = TransactionId.of(date1, 5);
+    private final long missingId = TransactionId.of(date1, 99);
 
     @BeforeEach
     void setUp() {
         repository = new InMemoryTransactionRepository();
 
-        transaction1 = new Transaction("TR-001", date1, accountNumber1, Transaction.TransactionType.DEPOSIT, BigDecimal.valueOf(100.0), BigDecimal.valueOf(100.0));
-        transaction2 = new Transaction("TR-002", date2, accountNumber1, Transaction.TransactionType.WITHDRAWAL, BigDecimal.valueOf(50.0), BigDecimal.valueOf(50.0));
-        transaction3 = new Transaction("TR-003", date3, accountNumber2, Transaction.TransactionType.DEPOSIT, BigDecimal.valueOf(200.0), BigDecimal.valueOf(200.0));
+        transaction1 = new Transaction(id1, date1, accountNumber1, Transaction.TransactionType.DEPOSIT, 10000, 10000);
+        transaction2 = new Transaction(id2, date2, accountNumber1, Transaction.TransactionType.WITHDRAWAL, 5000, 5000);
+        transaction3 = new Transaction(id3, date3, accountNumber2, Transaction.TransactionType.DEPOSIT, 20000, 20000);
     }
 
 
@@ -46,25 +57,29 @@ class InMemoryTransactionRepositoryTest {
     @DisplayName("save method tests")
     class SaveTests {
         @Test
-        @DisplayName("should throw exception when transaction has empty ID")
-        void shouldThrowExceptionWhenTransactionHasNoId() {
-            assertThrows(IllegalArgumentException.class, () -> {
-                new Transaction("", date1, accountNumber1,
-                        Transaction.TransactionType.DEPOSIT,
-                        BigDecimal.valueOf(100.0),
-                        BigDecimal.valueOf(100.0));
-            }, "Should throw exception when transaction has empty ID");
+        @DisplayName("should store one shared copy of each account number, numbered by the dictionary")
+        void shouldShareAccountNumberCopies() {
+            AccountNumberDictionary accountNumbers = new AccountNumberDictionary();
+            repository = new InMemoryTransactionRepository(accountNumbers);
+
+            repository.save(transaction1);
+            Transaction second = repository.save(new Transaction(id2, date2, new String(accountNumber1),
+                    Transaction.TransactionType.DEPOSIT, 500, 0));
+
+            assertSame(repository.findById(id1).orElseThrow().accountNumber(), second.accountNumber());
+            assertEquals(0, accountNumbers.find(accountNumber1));
+            assertEquals(10500, repository.findBalanceAsOf(accountNumber1, date2));
         }
 
         @Test
-        @DisplayName("should throw exception when transaction has null ID")
-        void shouldThrowExceptionWhenTransactionHasNullId() {
+        @DisplayName("should throw exception when transaction ID has no sequence")
+        void shouldThrowExceptionWhenTransactionHasNoId() {
             assertThrows(IllegalArgumentException.class, () -> {
-                new Transaction(null, date1, accountNumber1,
+                new Transaction(TransactionId.first(date1), date1, accountNumber1,
                         Transaction.TransactionType.DEPOSIT,
-                        BigDecimal.valueOf(100.0),
-                        BigDecimal.valueOf(100.0));
-            }, "Should throw exception when transaction has null ID");
+                        10000,
+                        10000);
+            }, "Should throw exception when transaction ID has no sequence");
         }
 
         @Test
@@ -80,7 +95,7 @@ class InMemoryTransactionRepositoryTest {
             assertEquals(transaction1.amount(), savedTransaction.amount(), "Amounts should match");
             assertEquals(transaction1.balance(), savedTransaction.balance(), "Balances should match");
 
-            assertTrue(repository.findById("TR-001").isPresent(), "Transaction should be retrievable after saving");
+            assertTrue(repository.findById(id1).isPresent(), "Transaction should be retrievable after saving");
         }
     }
 
@@ -91,7 +106,7 @@ class InMemoryTransactionRepositoryTest {
         @Test
         @DisplayName("should return empty when transaction doesn't exist")
         void shouldReturnEmptyWhenTransactionDoesNotExist() {
-            Optional<Transaction> result = repository.findById("NOT THERE");
+            Optional<Transaction> result = repository.findById(missingId);
 
             assertTrue(result.isEmpty(), "Should return empty Optional for non-existent transaction ID");
         }
@@ -101,10 +116,10 @@ class InMemoryTransactionRepositoryTest {
         void shouldFindTransactionByIdWhenItExists() {
             repository.save(transaction1);
 
-            Optional<Transaction> result = repository.findById("TR-001");
+            Optional<Transaction> result = repository.findById(id1);
 
             assertTrue(result.isPresent(), "Should find the transaction");
-            assertEquals("TR-001", result.get().id(), "Should return transaction with correct ID");
+            assertEquals(id1, result.get().id(), "Should return transaction with correct ID");
             assertEquals(date1, result.get().date(), "Should return transaction with correct date");
             assertEquals(accountNumber1, result.get().accountNumber(), "Should return transaction with correct account number");
         }
@@ -132,9 +147,9 @@ class InMemoryTransactionRepositoryTest {
             List<Transaction> transactions = repository.findAll();
 
             assertEquals(3, transactions.size(), "Should return all transactions");
-            assertTrue(transactions.stream().anyMatch(t -> t.id().equals("TR-001")), "Should contain first transaction");
-            assertTrue(transactions.stream().anyMatch(t -> t.id().equals("TR-002")), "Should contain second transaction");
-            assertTrue(transactions.stream().anyMatch(t -> t.id().equals("TR-003")), "Should contain third transaction");
+            assertTrue(transactions.stream().anyMatch(t -> t.id() == id1), "Should contain first transaction");
+            assertTrue(transactions.stream().anyMatch(t -> t.id() == id2), "Should contain second transaction");
+            assertTrue(transactions.stream().anyMatch(t -> t.id() == id3), "Should contain third transaction");
         }
     }
 
@@ -145,7 +160,7 @@ class InMemoryTransactionRepositoryTest {
         @Test
         @DisplayName("should return false when transaction doesn't exist")
         void shouldReturnFalseWhenTransactionDoesNotExist() {
-            boolean result = repository.deleteById("NOT THERE");
+            boolean result = repository.deleteById(missingId);
 
             assertFalse(result, "Should return false when trying to delete non-existent transaction");
         }
@@ -155,10 +170,10 @@ class InMemoryTransactionRepositoryTest {
         void shouldDeleteTransactionAndReturnTrue() {
             repository.save(transaction1);
 
-            boolean result = repository.deleteById("TR-001");
+            boolean result = repository.deleteById(id1);
 
             assertTrue(result, "Should return true when transaction is deleted");
-            assertTrue(repository.findById("TR-001").isEmpty(), "Transaction should no longer exist");
+            assertTrue(repository.findById(id1).isEmpty(), "Transaction should no longer exist");
         }
     }
 
@@ -186,8 +201,34 @@ class InMemoryTransactionRepositoryTest {
             assertEquals(2, transactions.size(), "Should return only transactions for the specified account");
             assertTrue(transactions.stream().allMatch(t -> t.accountNumber().equals(accountNumber1)),
                     "All transactions should be for the specified account");
-            assertTrue(transactions.stream().anyMatch(t -> t.id().equals("TR-001")), "Should contain first transaction");
-            assertTrue(transactions.stream().anyMatch(t -> t.id().equals("TR-002")), "Should contain second transaction");
+            assertTrue(transactions.stream().anyMatch(t -> t.id() == id1), "Should contain first transaction");
+            assertTrue(transactions.stream().anyMatch(t -> t.id() == id2), "Should contain second transaction");
+        }
+
+        @Test
+        @DisplayName("should not return transactions that have been deleted")
+        void shouldNotReturnDeletedTransactions() {
+            repository.save(transaction1);
+            repository.save(transaction2);
+
+            repository.deleteById(id1);
+
+            List<Transaction> transactions = repository.findByAccountNumber(accountNumber1);
+
+            assertEquals(1, transactions.size(), "Deleted transaction should be removed from the account index");
+            assertEquals(id2, transactions.get(0).id(), "Should contain remaining transaction");
+        }
+
+        @Test
+        @DisplayName("should move transaction to new account when saved again under a different account")
+        void shouldMoveTransactionWhenAccountChanges() {
+            repository.save(transaction1);
+
+            Transaction moved = new Transaction(id1, date1, accountNumber2, Transaction.TransactionType.DEPOSIT, 10000, 10000);
+            repository.save(moved);
+
+            assertTrue(repository.findByAccountNumber(accountNumber1).isEmpty(), "Old account should no longer list the transaction");
+            assertEquals(1, repository.findByAccountNumber(accountNumber2).size(), "New account should list the transaction");
         }
     }
 
@@ -227,8 +268,23 @@ class InMemoryTransactionRepositoryTest {
                     date1.minusDays(5), date2.plusDays(5));
 
             assertEquals(2, result.size(), "Should return two transactions");
-            assertEquals("TR-001", result.get(0).id(), "First transaction should be the earliest one");
-            assertEquals("TR-002", result.get(1).id(), "Second transaction should be the later one");
+            assertEquals(id1, result.get(0).id(), "First transaction should be the earliest one");
+            assertEquals(id2, result.get(1).id(), "Second transaction should be the later one");
+        }
+
+        @Test
+        @DisplayName("should return transactions ordered by date and then by ID")
+        void shouldReturnTransactionsOrderedByDateAndId() {
+            Transaction sameDayLater = new Transaction(id5, date1, accountNumber1, Transaction.TransactionType.DEPOSIT, 1000, 11000);
+            repository.save(transaction2);
+            repository.save(sameDayLater);
+            repository.save(transaction1);
+
+            List<Transaction> result = repository.findByAccountNumberAndDateRange(accountNumber1,
+                    LocalDate.MIN, date3);
+
+            assertEquals(List.of(id1, id5, id2), result.stream().map(Transaction::id).toList(),
+                    "Transactions should be ordered by date, then by ID");
         }
 
         @Test
@@ -240,7 +296,7 @@ class InMemoryTransactionRepositoryTest {
                     date1, date1);
 
             assertEquals(1, result.size(), "Should include the transaction with exactly matching date");
-            assertEquals("TR-001", result.get(0).id(), "Should return the correct transaction");
+            assertEquals(id1, result.get(0).id(), "Should return the correct transaction");
         }
     }
 
@@ -264,7 +320,7 @@ class InMemoryTransactionRepositoryTest {
             repository.save(transaction1);
             repository.save(transaction2);
 
-            Transaction transaction4 = new Transaction("TR-004", date1, accountNumber1, Transaction.TransactionType.DEPOSIT, BigDecimal.valueOf(100.0), BigDecimal.valueOf(100.0));
+            Transaction transaction4 = new Transaction(id4, date1, accountNumber1, Transaction.TransactionType.DEPOSIT, 10000, 10000);
             repository.save(transaction4);
 
             List<Transaction> result = repository.findTransactionsByDate(date1);
@@ -272,10 +328,318 @@ class InMemoryTransactionRepositoryTest {
             assertEquals(2, result.size(), "Should return two transactions");
             assertTrue(result.stream().allMatch(t -> t.date().equals(date1)),
                     "All transactions should have the specified date");
-            assertTrue(result.stream().anyMatch(t -> t.id().equals("TR-001")),
+            assertTrue(result.stream().anyMatch(t -> t.id() == id1),
                     "Should include first transaction");
-            assertTrue(result.stream().anyMatch(t -> t.id().equals("TR-004")),
+            assertTrue(result.stream().anyMatch(t -> t.id() == id4),
                     "Should include other transaction with same date");
         }
     }
+
+    @Nested
+    @DisplayName("findBalanceCheckpoint method tests")
+    class FindBalanceCheckpointTests {
+
+        @Test
+        @DisplayName("should return zero checkpoint for unknown account or month before first transaction")
+        void shouldReturnZeroWhenNothingPosted() {
+            repository.save(transaction1);
+
+            assertEquals(BalanceCheckpoint.ZERO, repository.findBalanceCheckpoint(accountNumber2, YearMonth.of(2025, 1)));
+            assertEquals(BalanceCheckpoint.ZERO, repository.findBalanceCheckpoint(accountNumber1, YearMonth.of(2024, 12)));
+        }
+
+        @Test
+        @DisplayName("should carry month-end balance forward into months without activity")
+        void shouldCarryBalanceForward() {
+            repository.save(transaction1);
+            repository.save(transaction2);
+
+            assertEquals(new BalanceCheckpoint(10000, 0), repository.findBalanceCheckpoint(accountNumber1, YearMonth.of(2025, 1)));
+            assertEquals(new BalanceCheckpoint(5000, 0), repository.findBalanceCheckpoint(accountNumber1, YearMonth.of(2025, 2)));
+            assertEquals(new BalanceCheckpoint(5000, 0), repository.findBalanceCheckpoint(accountNumber1, YearMonth.of(2025, 6)));
+        }
+
+        @Test
+        @DisplayName("should update later checkpoints when a transaction is back-dated")
+        void shouldUpdateLaterCheckpointsForBackDatedTransaction() {
+            repository.save(transaction2);
+            repository.save(transaction1);
+
+            assertEquals(new BalanceCheckpoint(10000, 0), repository.findBalanceCheckpoint(accountNumber1, YearMonth.of(2025, 1)));
+            assertEquals(new BalanceCheckpoint(5000, 0), repository.findBalanceCheckpoint(accountNumber1, YearMonth.of(2025, 2)));
+        }
+
+        @Test
+        @DisplayName("should track interest separately and reverse it when deleted")
+        void shouldTrackInterestCredited() {
+            LocalDate monthEnd = LocalDate.of(2025, 1, 31);
+            long interestId = TransactionId.of(monthEnd, 1);
+            repository.save(transaction1);
+            repository.save(new Transaction(interestId, monthEnd, accountNumber1, Transaction.TransactionType.INTEREST, 25, 10025));
+            repository.save(transaction2);
+
+            BalanceCheckpoint february = repository.findBalanceCheckpoint(accountNumber1, YearMonth.of(2025, 2));
+            assertEquals(new BalanceCheckpoint(5025, 25), february);
+            assertEquals(5000, february.balanceExcludingInterest());
+
+            repository.deleteById(interestId);
+
+            assertEquals(new BalanceCheckpoint(5000, 0), repository.findBalanceCheckpoint(accountNumber1, YearMonth.of(2025, 2)));
+        }
+
+        @Test
+        @DisplayName("should move checkpoints when a transaction is re-saved with a different amount")
+        void shouldReplaceCheckpointContributionOnResave() {
+            repository.save(transaction1);
+            repository.save(new Transaction(id1, date1, accountNumber1, Transaction.TransactionType.DEPOSIT, 30000, 30000));
+
+            assertEquals(new BalanceCheckpoint(30000, 0), repository.findBalanceCheckpoint(accountNumber1, YearMonth.of(2025, 3)));
+        }
+    }
+
+    @Nested
+    @DisplayName("findBalanceAsOf method tests")
+    class FindBalanceAsOfTests {
+
+        @Test
+        @DisplayName("should return zero before the first transaction and for unknown accounts")
+        void shouldReturnZeroBeforeFirstTransaction() {
+            repository.save(transaction1);
+
+            assertEquals(0, repository.findBalanceAsOf(accountNumber1, date1.minusDays(1)));
+            assertEquals(0, repository.findBalanceAsOf(accountNumber2, date3));
+        }
+
+        @Test
+        @DisplayName("should include every transaction up to and including the date")
+        void shouldIncludeTransactionsOnOrBeforeDate() {
+            repository.save(transaction1);
+            repository.save(transaction2);
+
+            assertEquals(10000, repository.findBalanceAsOf(accountNumber1, date1));
+            assertEquals(10000, repository.findBalanceAsOf(accountNumber1, date2.minusDays(1)));
+            assertEquals(5000, repository.findBalanceAsOf(accountNumber1, date2));
+            assertEquals(5000, repository.findBalanceAsOf(accountNumber1, LocalDate.of(2030, 1, 1)));
+        }
+
+        @Test
+        @DisplayName("should stay correct when transactions are back-dated far into the past and future")
+        void shouldHandleBackDatedAndFarFutureTransactions() {
+            LocalDate past = date1.minusYears(3);
+            LocalDate future = date1.plusYears(2);
+            repository.save(transaction1);
+            repository.save(new Transaction(TransactionId.of(future, 1), future, accountNumber1, Transaction.TransactionType.DEPOSIT, 700, 0));
+            repository.save(new Transaction(TransactionId.of(past, 1), past, accountNumber1, Transaction.TransactionType.DEPOSIT, 300, 0));
+
+            assertEquals(300, repository.findBalanceAsOf(accountNumber1, past));
+            assertEquals(10300, repository.findBalanceAsOf(accountNumber1, date1));
+            assertEquals(10300, repository.findBalanceAsOf(accountNumber1, future.minusDays(1)));
+            assertEquals(11000, repository.findBalanceAsOf(accountNumber1, future));
+        }
+
+        @Test
+        @DisplayName("should drop deleted transactions from later balances")
+        void shouldReverseDeletedTransactions() {
+            repository.save(transaction1);
+            repository.save(transaction2);
+
+            repository.deleteById(id1);
+
+            assertEquals(0, repository.findBalanceAsOf(accountNumber1, date1));
+            assertEquals(-5000, repository.findBalanceAsOf(accountNumber1, date2));
+        }
+    }
+
+    @Nested
+    @DisplayName("findInterestMonths method tests")
+    class FindInterestMonthsTests {
+
+        @Test
+        @DisplayName("should list a month while any interest posting in it remains")
+        void shouldTrackMonthsWithInterestPostings() {
+            LocalDate monthEnd = date1.withDayOfMonth(31);
+            Transaction interest1 = new Transaction(TransactionId.of(monthEnd, 1), monthEnd, accountNumber1, Transaction.TransactionType.INTEREST, 10, 0);
+            Transaction interest2 = new Transaction(TransactionId.of(monthEnd, 2), monthEnd, accountNumber2, Transaction.TransactionType.INTEREST, 20, 0);
+            repository.save(transaction1);
+            repository.save(interest1);
+            repository.save(interest2);
+            repository.save(interest1);
+
+            assertEquals(List.of(YearMonth.from(date1)), List.copyOf(repository.findInterestMonths()));
+
+            repository.deleteById(interest1.id());
+            assertEquals(List.of(YearMonth.from(date1)), List.copyOf(repository.findInterestMonths()));
+
+            repository.deleteById(interest2.id());
+            assertTrue(repository.findInterestMonths().isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("hasTransactions method tests")
+    class HasTransactionsTests {
+
+        @Test
+        @DisplayName("should report whether the account currently has any transaction")
+        void shouldReportWhetherAccountHasTransactions() {
+            assertFalse(repository.hasTransactions(accountNumber1));
+
+            repository.save(transaction1);
+            assertTrue(repository.hasTransactions(accountNumber1));
+            assertFalse(repository.hasTransactions(accountNumber2));
+
+            repository.deleteById(transaction1.id());
+            assertFalse(repository.hasTransactions(accountNumber1));
+        }
+    }
+
+    @Nested
+    @DisplayName("findLowestBalanceFrom method tests")
+    class FindLowestBalanceFromTests {
+
+        @Test
+        @DisplayName("should take the lowest of the balance on the date and every later balance")
+        void shouldTakeLowestBalanceFromDateOnwards() {
+            LocalDate first = LocalDate.of(2025, 1, 1);
+            LocalDate withdrawn = LocalDate.of(2025, 1, 10);
+            LocalDate refilled = LocalDate.of(2025, 1, 20);
+            repository.save(new Transaction(TransactionId.of(first, 1), first, accountNumber1, Transaction.TransactionType.DEPOSIT, 10000, 0));
+            repository.save(new Transaction(TransactionId.of(withdrawn, 1), withdrawn, accountNumber1, Transaction.TransactionType.WITHDRAWAL, 9000, 0));
+            repository.save(new Transaction(TransactionId.of(refilled, 1), refilled, accountNumber1, Transaction.TransactionType.DEPOSIT, 10000, 0));
+
+            assertEquals(10000, repository.findBalanceAsOf(accountNumber1, LocalDate.of(2025, 1, 5)));
+            assertEquals(1000, repository.findLowestBalanceFrom(accountNumber1, LocalDate.of(2025, 1, 5)));
+            assertEquals(1000, repository.findLowestBalanceFrom(accountNumber1, withdrawn));
+            assertEquals(11000, repository.findLowestBalanceFrom(accountNumber1, refilled));
+            assertEquals(0, repository.findLowestBalanceFrom(accountNumber1, first.minusDays(1)));
+            assertEquals(0, repository.findLowestBalanceFrom(accountNumber2, first));
+        }
+    }
+
+    @Nested
+    @DisplayName("running balance tests")
+    class RunningBalanceTests {
+
+        @Test
+        @DisplayName("should stamp running balance from the preceding transaction")
+        void shouldStampRunningBalance() {
+            repository.save(transaction1);
+            Transaction saved = repository.save(new Transaction(id2, date2, accountNumber1, Transaction.TransactionType.WITHDRAWAL, 4000, 0));
+
+            assertEquals(6000, saved.balance());
+            assertEquals(6000, repository.findById(id2).orElseThrow().balance());
+        }
+
+        @Test
+        @DisplayName("should shift later balances when a transaction is back-dated")
+        void shouldShiftLaterBalancesForBackDatedTransaction() {
+            repository.save(transaction1);
+            repository.save(transaction2);
+
+            LocalDate backDate = date1.plusDays(1);
+            long backDatedId = TransactionId.of(backDate, 1);
+            Transaction saved = repository.save(new Transaction(backDatedId, backDate, accountNumber1, Transaction.TransactionType.DEPOSIT, 2500, 0));
+
+            assertEquals(12500, saved.balance());
+            assertEquals(7500, repository.findById(id2).orElseThrow().balance());
+            assertEquals(List.of(10000L, 12500L, 7500L),
+                    repository.findByAccountNumber(accountNumber1).stream().map(Transaction::balance).toList());
+        }
+
+        @Test
+        @DisplayName("should order same-day postings by ID when stamping balances")
+        void shouldStampSameDayPostingsInIdOrder() {
+            repository.save(new Transaction(id5, date1, accountNumber1, Transaction.TransactionType.DEPOSIT, 500, 0));
+            repository.save(new Transaction(id4, date1, accountNumber1, Transaction.TransactionType.DEPOSIT, 300, 0));
+
+            assertEquals(300, repository.findById(id4).orElseThrow().balance());
+            assertEquals(800, repository.findById(id5).orElseThrow().balance());
+        }
+
+        @Test
+        @DisplayName("should shift later balances back when a transaction is deleted")
+        void shouldShiftLaterBalancesOnDelete() {
+            repository.save(transaction1);
+            repository.save(transaction2);
+
+            repository.deleteById(id1);
+
+            assertEquals(-5000, repository.findById(id2).orElseThrow().balance());
+            assertEquals(-5000, repository.findByAccountNumber(accountNumber1).get(0).balance());
+        }
+    }
+
+    @Nested
+    @DisplayName("findLedgerMonth method tests")
+    class FindLedgerMonthTests {
+
+        @Test
+        @DisplayName("should return the month's transactions with the previous month-end as opening position")
+        void shouldReturnMonthWithOpeningPosition() {
+            repository.save(transaction1);
+            repository.save(transaction2);
+
+            LedgerMonth february = repository.findLedgerMonth(accountNumber1, YearMonth.of(2025, 2));
+
+            assertEquals(new BalanceCheckpoint(10000, 0), february.opening());
+            assertEquals(List.of(id2), february.transactions().stream().map(Transaction::id).toList());
+        }
+
+        @Test
+        @DisplayName("should keep the month's interest accrual in step with back-dated postings and removals")
+        void shouldKeepAccrualInStepWithWrites() {
+            LocalDate lateFebruary = LocalDate.of(2025, 2, 28);
+            Transaction backDated = new Transaction(TransactionId.of(lateFebruary, 1), lateFebruary, accountNumber1, Transaction.TransactionType.DEPOSIT, 700, 0);
+            repository.save(transaction2);
+            repository.save(backDated);
+            repository.save(transaction1);
+            repository.deleteById(backDated.id());
+
+            LedgerMonth february = repository.findLedgerMonth(accountNumber1, YearMonth.of(2025, 2));
+
+            assertEquals(InterestAccrual.of(YearMonth.of(2025, 2), february.transactions()), february.accrual());
+        }
+
+        @Test
+        @DisplayName("should return an empty month for an unknown account")
+        void shouldReturnEmptyMonthForUnknownAccount() {
+            LedgerMonth month = repository.findLedgerMonth(accountNumber2, YearMonth.of(2025, 2));
+
+            assertEquals(BalanceCheckpoint.ZERO, month.opening());
+            assertTrue(month.transactions().isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("findLedgerRevision method tests")
+    class FindLedgerRevisionTests {
+
+        @Test
+        @DisplayName("should change for the posting month and later months only")
+        void shouldChangeForPostingMonthAndLaterOnly() {
+            repository.save(transaction1);
+            repository.save(transaction2);
+            long january = repository.findLedgerRevision(accountNumber1, YearMonth.of(2025, 1));
+            long february = repository.findLedgerRevision(accountNumber1, YearMonth.of(2025, 2));
+
+            LocalDate lateFebruary = LocalDate.of(2025, 2, 28);
+            repository.save(new Transaction(TransactionId.of(lateFebruary, 1), lateFebruary, accountNumber1, Transaction.TransactionType.DEPOSIT, 100, 0));
+
+            assertEquals(january, repository.findLedgerRevision(accountNumber1, YearMonth.of(2025, 1)));
+            assertNotEquals(february, repository.findLedgerRevision(accountNumber1, YearMonth.of(2025, 2)));
+            assertNotEquals(february, repository.findLedgerRevision(accountNumber1, YearMonth.of(2025, 6)));
+        }
+
+        @Test
+        @DisplayName("should not repeat a revision after an account's ledger is emptied and reused")
+        void shouldNotRepeatRevisionAfterLedgerRecreated() {
+            repository.save(transaction1);
+            long before = repository.findLedgerRevision(accountNumber1, YearMonth.of(2025, 1));
+
+            repository.deleteById(id1);
+            repository.save(transaction1);
+
+            assertNotEquals(before, repository.findLedgerRevision(accountNumber1, YearMonth.of(2025, 1)));
+        }
+    }
 }
@@ -0,0 +1,204 @@
+package org.awesomegic.repository;
+
+import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
+import org.awesomegic.repositoy.DurableStore;
+import org.awesomegic.repositoy.TransactionLog;
+import org.awesomegic.repositoy.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggedTransactionRepositoryTest {
+
+    @TempDir
+    Path logDirectory;
+
+    private final LocalDate date = LocalDate.of(2025, 1, 10);
+
+    private Transaction deposit(int sequence, long amount) {
+        return new Transaction(TransactionId.of(date, sequence), date, "ACC001",
+                Transaction.TransactionType.DEPOSIT, amount, 0);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Nested
+    @DisplayName("replay tests")
+    class ReplayTests {
+
+        @Test
+        @DisplayName("should rebuild the ledger with running balances after reopening in every durability mode")
+        void shouldRebuildLedgerAfterReopening() {
+            for (TransactionLog.Durability durability : TransactionLog.Durability.values()) {
+                Path directory = logDirectory.resolve(durability.name());
+                try (DurableStore store = DurableStore.open(directory, durability)) {
+                    TransactionRepository repository = store.transactionRepository();
+                    repository.save(deposit(1, 10000));
+                    repository.save(deposit(2, 5000));
+                    repository.save(deposit(3, 700));
+                    assertTrue(repository.deleteById(TransactionId.of(date, 2)));
+                }
+
+                try (DurableStore reopenedStore = DurableStore.open(directory, durability)) {
+                    TransactionRepository reopened = reopenedStore.transactionRepository();
+                    assertEquals(List.of(10000L, 10700L), reopened.findByAccountNumber("ACC001").stream()
+                            .map(Transaction::balance).toList());
+                    assertEquals(10700, reopened.findBalanceAsOf("ACC001", date));
+                    assertTrue(reopened.findById(TransactionId.of(date, 2)).isEmpty());
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should not log a delete of an unknown transaction")
+        void shouldNotLogUnknownDelete() throws IOException {
+            try (DurableStore store = DurableStore.open(logDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                TransactionRepository repository = store.transactionRepository();
+                assertFalse(repository.deleteById(TransactionId.of(date, 9)));
+            }
+
+            assertEquals(0, Files.size(segments().get(0)));
+        }
+
+        @Test
+        @DisplayName("should discard a torn record at the end of the log and keep appending after it")
+        void shouldDiscardTornTail() throws IOException {
+            try (DurableStore store = DurableStore.open(logDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                TransactionRepository repository = store.transactionRepository();
+                repository.save(deposit(1, 10000));
+                repository.save(deposit(2, 5000));
+            }
+            Path segment = segments().get(0);
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 3);
+            }
+
+            try (DurableStore reopenedStore = DurableStore.open(logDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                TransactionRepository reopened = reopenedStore.transactionRepository();
+                assertEquals(1, reopened.findAll().size());
+                reopened.save(deposit(3, 200));
+            }
+
+            try (DurableStore reopenedStore = DurableStore.open(logDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                TransactionRepository reopened = reopenedStore.transactionRepository();
+                assertEquals(10200, reopened.findBalanceAsOf("ACC001", date));
+            }
+        }
+
+        @Test
+        @DisplayName("should refuse to open a log that is corrupt before its last segment")
+        void shouldRefuseCorruptEarlierSegment() throws IOException {
+            try (DurableStore store = DurableStore.open(logDirectory, TransactionLog.Durability.SYNC_PER_BATCH, 64)) {
+                TransactionRepository repository = store.transactionRepository();
+                IntStream.rangeClosed(1, 4).forEach(i -> repository.save(deposit(i, 100)));
+            }
+            Path first = segments().get(0);
+            byte[] bytes = Files.readAllBytes(first);
+            bytes[bytes.length - 1] ^= 0x7f;
+            Files.write(first, bytes);
+
+            assertThrows(IllegalStateException.class, () ->
+                    DurableStore.open(logDirectory, TransactionLog.Durability.SYNC_PER_BATCH, 64));
+        }
+    }
+
+    @Nested
+    @DisplayName("append tests")
+    class AppendTests {
+
+        @Test
+        @DisplayName("should roll over to new segments and replay them in order")
+        void shouldRollOverSegments() throws IOException {
+            try (DurableStore store = DurableStore.open(logDirectory, TransactionLog.Durability.OS_BUFFERED, 128)) {
+                TransactionRepository repository = store.transactionRepository();
+                IntStream.rangeClosed(1, 20).forEach(i -> repository.save(deposit(i, 100)));
+            }
+
+            assertTrue(segments().size() > 1);
+            try (DurableStore reopenedStore = DurableStore.open(logDirectory, TransactionLog.Durability.OS_BUFFERED, 128)) {
+                TransactionRepository reopened = reopenedStore.transactionRepository();
+                assertEquals(2000, reopened.findBalanceAsOf("ACC001", date));
+            }
+        }
+
+        @Test
+        @DisplayName("should group concurrent postings into shared commits without losing any")
+        void shouldKeepEveryConcurrentPosting() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try (DurableStore store = DurableStore.open(logDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                TransactionRepository repository = store.transactionRepository();
+                List<Future<Transaction>> saves = IntStream.rangeClosed(1, 2000)
+                        .mapToObj(i -> executor.submit(() -> repository.save(deposit(i, 1))))
+                        .toList();
+                for (Future<Transaction> save : saves) {
+                    save.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            try (DurableStore reopenedStore = DurableStore.open(logDirectory, TransactionLog.Durability.SYNC_PER_BATCH)) {
+                TransactionRepository reopened = reopenedStore.transactionRepository();
+                assertEquals(2000, reopened.findAll().size());
+                assertEquals(2000, reopened.findBalanceAsOf("ACC001", date));
+            }
+        }
+
+        @Test
+        @DisplayName("should reject every append after a write fails")
+        void shouldRejectAppendsAfterFailure() throws IOException {
+            Path directory = Files.createDirectory(logDirectory.resolve("failing"));
+            TransactionLog log = TransactionLog.open(directory, TransactionLog.Durability.SYNC_PER_BATCH, 1024, record -> { });
+            try {
+                log.append(new TransactionLog.Saved(deposit(1, 100)));
+                try (Stream<Path> files = Files.list(directory)) {
+                    for (Path file : files.toList()) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(directory);
+
+                // The next segment cannot be created, which fails the log
+                assertThrows(IllegalStateException.class, log::rollSegment);
+                IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                        log.append(new TransactionLog.Saved(deposit(2, 100))));
+                assertEquals("Transaction log has failed and must be reopened", exception.getMessage());
+            } finally {
+                log.close();
+            }
+        }
+
+        @Test
+        @DisplayName("should reject appends once closed")
+        void shouldRejectAppendsOnceClosed() {
+            DurableStore store = DurableStore.open(logDirectory, TransactionLog.Durability.SYNC_PER_BATCH);
+            TransactionRepository repository = store.transactionRepository();
+            store.close();
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                    repository.save(deposit(1, 100)));
+            assertEquals("Transaction log is closed", exception.getMessage());
+        }
+    }
+}
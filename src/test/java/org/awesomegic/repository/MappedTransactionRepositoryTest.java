@@ -0,0 +1,155 @@
+package org.awesomegic.repository;
+
+import org.awesomegic.model.BalanceCheckpoint;
+import org.awesomegic.model.LedgerMonth;
+import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
+import org.awesomegic.repositoy.MappedTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTransactionRepositoryTest {
+
+    // Four slots per segment, so a handful of transactions spans several files
+    private static final long SEGMENT_BYTES = 256;
+
+    @TempDir
+    Path directory;
+
+    private MappedTransactionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = MappedTransactionRepository.open(directory, SEGMENT_BYTES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    private Transaction transaction(LocalDate date, int sequence, String accountNumber,
+                                    Transaction.TransactionType type, long amount) {
+        return new Transaction(TransactionId.of(date, sequence), date, accountNumber, type, amount, 0);
+    }
+
+    private List<Long> balances(String accountNumber) {
+        return repository.findByAccountNumber(accountNumber).stream().map(Transaction::balance).toList();
+    }
+
+    @Nested
+    @DisplayName("ledger tests")
+    class LedgerTests {
+
+        @Test
+        @DisplayName("should restamp later balances when a transaction is back-dated or deleted")
+        void shouldRestampLaterBalances() {
+            LocalDate jan10 = LocalDate.of(2025, 1, 10);
+            LocalDate jan20 = LocalDate.of(2025, 1, 20);
+            repository.save(transaction(jan20, 1, "ACC001", Transaction.TransactionType.DEPOSIT, 10000));
+            Transaction backDated = repository.save(transaction(jan10, 1, "ACC001", Transaction.TransactionType.DEPOSIT, 5000));
+
+            assertEquals(5000, backDated.balance());
+            assertEquals(List.of(5000L, 15000L), balances("ACC001"));
+            assertEquals(5000, repository.findBalanceAsOf("ACC001", LocalDate.of(2025, 1, 15)));
+
+            assertTrue(repository.deleteById(TransactionId.of(jan10, 1)));
+            assertEquals(List.of(10000L), balances("ACC001"));
+            assertTrue(repository.findById(TransactionId.of(jan10, 1)).isEmpty());
+            assertFalse(repository.deleteById(TransactionId.of(jan10, 1)));
+        }
+
+        @Test
+        @DisplayName("should read a month with the position brought forward and interest kept apart")
+        void shouldReadMonthWithOpeningPosition() {
+            repository.save(transaction(LocalDate.of(2025, 1, 5), 1, "ACC001", Transaction.TransactionType.DEPOSIT, 10000));
+            repository.save(transaction(LocalDate.of(2025, 1, 31), 1, "ACC001", Transaction.TransactionType.INTEREST, 17));
+            repository.save(transaction(LocalDate.of(2025, 2, 3), 1, "ACC001", Transaction.TransactionType.WITHDRAWAL, 2000));
+            repository.save(transaction(LocalDate.of(2025, 3, 1), 1, "ACC001", Transaction.TransactionType.DEPOSIT, 300));
+
+            LedgerMonth february = repository.findLedgerMonth("ACC001", YearMonth.of(2025, 2));
+
+            assertEquals(new BalanceCheckpoint(10017, 17), february.opening());
+            assertEquals(List.of(8017L), february.transactions().stream().map(Transaction::balance).toList());
+            assertEquals(new BalanceCheckpoint(8017, 17), repository.findBalanceCheckpoint("ACC001", YearMonth.of(2025, 2)));
+        }
+
+        @Test
+        @DisplayName("should move a transaction saved again under another account")
+        void shouldReplaceTransactionWithSameId() {
+            LocalDate date = LocalDate.of(2025, 1, 10);
+            repository.save(transaction(date, 1, "ACC001", Transaction.TransactionType.DEPOSIT, 10000));
+            long revision = repository.findLedgerRevision("ACC001", YearMonth.of(2025, 1));
+
+            repository.save(transaction(date, 1, "ACC002", Transaction.TransactionType.DEPOSIT, 700));
+
+            assertTrue(repository.findByAccountNumber("ACC001").isEmpty());
+            assertNotEquals(revision, repository.findLedgerRevision("ACC001", YearMonth.of(2025, 1)));
+            assertEquals("ACC002", repository.findById(TransactionId.of(date, 1)).orElseThrow().accountNumber());
+            assertEquals(1, repository.findAll().size());
+            assertEquals(1, repository.findTransactionsByDate(date).size());
+        }
+
+        @Test
+        @DisplayName("should replace a transaction saved again under the same account")
+        void shouldReplaceTransactionInSameAccount() {
+            LocalDate jan10 = LocalDate.of(2025, 1, 10);
+            LocalDate jan20 = LocalDate.of(2025, 1, 20);
+            repository.save(transaction(jan10, 1, "ACC001", Transaction.TransactionType.DEPOSIT, 10000));
+            repository.save(transaction(jan20, 1, "ACC001", Transaction.TransactionType.DEPOSIT, 500));
+
+            Transaction replaced = repository.save(transaction(jan10, 1, "ACC001", Transaction.TransactionType.DEPOSIT, 700));
+
+            assertEquals(700, replaced.balance());
+            assertEquals(List.of(700L, 1200L), balances("ACC001"));
+            assertEquals(700, repository.findById(TransactionId.of(jan10, 1)).orElseThrow().amount());
+            assertEquals(2, repository.findAll().size());
+        }
+
+        @Test
+        @DisplayName("should reject an account number too long to store inline")
+        void shouldRejectLongAccountNumber() {
+            Transaction transaction = transaction(LocalDate.of(2025, 1, 10), 1, "A".repeat(40),
+                    Transaction.TransactionType.DEPOSIT, 100);
+
+            assertThrows(IllegalArgumentException.class, () -> repository.save(transaction));
+        }
+    }
+
+    @Nested
+    @DisplayName("reopen tests")
+    class ReopenTests {
+
+        @Test
+        @DisplayName("should rebuild the indexes from every segment after reopening")
+        void shouldRebuildIndexesAfterReopening() {
+            LocalDate date = LocalDate.of(2025, 1, 10);
+            IntStream.rangeClosed(1, 10).forEach(i -> repository.save(
+                    transaction(date, i, "ACC00" + i % 2, Transaction.TransactionType.DEPOSIT, 100)));
+            repository.deleteById(TransactionId.of(date, 4));
+            repository.close();
+
+            repository = MappedTransactionRepository.open(directory, SEGMENT_BYTES);
+
+            assertEquals(9, repository.findAll().size());
+            assertEquals(List.of(100L, 200L, 300L, 400L), balances("ACC000"));
+            assertEquals(500, repository.findBalanceAsOf("ACC001", date));
+            assertTrue(repository.findById(TransactionId.of(date, 4)).isEmpty());
+
+            Transaction next = repository.save(transaction(date, 11, "ACC001", Transaction.TransactionType.DEPOSIT, 50));
+            assertEquals(550, next.balance());
+        }
+    }
+}
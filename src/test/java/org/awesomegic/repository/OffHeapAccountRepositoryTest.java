@@ -0,0 +1,112 @@
+package org.awesomegic.repository;
+
+import org.awesomegic.model.Account;
+import org.awesomegic.repositoy.OffHeapAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapAccountRepositoryTest {
+
+    private final LocalDate created = LocalDate.of(2025, 1, 10);
+
+    private OffHeapAccountRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new OffHeapAccountRepository(4);
+    }
+
+    @Nested
+    @DisplayName("Save method tests")
+    class SaveTests {
+
+        @Test
+        @DisplayName("Should read back a saved account")
+        void shouldReadBackSavedAccount() {
+            Account account = new Account("ACC-001", 12345, created);
+
+            repository.save(account);
+
+            assertEquals(account, repository.findById("ACC-001").orElseThrow());
+            assertTrue(repository.findById("ACC-002").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should update an existing account in place and bump its version")
+        void shouldUpdateInPlace() {
+            repository.save(new Account("ACC-001", 100, created));
+            repository.save(new Account("ACC-001", 250, created));
+
+            assertEquals(250, repository.findById("ACC-001").orElseThrow().balance());
+            assertEquals(2, repository.findVersion("ACC-001"));
+            assertEquals(1, repository.count());
+        }
+
+        @Test
+        @DisplayName("Should reject an account number too long to store inline")
+        void shouldRejectLongAccountNumber() {
+            Account account = new Account("A".repeat(40), 0, created);
+
+            assertThrows(IllegalArgumentException.class, () -> repository.save(account));
+        }
+    }
+
+    @Nested
+    @DisplayName("Table tests")
+    class TableTests {
+
+        @Test
+        @DisplayName("Should keep every account while growing and deleting")
+        void shouldKeepAccountsWhileGrowing() {
+            IntStream.range(0, 5000).forEach(i -> repository.save(new Account("ACC-" + i, i, created)));
+            IntStream.range(0, 5000).filter(i -> i % 3 == 0)
+                    .forEach(i -> assertTrue(repository.deleteById("ACC-" + i)));
+            IntStream.range(5000, 6000).forEach(i -> repository.save(new Account("ACC-" + i, i, created)));
+
+            assertEquals(5000 - 1667 + 1000, repository.count());
+            assertEquals(repository.count(), repository.findAll().size());
+            assertTrue(repository.findById("ACC-3").isEmpty());
+            assertEquals(4, repository.findById("ACC-4").orElseThrow().balance());
+            assertEquals(5999, repository.findById("ACC-5999").orElseThrow().balance());
+            assertFalse(repository.deleteById("ACC-3"));
+        }
+
+        @Test
+        @DisplayName("Should not lose updates posted concurrently to different accounts")
+        void shouldKeepConcurrentUpdates() throws Exception {
+            IntStream.range(0, 8).forEach(i -> repository.save(new Account("ACC-" + i, 0, created)));
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<?>> workers = IntStream.range(0, 8)
+                        .<Future<?>>mapToObj(i -> executor.submit(() -> {
+                            for (int n = 1; n <= 1000; n++) {
+                                repository.save(new Account("ACC-" + i, n, created));
+                            }
+                        }))
+                        .toList();
+                for (Future<?> worker : workers) {
+                    worker.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            for (int i = 0; i < 8; i++) {
+                assertEquals(1000, repository.findById("ACC-" + i).orElseThrow().balance());
+                assertEquals(1001, repository.findVersion("ACC-" + i));
+            }
+        }
+    }
+}
@@ -2,8 +2,10 @@ package org.awesomegic.service;
 
 import org.awesomegic.model.Account;
 import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
 import org.awesomegic.repositoy.AccountRepository;
 import org.awesomegic.repositoy.TransactionRepository;
+import org.awesomegic.util.AccountNumberDictionary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,9 +14,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
@@ -32,6 +34,9 @@ public class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Spy
+    private AccountNumberDictionary accountNumbers = new AccountNumberDictionary();
+
     @InjectMocks
     private AccountService accountService;
 
@@ -39,7 +44,7 @@ public class AccountServiceTest {
     private ArgumentCaptor<Account> accountCaptor;
 
     private final String ACCOUNT_NUMBER = "ACC123";
-    private final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1000.00);
+    private final long INITIAL_BALANCE = 100000;
     private final LocalDate CREATED_DATE = LocalDate.now();
 
     private Account testAccount;
@@ -70,12 +75,32 @@ public class AccountServiceTest {
         Account result = accountService.findOrCreateAccount(ACCOUNT_NUMBER);
 
         assertEquals(ACCOUNT_NUMBER, result.accountNumber());
-        assertEquals(BigDecimal.ZERO, result.balance());
+        assertEquals(0, result.balance());
         assertNotNull(result.createdDate());
         verify(accountRepository).findById(ACCOUNT_NUMBER);
         verify(accountRepository).save(any(Account.class));
     }
 
+    @Test
+    @DisplayName("Should give each new account the next dense id when it is first seen")
+    void shouldAssignDenseIdOnFirstSight() {
+        when(accountRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        accountService.findOrCreateAccount("ACC001");
+        accountService.findOrCreateAccount("ACC002");
+
+        assertEquals(0, accountService.getAccountId("ACC001"));
+        assertEquals(1, accountService.getAccountId("ACC002"));
+        assertEquals("ACC002", accountService.getAccountNumber(1));
+    }
+
+    @Test
+    @DisplayName("Should report an unseen account as absent without assigning it an id")
+    void shouldReportUnseenAccountAsAbsent() {
+        assertEquals(AccountNumberDictionary.ABSENT, accountService.getAccountId("ACC999"));
+        assertEquals(AccountNumberDictionary.ABSENT, accountService.getAccountId("ACC999"));
+    }
+
     @Test
     @DisplayName("Should update account when updateAccount is called")
     void shouldUpdateAccountWhenUpdateAccountIsCalled() {
@@ -90,14 +115,14 @@ public class AccountServiceTest {
     @Test
     @DisplayName("Should increase balance for deposit transaction when updateAccountBalance is called")
     void shouldIncreaseBalanceForDepositTransactionWhenUpdateAccountBalanceIsCalled() {
-        BigDecimal depositAmount = BigDecimal.valueOf(500.00);
+        long depositAmount = 50000;
         Transaction depositTransaction = new Transaction(
-                "TX123",
+                TransactionId.of(LocalDate.now(), 1),
                 LocalDate.now(),
                 ACCOUNT_NUMBER,
                 Transaction.TransactionType.DEPOSIT,
                 depositAmount,
-                BigDecimal.ZERO
+                0
         );
 
         when(accountRepository.findById(ACCOUNT_NUMBER)).thenReturn(Optional.of(testAccount));
@@ -106,23 +131,23 @@ public class AccountServiceTest {
         Account result = accountService.updateAccountBalance(depositTransaction);
 
         assertEquals(ACCOUNT_NUMBER, result.accountNumber());
-        assertEquals(0, INITIAL_BALANCE.add(depositAmount).compareTo(result.balance()));
+        assertEquals(INITIAL_BALANCE + depositAmount, result.balance());
         assertEquals(CREATED_DATE, result.createdDate());
         verify(accountRepository).save(accountCaptor.capture());
-        assertEquals(0, INITIAL_BALANCE.add(depositAmount).compareTo(accountCaptor.getValue().balance()));
+        assertEquals(INITIAL_BALANCE + depositAmount, accountCaptor.getValue().balance());
     }
 
     @Test
     @DisplayName("Should increase balance for interest transaction when updateAccountBalance is called")
     void shouldIncreaseBalanceForInterestTransactionWhenUpdateAccountBalanceIsCalled() {
-        BigDecimal interestAmount = BigDecimal.valueOf(50);
+        long interestAmount = 5000;
         Transaction interestTransaction = new Transaction(
-                "TX123",
+                TransactionId.of(LocalDate.now(), 1),
                 LocalDate.now(),
                 ACCOUNT_NUMBER,
                 Transaction.TransactionType.INTEREST,
                 interestAmount,
-                BigDecimal.ZERO
+                0
         );
 
         when(accountRepository.findById(ACCOUNT_NUMBER)).thenReturn(Optional.of(testAccount));
@@ -131,23 +156,23 @@ public class AccountServiceTest {
         Account result = accountService.updateAccountBalance(interestTransaction);
 
         assertEquals(ACCOUNT_NUMBER, result.accountNumber());
-        assertEquals(0, INITIAL_BALANCE.add(interestAmount).compareTo(result.balance()));
+        assertEquals(INITIAL_BALANCE + interestAmount, result.balance());
         assertEquals(CREATED_DATE, result.createdDate());
         verify(accountRepository).save(accountCaptor.capture());
-        assertEquals(0,INITIAL_BALANCE.add(interestAmount).compareTo(accountCaptor.getValue().balance()));
+        assertEquals(INITIAL_BALANCE + interestAmount, accountCaptor.getValue().balance());
     }
 
     @Test
     @DisplayName("Should decrease balance for withdrawal transaction when updateAccountBalance is called")
     void shouldDecreaseBalanceForWithdrawalTransactionWhenUpdateAccountBalanceIsCalled() {
-        BigDecimal withdrawalAmount = BigDecimal.valueOf(300);
+        long withdrawalAmount = 30000;
         Transaction withdrawalTransaction = new Transaction(
-                "TX123",
+                TransactionId.of(LocalDate.now(), 1),
                 LocalDate.now(),
                 ACCOUNT_NUMBER,
                 Transaction.TransactionType.WITHDRAWAL,
                 withdrawalAmount,
-                BigDecimal.ZERO
+                0
         );
 
         when(accountRepository.findById(ACCOUNT_NUMBER)).thenReturn(Optional.of(testAccount));
@@ -156,23 +181,23 @@ public class AccountServiceTest {
         Account result = accountService.updateAccountBalance(withdrawalTransaction);
 
         assertEquals(ACCOUNT_NUMBER, result.accountNumber());
-        assertEquals(0,INITIAL_BALANCE.subtract(withdrawalAmount).compareTo(result.balance()));
+        assertEquals(INITIAL_BALANCE - withdrawalAmount, result.balance());
         assertEquals(CREATED_DATE, result.createdDate());
         verify(accountRepository).save(accountCaptor.capture());
-        assertEquals(0,INITIAL_BALANCE.subtract(withdrawalAmount).compareTo(accountCaptor.getValue().balance()));
+        assertEquals(INITIAL_BALANCE - withdrawalAmount, accountCaptor.getValue().balance());
     }
 
     @Test
     @DisplayName("Should throw exception for withdrawal transaction with insufficient funds")
     void shouldThrowExceptionForWithdrawalTransactionWithInsufficientFunds() {
-        BigDecimal withdrawalAmount = BigDecimal.valueOf(1500);
+        long withdrawalAmount = 150000;
         Transaction withdrawalTransaction = new Transaction(
-                "TX123",
+                TransactionId.of(LocalDate.now(), 1),
                 LocalDate.now(),
                 ACCOUNT_NUMBER,
                 Transaction.TransactionType.WITHDRAWAL,
                 withdrawalAmount,
-                BigDecimal.ZERO
+                0
         );
 
         when(accountRepository.findById(ACCOUNT_NUMBER)).thenReturn(Optional.of(testAccount));
@@ -187,8 +212,8 @@ public class AccountServiceTest {
     @DisplayName("Should return transaction count when getAccountTransactionCount is called")
     void shouldReturnTransactionCountWhenGetAccountTransactionCountIsCalled() {
         List<Transaction> transactions = List.of(
-                new Transaction("TX1", LocalDate.now(), ACCOUNT_NUMBER, Transaction.TransactionType.DEPOSIT, BigDecimal.TEN, BigDecimal.TEN),
-                new Transaction("TX2", LocalDate.now(), ACCOUNT_NUMBER, Transaction.TransactionType.WITHDRAWAL, BigDecimal.ONE, BigDecimal.TEN.subtract(BigDecimal.ONE))
+                new Transaction(TransactionId.of(LocalDate.now(), 1), LocalDate.now(), ACCOUNT_NUMBER, Transaction.TransactionType.DEPOSIT, 1000, 1000),
+                new Transaction(TransactionId.of(LocalDate.now(), 2), LocalDate.now(), ACCOUNT_NUMBER, Transaction.TransactionType.WITHDRAWAL, 100, 900)
         );
         when(transactionRepository.findByAccountNumber(ACCOUNT_NUMBER)).thenReturn(transactions);
 
@@ -214,7 +239,7 @@ public class AccountServiceTest {
     void shouldReturnAccountBalanceWhenGetAccountBalanceIsCalledWithExistingAccount() {
         when(accountRepository.findById(ACCOUNT_NUMBER)).thenReturn(Optional.of(testAccount));
 
-        BigDecimal balance = accountService.getAccountBalance(ACCOUNT_NUMBER);
+        long balance = accountService.getAccountBalance(ACCOUNT_NUMBER);
 
         assertEquals(INITIAL_BALANCE, balance);
         verify(accountRepository).findById(ACCOUNT_NUMBER);
@@ -225,9 +250,33 @@ public class AccountServiceTest {
     void shouldReturnZeroWhenGetAccountBalanceIsCalledWithNonExistingAccount() {
         when(accountRepository.findById(ACCOUNT_NUMBER)).thenReturn(Optional.empty());
 
-        BigDecimal balance = accountService.getAccountBalance(ACCOUNT_NUMBER);
+        long balance = accountService.getAccountBalance(ACCOUNT_NUMBER);
 
-        assertEquals(BigDecimal.ZERO, balance);
+        assertEquals(0, balance);
         verify(accountRepository).findById(ACCOUNT_NUMBER);
     }
+
+    @Test
+    @DisplayName("Should return balance as of date from the transaction repository")
+    void shouldReturnBalanceAsOfDateFromTransactionRepository() {
+        LocalDate asOf = LocalDate.of(2025, 3, 15);
+        when(transactionRepository.findBalanceAsOf(ACCOUNT_NUMBER, asOf)).thenReturn(125000L);
+
+        long balance = accountService.balanceAsOf(ACCOUNT_NUMBER, asOf);
+
+        assertEquals(125000, balance);
+        verify(accountRepository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("Should reset account balance to the ledger closing balance when refreshAccountBalance is called")
+    void shouldResetAccountBalanceToLedgerClosingBalance() {
+        when(accountRepository.findById(ACCOUNT_NUMBER)).thenReturn(Optional.of(testAccount));
+        when(transactionRepository.findBalanceAsOf(ACCOUNT_NUMBER, LocalDate.MAX)).thenReturn(130346L);
+
+        Account refreshed = accountService.refreshAccountBalance(ACCOUNT_NUMBER);
+
+        assertEquals(130346, refreshed.balance());
+        verify(accountRepository).save(refreshed);
+    }
 }
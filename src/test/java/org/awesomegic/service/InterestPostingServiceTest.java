@@ -0,0 +1,150 @@
+package org.awesomegic.service;
+
+import org.awesomegic.model.BalanceCheckpoint;
+import org.awesomegic.model.InterestRateSchedule;
+import org.awesomegic.model.LedgerMonth;
+import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InterestPostingServiceTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private StatementService statementService;
+
+    @Mock
+    private AccountService accountService;
+
+    @InjectMocks
+    private InterestPostingService interestPostingService;
+
+    @Captor
+    private ArgumentCaptor<Transaction> transactionCaptor;
+
+    private final String ACCOUNT_NUMBER = "ACC123";
+    private final YearMonth MONTH = YearMonth.of(2025, 3);
+    private final LocalDate MONTH_END = MONTH.atEndOfMonth();
+
+    private Transaction withdrawal;
+    private Transaction postedInterest;
+
+    @BeforeEach
+    void setUp() {
+        withdrawal = new Transaction(TransactionId.parse("20250310-01"), LocalDate.of(2025, 3, 10), ACCOUNT_NUMBER,
+                Transaction.TransactionType.WITHDRAWAL, 20000, 130000);
+        postedInterest = new Transaction(TransactionId.parse("20250331-01"), MONTH_END, ACCOUNT_NUMBER,
+                Transaction.TransactionType.INTEREST, 346, 130346);
+    }
+
+    @Test
+    @DisplayName("Should post interest at month end when none has been posted")
+    void shouldPostInterestWhenNonePosted() {
+        LedgerMonth ledgerMonth = new LedgerMonth(MONTH, new BalanceCheckpoint(150000, 0), List.of(withdrawal));
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, MONTH)).thenReturn(ledgerMonth);
+        when(statementService.calculateMonthlyInterest(ledgerMonth)).thenReturn(346L);
+        when(transactionService.generateTransactionId(MONTH_END)).thenReturn(TransactionId.of(MONTH_END, 1));
+        when(transactionService.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Optional<Transaction> result = interestPostingService.postMonthlyInterest(ACCOUNT_NUMBER, MONTH);
+
+        verify(transactionService).save(transactionCaptor.capture());
+        Transaction saved = transactionCaptor.getValue();
+        assertEquals(Transaction.TransactionType.INTEREST, saved.type());
+        assertEquals(MONTH_END, saved.date());
+        assertEquals(346, saved.amount());
+        assertEquals(Optional.of(saved), result);
+        verify(accountService).refreshAccountBalance(ACCOUNT_NUMBER);
+    }
+
+    @Test
+    @DisplayName("Should refuse to post interest for a month that has not ended")
+    void shouldRejectMonthNotEnded() {
+        YearMonth currentMonth = YearMonth.now();
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> interestPostingService.postMonthlyInterest(ACCOUNT_NUMBER, currentMonth));
+
+        assertEquals("Interest can only be posted for a month that has ended", exception.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> interestPostingService.postMonthlyInterest(ACCOUNT_NUMBER, currentMonth.plusMonths(1)));
+        verifyNoInteractions(transactionService, statementService, accountService);
+    }
+
+    @Test
+    @DisplayName("Should leave posted interest untouched when it is already correct")
+    void shouldBeIdempotentWhenAlreadyPosted() {
+        LedgerMonth ledgerMonth = new LedgerMonth(MONTH, new BalanceCheckpoint(150000, 0), List.of(withdrawal, postedInterest));
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, MONTH)).thenReturn(ledgerMonth);
+        when(statementService.calculateMonthlyInterest(ledgerMonth)).thenReturn(346L);
+
+        Optional<Transaction> result = interestPostingService.postMonthlyInterest(ACCOUNT_NUMBER, MONTH);
+
+        assertEquals(Optional.of(postedInterest), result);
+        verify(transactionService, never()).save(any(Transaction.class));
+        verify(transactionService, never()).generateTransactionId(any(LocalDate.class));
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    @DisplayName("Should correct posted interest in place under the same ID")
+    void shouldCorrectPostedInterestUnderSameId() {
+        LedgerMonth ledgerMonth = new LedgerMonth(MONTH, new BalanceCheckpoint(150000, 0), List.of(withdrawal, postedInterest));
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, MONTH)).thenReturn(ledgerMonth);
+        when(statementService.calculateMonthlyInterest(ledgerMonth)).thenReturn(376L);
+        when(transactionService.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        interestPostingService.postMonthlyInterest(ACCOUNT_NUMBER, MONTH);
+
+        verify(transactionService).save(transactionCaptor.capture());
+        assertEquals(postedInterest.id(), transactionCaptor.getValue().id());
+        assertEquals(376, transactionCaptor.getValue().amount());
+        verify(transactionService, never()).generateTransactionId(any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Should remove posted interest when the month no longer earns any")
+    void shouldRemovePostedInterestWhenNoLongerEarned() {
+        LedgerMonth ledgerMonth = new LedgerMonth(MONTH, BalanceCheckpoint.ZERO, List.of(postedInterest));
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, MONTH)).thenReturn(ledgerMonth);
+        when(statementService.calculateMonthlyInterest(ledgerMonth)).thenReturn(0L);
+
+        Optional<Transaction> result = interestPostingService.postMonthlyInterest(ACCOUNT_NUMBER, MONTH);
+
+        assertTrue(result.isEmpty());
+        verify(transactionService).deleteById(postedInterest.id());
+        verify(transactionService, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Should price interest against the supplied rate schedule")
+    void shouldPriceAgainstSuppliedSchedule() {
+        InterestRateSchedule rateSchedule = InterestRateSchedule.of(List.of());
+        LedgerMonth ledgerMonth = new LedgerMonth(MONTH, new BalanceCheckpoint(150000, 0), List.of(withdrawal, postedInterest));
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, MONTH)).thenReturn(ledgerMonth);
+        when(statementService.calculateMonthlyInterest(ledgerMonth, rateSchedule)).thenReturn(346L);
+
+        Optional<Transaction> result = interestPostingService.postMonthlyInterest(ACCOUNT_NUMBER, MONTH, rateSchedule);
+
+        assertEquals(Optional.of(postedInterest), result);
+        verify(statementService, never()).calculateMonthlyInterest(ledgerMonth);
+    }
+}
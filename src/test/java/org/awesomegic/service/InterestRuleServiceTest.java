@@ -1,6 +1,7 @@
 package org.awesomegic.service;
 
 import org.awesomegic.model.InterestRule;
+import org.awesomegic.model.InterestRulePeriod;
 import org.awesomegic.repositoy.InterestRuleRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,8 +14,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -49,8 +50,6 @@ public class InterestRuleServiceTest {
     @Test
     @DisplayName("Should process valid interest rule input")
     void shouldProcessValidInterestRuleInput() {
-        when(interestRuleRepository.findAll()).thenReturn(new ArrayList<>());
-
         interestRuleService.processInterestRule(VALID_INPUT);
 
         verify(interestRuleRepository).save(interestRuleCaptor.capture());
@@ -111,16 +110,11 @@ public class InterestRuleServiceTest {
     }
 
     @Test
-    @DisplayName("Should replace existing rules with same effective date")
+    @DisplayName("Should leave replacing rules with same effective date to the repository")
     void shouldReplaceExistingRulesWithSameEffectiveDate() {
-        InterestRule existingRule = new InterestRule(EFFECTIVE_DATE, "OLD-RULE", BigDecimal.valueOf(1.5));
-        List<InterestRule> existingRules = List.of(existingRule);
-
-        when(interestRuleRepository.findAll()).thenReturn(existingRules);
-
         interestRuleService.processInterestRule(VALID_INPUT);
 
-        verify(interestRuleRepository).deleteById("OLD-RULE");
+        verify(interestRuleRepository, never()).deleteById(anyString());
         verify(interestRuleRepository).save(interestRuleCaptor.capture());
         InterestRule savedRule = interestRuleCaptor.getValue();
         assertEquals(EFFECTIVE_DATE, savedRule.effectiveDate());
@@ -154,7 +148,7 @@ public class InterestRuleServiceTest {
                 new InterestRule(LocalDate.of(2023, 3, 1), "RULE-003", BigDecimal.valueOf(3.5))
         );
 
-        when(interestRuleRepository.findAll()).thenReturn(rules);
+        when(interestRuleRepository.findMostRecentRuleBeforeDate(LocalDate.of(2023, 2, 15))).thenReturn(Optional.of(rules.get(1)));
 
         Optional<InterestRule> result = interestRuleService.findApplicableInterestRule(LocalDate.of(2023, 2, 15));
 
@@ -171,7 +165,7 @@ public class InterestRuleServiceTest {
                 new InterestRule(LocalDate.of(2023, 3, 1), "RULE-002", BigDecimal.valueOf(3.0))
         );
 
-        when(interestRuleRepository.findAll()).thenReturn(rules);
+        when(interestRuleRepository.findMostRecentRuleBeforeDate(LocalDate.of(2023, 1, 15))).thenReturn(Optional.empty());
 
         Optional<InterestRule> result = interestRuleService.findApplicableInterestRule(LocalDate.of(2023, 1, 15));
 
@@ -187,7 +181,7 @@ public class InterestRuleServiceTest {
                 new InterestRule(LocalDate.of(2023, 3, 1), "RULE-003", BigDecimal.valueOf(3.5))
         );
 
-        when(interestRuleRepository.findAll()).thenReturn(rules);
+        when(interestRuleRepository.findMostRecentRuleBeforeDate(LocalDate.of(2023, 3, 15))).thenReturn(Optional.of(rules.get(2)));
 
         Optional<InterestRule> result = interestRuleService.findApplicableInterestRule(LocalDate.of(2023, 3, 15));
 
@@ -198,53 +192,58 @@ public class InterestRuleServiceTest {
     @Test
     @DisplayName("Should calculate prorated interest correctly")
     void shouldCalculateProratedInterestCorrectly() {
-        BigDecimal balance = BigDecimal.valueOf(10000);
+        long balance = 1000000;
         InterestRule rule = new InterestRule(
                 LocalDate.of(2025, 1, 1),
                 "RULE-001",
                 BigDecimal.valueOf(3.65)
         );
-        long periodDays = 30;
+        when(interestRuleRepository.findAll()).thenReturn(List.of(rule));
+        InterestRuleService service = new InterestRuleService(interestRuleRepository);
 
         // Expected calculation: 10000 * (3.65/100) * (30/365) = 30.00
-        BigDecimal expected = BigDecimal.valueOf(30.00);
+        long expected = 3000;
 
-        BigDecimal result = interestRuleService.calculateProratedInterest(balance, rule, periodDays);
+        long result = service.calculateProratedInterest(balance, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 30));
 
-        assertEquals(0, expected.compareTo(result));
-        assertEquals(2, result.scale());
+        assertEquals(expected, result);
+    }
+
+    @Test
+    @DisplayName("Should calculate prorated interest across a rule change")
+    void shouldCalculateProratedInterestAcrossRuleChange() {
+        when(interestRuleRepository.findAll()).thenReturn(List.of(
+                new InterestRule(LocalDate.of(2025, 1, 1), "RULE-001", BigDecimal.valueOf(3.65)),
+                new InterestRule(LocalDate.of(2025, 3, 16), "RULE-002", BigDecimal.valueOf(7.30))
+        ));
+        InterestRuleService service = new InterestRuleService(interestRuleRepository);
+
+        // 15 days at 3.65% and 15 days at 7.30% on 10000.00
+        long result = service.calculateProratedInterest(1000000, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 30));
+
+        assertEquals(4500, result);
     }
 
     @Test
     @DisplayName("Should calculate prorated interest as zero when balance is zero")
     void shouldCalculateProratedInterestAsZeroWhenBalanceIsZero() {
-        BigDecimal balance = BigDecimal.ZERO;
-        InterestRule rule = new InterestRule(
-                LocalDate.of(2023, 1, 1),
-                "RULE-001",
-                BigDecimal.valueOf(3.65)
-        );
-        long periodDays = 30;
+        when(interestRuleRepository.findAll()).thenReturn(List.of(testRule));
+        InterestRuleService service = new InterestRuleService(interestRuleRepository);
 
-        BigDecimal result = interestRuleService.calculateProratedInterest(balance, rule, periodDays);
+        long result = service.calculateProratedInterest(0, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 30));
 
-        assertEquals(BigDecimal.valueOf(0).setScale(2, RoundingMode.HALF_UP), result);
+        assertEquals(0, result);
     }
 
     @Test
-    @DisplayName("Should calculate prorated interest as zero when period days is zero")
-    void shouldCalculateProratedInterestAsZeroWhenPeriodDaysIsZero() {
-        BigDecimal balance = BigDecimal.valueOf(10000);
-        InterestRule rule = new InterestRule(
-                LocalDate.of(2023, 1, 1),
-                "RULE-001",
-                BigDecimal.valueOf(3.65)
-        );
-        long periodDays = 0;
+    @DisplayName("Should calculate prorated interest as zero before any rule is in effect")
+    void shouldCalculateProratedInterestAsZeroBeforeAnyRule() {
+        when(interestRuleRepository.findAll()).thenReturn(List.of(testRule));
+        InterestRuleService service = new InterestRuleService(interestRuleRepository);
 
-        BigDecimal result = interestRuleService.calculateProratedInterest(balance, rule, periodDays);
+        long result = service.calculateProratedInterest(1000000, LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 31));
 
-        assertEquals(BigDecimal.valueOf(0).setScale(2, RoundingMode.HALF_UP), result);
+        assertEquals(0, result);
     }
 
     @Test
@@ -278,4 +277,85 @@ public class InterestRuleServiceTest {
 
         assertEquals(expectedRate, request.interestRate());
     }
+
+    @Test
+    @DisplayName("Should split the month into periods at each rule change")
+    void shouldSplitMonthIntoPeriodsAtRuleChanges() {
+        YearMonth march = YearMonth.of(2025, 3);
+        InterestRule midMonthRule = new InterestRule(LocalDate.of(2025, 3, 15), "RULE-002", new BigDecimal("3.50"));
+        when(interestRuleRepository.findAll()).thenReturn(List.of(testRule, midMonthRule));
+        InterestRuleService service = new InterestRuleService(interestRuleRepository);
+
+        List<InterestRulePeriod> periods = service.findInterestRulePeriods(march);
+
+        assertEquals(List.of(
+                new InterestRulePeriod(march.atDay(1), LocalDate.of(2025, 3, 14), testRule),
+                new InterestRulePeriod(LocalDate.of(2025, 3, 15), march.atEndOfMonth(), midMonthRule)
+        ), periods);
+    }
+
+    @Test
+    @DisplayName("Should return no periods when no rule is in effect on the first of the month")
+    void shouldReturnNoPeriodsWhenNoRuleAtMonthStart() {
+        InterestRule lateRule = new InterestRule(LocalDate.of(2024, 12, 10), "RULE-000", new BigDecimal("1.00"));
+        when(interestRuleRepository.findAll()).thenReturn(List.of(lateRule));
+        InterestRuleService service = new InterestRuleService(interestRuleRepository);
+
+        assertTrue(service.findInterestRulePeriods(YearMonth.of(2024, 12)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should build each month's periods once and share them")
+    void shouldMemoizePeriodsPerMonth() {
+        when(interestRuleRepository.findAll()).thenReturn(List.of(testRule));
+        InterestRuleService service = new InterestRuleService(interestRuleRepository);
+
+        assertSame(service.findInterestRulePeriods(YearMonth.of(2025, 3)), service.findInterestRulePeriods(YearMonth.of(2025, 3)));
+    }
+
+    @Test
+    @DisplayName("Should rebuild periods only for months on or after a changed rule")
+    void shouldInvalidatePeriodsFromChangedRuleMonth() {
+        YearMonth january = YearMonth.of(2025, 1);
+        YearMonth march = YearMonth.of(2025, 3);
+        InterestRule marchRule = new InterestRule(LocalDate.of(2025, 3, 1), "RULE-002", new BigDecimal("3.00"));
+        when(interestRuleRepository.findAll()).thenReturn(List.of(testRule), List.of(testRule, marchRule));
+        InterestRuleService service = new InterestRuleService(interestRuleRepository);
+
+        List<InterestRulePeriod> januaryBefore = service.findInterestRulePeriods(january);
+        List<InterestRulePeriod> marchBefore = service.findInterestRulePeriods(march);
+
+        service.processInterestRule("20250301 RULE-002 3.00");
+
+        assertSame(januaryBefore, service.findInterestRulePeriods(january));
+        assertNotEquals(marchBefore, service.findInterestRulePeriods(march));
+        assertEquals(marchRule, service.findInterestRulePeriods(march).get(0).interestRule());
+    }
+
+    @Test
+    @DisplayName("Should invalidate from the earlier date when a rule is moved forward")
+    void shouldInvalidateFromOldDateWhenRuleMoved() {
+        YearMonth january = YearMonth.of(2025, 1);
+        InterestRule movedRule = new InterestRule(LocalDate.of(2025, 6, 1), RULE_ID, new BigDecimal("3.00"));
+        when(interestRuleRepository.findAll()).thenReturn(List.of(testRule), List.of(movedRule));
+        when(interestRuleRepository.findById(RULE_ID)).thenReturn(Optional.of(testRule));
+        InterestRuleService service = new InterestRuleService(interestRuleRepository);
+
+        assertFalse(service.findInterestRulePeriods(january).isEmpty());
+        service.processInterestRule("20250601 RULE-001 3.00");
+
+        assertTrue(service.findInterestRulePeriods(january).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should notify rule change listeners from the earliest affected date")
+    void shouldNotifyListenersFromEarliestAffectedDate() {
+        when(interestRuleRepository.findById(RULE_ID)).thenReturn(Optional.of(testRule));
+        List<LocalDate> notified = new ArrayList<>();
+        interestRuleService.addRuleChangeListener(notified::add);
+
+        interestRuleService.processInterestRule("20250601 RULE-001 3.00");
+
+        assertEquals(List.of(EFFECTIVE_DATE), notified);
+    }
 }
@@ -0,0 +1,128 @@
+package org.awesomegic.service;
+
+import org.awesomegic.model.Account;
+import org.awesomegic.model.InterestRateSchedule;
+import org.awesomegic.model.InterestRule;
+import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MonthEndInterestJobTest {
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private InterestRuleService interestRuleService;
+
+    @Mock
+    private InterestPostingService interestPostingService;
+
+    private ForkJoinPool pool;
+    private MonthEndInterestJob job;
+
+    private final YearMonth MONTH = YearMonth.of(2025, 3);
+    private final InterestRateSchedule rateSchedule = InterestRateSchedule.of(List.of(
+            new InterestRule(LocalDate.of(2025, 1, 1), "RULE01", new BigDecimal("1.95"))));
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        job = new MonthEndInterestJob(accountService, interestRuleService, interestPostingService, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should refuse a month that has not ended before posting any account")
+    void shouldRejectMonthNotEnded() {
+        YearMonth currentMonth = YearMonth.now();
+        doThrow(new IllegalArgumentException("Interest can only be posted for a month that has ended"))
+                .when(interestPostingService).validateMonthEnded(currentMonth);
+
+        assertThrows(IllegalArgumentException.class, () -> job.run(currentMonth));
+
+        verifyNoInteractions(accountService, interestRuleService);
+        verify(interestPostingService, never()).postMonthlyInterest(anyString(), any(), any(InterestRateSchedule.class));
+    }
+
+    @Test
+    @DisplayName("Should post interest once for every account against one rate schedule")
+    void shouldPostEveryAccountAgainstOneSchedule() {
+        List<Account> accounts = IntStream.range(0, 1000)
+                .mapToObj(i -> new Account("ACC" + i, 10000, LocalDate.of(2025, 1, 1)))
+                .toList();
+        Transaction interest = new Transaction(TransactionId.of(MONTH.atEndOfMonth(), 1), MONTH.atEndOfMonth(),
+                "ACC0", Transaction.TransactionType.INTEREST, 16, 10016);
+        when(accountService.getAllAccounts()).thenReturn(accounts);
+        when(interestRuleService.getRateSchedule()).thenReturn(rateSchedule);
+        when(interestPostingService.postMonthlyInterest(anyString(), eq(MONTH), same(rateSchedule)))
+                .thenAnswer(invocation -> {
+                    int index = Integer.parseInt(invocation.<String>getArgument(0).substring(3));
+                    return index % 2 == 0 ? Optional.of(interest) : Optional.empty();
+                });
+
+        ConcurrentLinkedQueue<MonthEndInterestJob.Progress> progress = new ConcurrentLinkedQueue<>();
+        MonthEndInterestJob.Report report = job.run(MONTH, progress::add);
+
+        assertEquals(MONTH, report.month());
+        assertEquals(1000, report.accountsProcessed());
+        assertEquals(500, report.accountsCredited());
+        assertTrue(report.accountsPerSecond() > 0);
+        for (Account account : accounts) {
+            verify(interestPostingService).postMonthlyInterest(account.accountNumber(), MONTH, rateSchedule);
+        }
+        verify(interestRuleService, times(1)).getRateSchedule();
+
+        assertTrue(progress.size() > 1);
+        assertTrue(progress.stream().allMatch(p -> p.total() == 1000));
+        assertEquals(1000, progress.stream().mapToInt(MonthEndInterestJob.Progress::completed).max().orElse(0));
+    }
+
+    @Test
+    @DisplayName("Should take closed months from the interest posted in the ledger")
+    void shouldTakeClosedMonthsFromPostedInterest() {
+        when(interestPostingService.postedMonths()).thenReturn(new TreeSet<>(Set.of(MONTH)));
+
+        assertEquals(Set.of(MONTH), job.closedMonths());
+    }
+
+    @Test
+    @DisplayName("Should report an empty run when the bank has no accounts")
+    void shouldReportEmptyRun() {
+        when(accountService.getAllAccounts()).thenReturn(List.of());
+        when(interestRuleService.getRateSchedule()).thenReturn(rateSchedule);
+
+        MonthEndInterestJob.Report report = job.run(MONTH);
+
+        assertEquals(0, report.accountsProcessed());
+        assertEquals(0, report.accountsCredited());
+        verify(interestPostingService, never()).postMonthlyInterest(anyString(), any(), any(InterestRateSchedule.class));
+    }
+}
@@ -0,0 +1,141 @@
+package org.awesomegic.service;
+
+import org.awesomegic.model.Account;
+import org.awesomegic.model.BalanceCheckpoint;
+import org.awesomegic.model.InterestRateSchedule;
+import org.awesomegic.model.LedgerMonth;
+import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RuleChangeImpactServiceTest {
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private InterestRuleService interestRuleService;
+
+    @Mock
+    private InterestPostingService interestPostingService;
+
+    @Mock
+    private MonthEndInterestJob monthEndInterestJob;
+
+    private ForkJoinPool pool;
+    private RuleChangeImpactService impactService;
+
+    private final YearMonth JANUARY = YearMonth.of(2025, 1);
+    private final YearMonth FEBRUARY = YearMonth.of(2025, 2);
+    private final YearMonth MARCH = YearMonth.of(2025, 3);
+    private final Account funded = new Account("FUNDED", 100000, LocalDate.of(2024, 12, 1));
+    private final Account newlyOpened = new Account("NEW", 5000, LocalDate.of(2025, 3, 5));
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+        impactService = new RuleChangeImpactService(accountService, transactionService, interestRuleService,
+                interestPostingService, monthEndInterestJob, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should select months on or after the change where the account already has interest posted")
+    void shouldSelectPostedMonthsOnOrAfterChange() {
+        when(monthEndInterestJob.closedMonths()).thenReturn(new TreeSet<>(List.of(JANUARY, FEBRUARY, MARCH)));
+        when(accountService.getAllAccounts()).thenReturn(List.of(funded, newlyOpened));
+        when(transactionService.findLedgerMonth("FUNDED", FEBRUARY)).thenReturn(postedMonth("FUNDED", FEBRUARY));
+        when(transactionService.findLedgerMonth("FUNDED", MARCH)).thenReturn(postedMonth("FUNDED", MARCH));
+        when(transactionService.findLedgerMonth("NEW", FEBRUARY)).thenReturn(LedgerMonth.empty(FEBRUARY));
+        when(transactionService.findLedgerMonth("NEW", MARCH)).thenReturn(postedMonth("NEW", MARCH));
+
+        List<RuleChangeImpactService.AccountMonth> affected = impactService.findAffected(LocalDate.of(2025, 2, 10));
+
+        assertEquals(3, affected.size());
+        assertTrue(affected.containsAll(List.of(
+                new RuleChangeImpactService.AccountMonth("FUNDED", FEBRUARY),
+                new RuleChangeImpactService.AccountMonth("FUNDED", MARCH),
+                new RuleChangeImpactService.AccountMonth("NEW", MARCH))));
+        verify(transactionService, never()).findLedgerMonth(any(), eq(JANUARY));
+    }
+
+    @Test
+    @DisplayName("Should not create a posting for a funded account that was not posted for the month")
+    void shouldSkipFundedAccountWithoutPosting() {
+        Account unposted = new Account("UNPOSTED", 100000, LocalDate.of(2024, 12, 1));
+        InterestRateSchedule rateSchedule = InterestRateSchedule.of(List.of());
+        LocalDate depositDate = LocalDate.of(2025, 3, 5);
+        when(monthEndInterestJob.closedMonths()).thenReturn(new TreeSet<>(List.of(MARCH)));
+        when(accountService.getAllAccounts()).thenReturn(List.of(funded, unposted));
+        when(transactionService.findLedgerMonth("FUNDED", MARCH)).thenReturn(postedMonth("FUNDED", MARCH));
+        when(transactionService.findLedgerMonth("UNPOSTED", MARCH)).thenReturn(new LedgerMonth(MARCH,
+                new BalanceCheckpoint(100000, 0),
+                List.of(new Transaction(TransactionId.of(depositDate, 1), depositDate, "UNPOSTED",
+                        Transaction.TransactionType.DEPOSIT, 5000, 105000))));
+        when(interestRuleService.getRateSchedule()).thenReturn(rateSchedule);
+        when(interestPostingService.postMonthlyInterest("FUNDED", MARCH, rateSchedule)).thenReturn(Optional.empty());
+
+        RuleChangeImpactService.Report report = impactService.reprocess(LocalDate.of(2025, 3, 15));
+
+        assertEquals(List.of(new RuleChangeImpactService.AccountMonth("FUNDED", MARCH)), report.recomputed());
+        verify(interestPostingService, never()).postMonthlyInterest(eq("UNPOSTED"), any(), any(InterestRateSchedule.class));
+    }
+
+    @Test
+    @DisplayName("Should repost every affected pair against the new rate schedule")
+    void shouldRepostAffectedPairs() {
+        InterestRateSchedule rateSchedule = InterestRateSchedule.of(List.of());
+        when(monthEndInterestJob.closedMonths()).thenReturn(new TreeSet<>(List.of(MARCH)));
+        when(accountService.getAllAccounts()).thenReturn(List.of(funded));
+        when(transactionService.findLedgerMonth("FUNDED", MARCH)).thenReturn(postedMonth("FUNDED", MARCH));
+        when(interestRuleService.getRateSchedule()).thenReturn(rateSchedule);
+        when(interestPostingService.postMonthlyInterest("FUNDED", MARCH, rateSchedule)).thenReturn(Optional.empty());
+
+        RuleChangeImpactService.Report report = impactService.reprocess(LocalDate.of(2025, 3, 15));
+
+        assertEquals(List.of(new RuleChangeImpactService.AccountMonth("FUNDED", MARCH)), report.recomputed());
+        verify(interestPostingService).postMonthlyInterest("FUNDED", MARCH, rateSchedule);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no closed month is affected")
+    void shouldDoNothingWithoutClosedMonthsAfterChange() {
+        when(monthEndInterestJob.closedMonths()).thenReturn(new TreeSet<>(List.of(JANUARY)));
+
+        RuleChangeImpactService.Report report = impactService.reprocess(LocalDate.of(2025, 2, 1));
+
+        assertTrue(report.recomputed().isEmpty());
+        verifyNoInteractions(accountService, transactionService, interestPostingService);
+    }
+
+    private LedgerMonth postedMonth(String accountNumber, YearMonth month) {
+        LocalDate endDate = month.atEndOfMonth();
+        return new LedgerMonth(month, new BalanceCheckpoint(100000, 0),
+                List.of(new Transaction(TransactionId.of(endDate, 1), endDate, accountNumber,
+                        Transaction.TransactionType.INTEREST, 250, 100250)));
+    }
+}
@@ -0,0 +1,115 @@
+package org.awesomegic.service;
+
+import org.awesomegic.model.InterestRule;
+import org.awesomegic.model.InterestRulePeriod;
+import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementCacheTest {
+
+    private final String ACCOUNT_NUMBER = "ACC123";
+    private final YearMonth MARCH = YearMonth.of(2025, 3);
+    private final YearMonth APRIL = YearMonth.of(2025, 4);
+
+    private StatementCache statementCache;
+    private List<InterestRulePeriod> rules;
+    private List<Transaction> statement;
+
+    @BeforeEach
+    void setUp() {
+        statementCache = new StatementCache(2);
+        rules = List.of(new InterestRulePeriod(MARCH.atDay(1), MARCH.atEndOfMonth(),
+                new InterestRule(LocalDate.of(2025, 1, 1), "RULE-001", new BigDecimal("2.50"))));
+        statement = List.of(new Transaction(TransactionId.parse("20250310-01"), LocalDate.of(2025, 3, 10),
+                ACCOUNT_NUMBER, Transaction.TransactionType.DEPOSIT, 10000, 10000));
+    }
+
+    @Test
+    @DisplayName("Should serve a statement while ledger revision and rules are unchanged")
+    void shouldHitWhileUnchanged() {
+        statementCache.put(ACCOUNT_NUMBER, MARCH, 7, rules, statement);
+
+        assertEquals(statement, statementCache.get(ACCOUNT_NUMBER, MARCH, 7, rules));
+        assertEquals(new StatementCache.Stats(1, 0, 0), statementCache.stats());
+    }
+
+    @Test
+    @DisplayName("Should miss and drop the entry when the ledger revision has moved")
+    void shouldMissWhenLedgerRevised() {
+        statementCache.put(ACCOUNT_NUMBER, MARCH, 7, rules, statement);
+
+        assertNull(statementCache.get(ACCOUNT_NUMBER, MARCH, 8, rules));
+        assertEquals(0, statementCache.size());
+        assertEquals(new StatementCache.Stats(0, 1, 0), statementCache.stats());
+    }
+
+    @Test
+    @DisplayName("Should miss when the interest rules in effect have changed")
+    void shouldMissWhenRulesChanged() {
+        statementCache.put(ACCOUNT_NUMBER, MARCH, 7, rules, statement);
+        List<InterestRulePeriod> changedRules = List.of(new InterestRulePeriod(MARCH.atDay(1), MARCH.atEndOfMonth(),
+                new InterestRule(LocalDate.of(2025, 1, 1), "RULE-001", new BigDecimal("3.00"))));
+
+        assertNull(statementCache.get(ACCOUNT_NUMBER, MARCH, 7, changedRules));
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used statement beyond capacity")
+    void shouldEvictLeastRecentlyUsed() {
+        statementCache.put(ACCOUNT_NUMBER, MARCH, 1, rules, statement);
+        statementCache.put(ACCOUNT_NUMBER, APRIL, 1, rules, statement);
+        statementCache.get(ACCOUNT_NUMBER, MARCH, 1, rules);
+
+        statementCache.put("ACC456", MARCH, 1, rules, statement);
+
+        assertEquals(2, statementCache.size());
+        assertNotNull(statementCache.get(ACCOUNT_NUMBER, MARCH, 1, rules));
+        assertNull(statementCache.get(ACCOUNT_NUMBER, APRIL, 1, rules));
+        assertEquals(1, statementCache.stats().evictions());
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive capacity")
+    void shouldRejectNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new StatementCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new StatementCache(4, 8));
+    }
+
+    @Test
+    @DisplayName("Should stay within capacity across stripes under concurrent use")
+    void shouldStayWithinCapacityAcrossStripes() throws Exception {
+        StatementCache stripedCache = new StatementCache(100, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = IntStream.range(0, 8)
+                    .<Future<?>>mapToObj(worker -> executor.submit(() -> {
+                        for (int i = 0; i < 1000; i++) {
+                            stripedCache.put("ACC" + worker + "-" + i, MARCH, 1, rules, statement);
+                        }
+                    }))
+                    .toList();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(100, stripedCache.size());
+        assertEquals(7900, stripedCache.stats().evictions());
+    }
+}
@@ -0,0 +1,146 @@
+package org.awesomegic.service;
+
+import org.awesomegic.model.Account;
+import org.awesomegic.model.InterestRateSchedule;
+import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StatementExportServiceTest {
+    @Mock
+    private StatementService statementService;
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private InterestRuleService interestRuleService;
+
+    private final InterestRateSchedule rateSchedule = InterestRateSchedule.of(List.of());
+
+    @TempDir
+    Path exportDirectory;
+
+    private ForkJoinPool pool;
+    private StatementExportService exportService;
+
+    private final YearMonth MONTH = YearMonth.of(2025, 3);
+
+    private final String EXPECTED_STATEMENT = """
+            Account: ACC1
+            | Date | Txn Id | Type | Amount | Balance |
+            | 2025-03-10 | 20250310-01 | W | 200.00 | 1300.00\s
+            | 2025-03-31 |  | I | 3.46 | 1303.46\s
+            """;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        exportService = new StatementExportService(statementService, accountService, interestRuleService, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private List<Transaction> statementFor(String accountNumber) {
+        return List.of(
+                new Transaction(TransactionId.parse("20250310-01"), LocalDate.of(2025, 3, 10), accountNumber,
+                        Transaction.TransactionType.WITHDRAWAL, 20000, 130000),
+                new Transaction(TransactionId.last(MONTH.atEndOfMonth()), MONTH.atEndOfMonth(), accountNumber,
+                        Transaction.TransactionType.INTEREST, 346, 130346));
+    }
+
+    @Test
+    @DisplayName("Should write each statement in the printed layout")
+    void shouldWriteStatementInPrintedLayout() throws IOException {
+        when(interestRuleService.getRateSchedule()).thenReturn(rateSchedule);
+        when(statementService.buildStatement("ACC1", MONTH, rateSchedule)).thenReturn(statementFor("ACC1"));
+
+        StatementExportService.Report report = exportService.export(MONTH, List.of("ACC1"), exportDirectory, false);
+
+        Path file = exportDirectory.resolve("ACC1-202503.txt");
+        assertEquals(EXPECTED_STATEMENT, Files.readString(file));
+        assertEquals(1, report.statementsWritten());
+        assertEquals(Files.size(file), report.bytesWritten());
+    }
+
+    @Test
+    @DisplayName("Should write gzip files that decompress to the plain statement")
+    void shouldWriteGzipStatements() throws IOException {
+        when(interestRuleService.getRateSchedule()).thenReturn(rateSchedule);
+        when(statementService.buildStatement("ACC1", MONTH, rateSchedule)).thenReturn(statementFor("ACC1"));
+
+        exportService.export(MONTH, List.of("ACC1"), exportDirectory, true);
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(exportDirectory.resolve("ACC1-202503.txt.gz")))) {
+            assertEquals(EXPECTED_STATEMENT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Should export every account in parallel with per-thread buffers reused across files")
+    void shouldExportEveryAccount() throws IOException {
+        List<Account> accounts = IntStream.range(0, 200)
+                .mapToObj(i -> new Account("ACC" + i, 130346, LocalDate.of(2025, 1, 1)))
+                .toList();
+        when(accountService.getAllAccounts()).thenReturn(accounts);
+        when(interestRuleService.getRateSchedule()).thenReturn(rateSchedule);
+        when(statementService.buildStatement(anyString(), eq(MONTH), same(rateSchedule)))
+                .thenAnswer(invocation -> statementFor(invocation.getArgument(0)));
+
+        StatementExportService.Report report = exportService.exportAll(MONTH, exportDirectory, true);
+
+        assertEquals(200, report.statementsWritten());
+        try (var files = Files.list(exportDirectory)) {
+            assertEquals(200, files.count());
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(exportDirectory.resolve("ACC7-202503.txt.gz")))) {
+            assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).startsWith("Account: ACC7\n"));
+        }
+        verify(interestRuleService, times(1)).getRateSchedule();
+        verify(statementService, never()).generateAccountStatement(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should give account numbers that differ only in escaped characters their own files")
+    void shouldKeepEscapedAccountNumbersApart() throws IOException {
+        when(interestRuleService.getRateSchedule()).thenReturn(rateSchedule);
+        when(statementService.buildStatement(anyString(), eq(MONTH), same(rateSchedule)))
+                .thenAnswer(invocation -> statementFor(invocation.getArgument(0)));
+
+        StatementExportService.Report report = exportService.export(
+                MONTH, List.of("A/B", "A_B", "A%2FB", "A/B"), exportDirectory, false);
+
+        assertEquals(3, report.statementsWritten());
+        assertTrue(Files.readString(exportDirectory.resolve("A%2FB-202503.txt")).startsWith("Account: A/B\n"));
+        assertTrue(Files.readString(exportDirectory.resolve("A_B-202503.txt")).startsWith("Account: A_B\n"));
+        assertTrue(Files.readString(exportDirectory.resolve("A%252FB-202503.txt")).startsWith("Account: A%2FB\n"));
+    }
+}
@@ -1,14 +1,15 @@
 package org.awesomegic.service;
 
-import org.awesomegic.model.Account;
+import org.awesomegic.model.BalanceCheckpoint;
+import org.awesomegic.model.InterestRateSchedule;
 import org.awesomegic.model.InterestRule;
+import org.awesomegic.model.LedgerMonth;
 import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -30,51 +31,26 @@ public class StatementServiceTest {
     @Mock
     private InterestRuleService interestRuleService;
 
-    @Mock
-    private AccountService accountService;
-
     @InjectMocks
     private StatementService statementService;
 
-    @Captor
-    private ArgumentCaptor<Transaction> transactionCaptor;
-
     private final String ACCOUNT_NUMBER = "ACC123";
     private final LocalDate STATEMENT_DATE = LocalDate.of(2025, 3, 1);
     private final int STATEMENT_YEAR = 2025;
     private final int STATEMENT_MONTH = 3;
-    private Account testAccount;
-    private List<Transaction> testTransactions;
+    private List<Transaction> marchTransactions;
     private List<InterestRule> testInterestRules;
 
     @BeforeEach
     void setUp() {
-        testAccount = new Account(ACCOUNT_NUMBER, BigDecimal.valueOf(1000.00), LocalDate.of(2025, 1, 1));
-
-        testTransactions = new ArrayList<>();
-        testTransactions.add(new Transaction(
-                "20250101-01",
-                LocalDate.of(2025, 1, 1),
-                ACCOUNT_NUMBER,
-                Transaction.TransactionType.DEPOSIT,
-                BigDecimal.valueOf(1000.00),
-                BigDecimal.valueOf(1000.00)
-        ));
-        testTransactions.add(new Transaction(
-                "20250215-01",
-                LocalDate.of(2025, 2, 15),
-                ACCOUNT_NUMBER,
-                Transaction.TransactionType.DEPOSIT,
-                BigDecimal.valueOf(500.00),
-                BigDecimal.valueOf(1500.00)
-        ));
-        testTransactions.add(new Transaction(
-                "20250310-01",
+        marchTransactions = new ArrayList<>();
+        marchTransactions.add(new Transaction(
+                TransactionId.parse("20250310-01"),
                 LocalDate.of(2025, 3, 10),
                 ACCOUNT_NUMBER,
                 Transaction.TransactionType.WITHDRAWAL,
-                BigDecimal.valueOf(200.00),
-                BigDecimal.valueOf(1300.00)
+                20000,
+                130000
         ));
 
         testInterestRules = new ArrayList<>();
@@ -125,30 +101,10 @@ public class StatementServiceTest {
     @DisplayName("Should generate account statement with existing transactions")
     void shouldGenerateAccountStatementWithExistingTransactions() {
         YearMonth statementYearMonth = YearMonth.of(2025, 3);
-        LocalDate startDate = statementYearMonth.atDay(1);
-        LocalDate endDate = statementYearMonth.atEndOfMonth();
 
-        List<Transaction> marchTransactions = List.of(
-                new Transaction("20250310-01", LocalDate.of(2025, 3, 10), ACCOUNT_NUMBER,
-                        Transaction.TransactionType.WITHDRAWAL, BigDecimal.valueOf(200.00), BigDecimal.valueOf(1300.00))
-        );
-
-        when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
-        when(transactionService.findByAccountNumberAndDateRange(ACCOUNT_NUMBER, startDate, endDate))
-                .thenReturn(marchTransactions);
-        when(transactionService.findByAccountNumberAndDateRange(eq(ACCOUNT_NUMBER), eq(LocalDate.MIN), eq(endDate)))
-                .thenReturn(testTransactions);
-        when(interestRuleService.getAllInterestRules()).thenReturn(testInterestRules);
-
-        when(transactionService.save(any(Transaction.class)))
-                .thenAnswer(invocation -> {
-                    Transaction t = invocation.getArgument(0);
-                    if (t.id().isEmpty()) {
-                        return new Transaction("20250331-01", t.date(), t.accountNumber(),
-                                t.type(), t.amount(), t.balance());
-                    }
-                    return t;
-                });
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, statementYearMonth))
+                .thenReturn(new LedgerMonth(statementYearMonth, new BalanceCheckpoint(150000, 0), marchTransactions));
+        when(interestRuleService.getRateSchedule()).thenReturn(InterestRateSchedule.of(testInterestRules));
 
         List<Transaction> result = statementService.generateAccountStatement(ACCOUNT_NUMBER, 2025, 3);
 
@@ -160,150 +116,124 @@ public class StatementServiceTest {
                 .orElseThrow();
 
         assertEquals(LocalDate.of(2025, 3, 31), interestTransaction.date());
-        assertTrue(interestTransaction.amount().compareTo(BigDecimal.ZERO) > 0);
+        // 9 days at 1500.00 and 22 days at 1300.00, both at 3.0%
+        assertEquals(346, interestTransaction.amount());
+        assertEquals(130346, interestTransaction.balance());
+    }
+
+    @Test
+    @DisplayName("Should not write to the ledger when generating a statement")
+    void shouldNotWriteToLedgerWhenGeneratingStatement() {
+        YearMonth statementYearMonth = YearMonth.of(2025, 3);
 
-        verify(transactionService).save(any(Transaction.class));
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, statementYearMonth))
+                .thenReturn(new LedgerMonth(statementYearMonth, new BalanceCheckpoint(150000, 0), marchTransactions));
+        when(interestRuleService.getRateSchedule()).thenReturn(InterestRateSchedule.of(testInterestRules));
+
+        statementService.generateAccountStatement(ACCOUNT_NUMBER, 2025, 3);
+
+        verify(transactionService, never()).save(any(Transaction.class));
+        verify(transactionService, never()).deleteById(anyLong());
+        verify(transactionService, never()).generateTransactionId(any(LocalDate.class));
     }
 
     @Test
-    @DisplayName("Should handle existing interest transaction when generating statement")
-    void shouldHandleExistingInterestTransactionWhenGeneratingStatement() {
+    @DisplayName("Should show interest as posted even when repricing would give a different amount")
+    void shouldShowPostedInterestAsPosted() {
         YearMonth statementYearMonth = YearMonth.of(2025, 3);
-        LocalDate startDate = statementYearMonth.atDay(1);
-        LocalDate endDate = statementYearMonth.atEndOfMonth();
 
-        Transaction existingInterestTransaction = new Transaction(
-                "20250331-01",
+        Transaction postedInterest = new Transaction(
+                TransactionId.parse("20250331-01"),
                 LocalDate.of(2025, 3, 31),
                 ACCOUNT_NUMBER,
                 Transaction.TransactionType.INTEREST,
-                BigDecimal.valueOf(9.00),
-                BigDecimal.valueOf(1309.00)
+                900,
+                130900
         );
+        marchTransactions.add(postedInterest);
 
-        List<Transaction> marchTransactions = new ArrayList<>();
-        marchTransactions.add(new Transaction(
-                "20250310-01",
-                LocalDate.of(2025, 3, 10),
-                ACCOUNT_NUMBER,
-                Transaction.TransactionType.WITHDRAWAL,
-                BigDecimal.valueOf(200.00),
-                BigDecimal.valueOf(1300.00)
-        ));
-        marchTransactions.add(existingInterestTransaction);
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, statementYearMonth))
+                .thenReturn(new LedgerMonth(statementYearMonth, new BalanceCheckpoint(150000, 0), marchTransactions));
+        when(interestRuleService.getRateSchedule()).thenReturn(InterestRateSchedule.of(testInterestRules));
 
-        when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
-        when(transactionService.findByAccountNumberAndDateRange(ACCOUNT_NUMBER, startDate, endDate))
-                .thenReturn(marchTransactions);
+        List<Transaction> result = statementService.generateAccountStatement(ACCOUNT_NUMBER, 2025, 3);
 
-        when(transactionService.findByAccountNumberAndDateRange(ACCOUNT_NUMBER, startDate, endDate))
-                .thenReturn(marchTransactions)
-                .thenReturn(List.of(marchTransactions.get(0))); // Second call should return without interest transaction
+        assertEquals(2, result.size());
+        Transaction interestTransaction = result.get(1);
+        assertEquals(postedInterest.id(), interestTransaction.id());
+        assertEquals(900, interestTransaction.amount());
+        assertEquals(130900, interestTransaction.balance());
+        verify(transactionService, never()).deleteById(anyLong());
+    }
 
-        when(transactionService.findByAccountNumberAndDateRange(eq(ACCOUNT_NUMBER), eq(LocalDate.MIN), eq(endDate)))
-                .thenReturn(testTransactions);
-        when(interestRuleService.getAllInterestRules()).thenReturn(testInterestRules);
+    @Test
+    @DisplayName("Should keep posted interest on the statement when repricing would give none")
+    void shouldKeepPostedInterestWhenRepricedToZero() {
+        YearMonth statementYearMonth = YearMonth.of(2025, 3);
+        Transaction postedInterest = new Transaction(
+                TransactionId.parse("20250331-01"),
+                LocalDate.of(2025, 3, 31),
+                ACCOUNT_NUMBER,
+                Transaction.TransactionType.INTEREST,
+                346,
+                130346
+        );
+        marchTransactions.add(postedInterest);
 
-        when(transactionService.save(any(Transaction.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, statementYearMonth))
+                .thenReturn(new LedgerMonth(statementYearMonth, new BalanceCheckpoint(150000, 0), marchTransactions));
+        when(interestRuleService.getRateSchedule()).thenReturn(InterestRateSchedule.of(List.of()));
 
         List<Transaction> result = statementService.generateAccountStatement(ACCOUNT_NUMBER, 2025, 3);
 
-        verify(transactionService).deleteById(existingInterestTransaction.id());
-        verify(transactionService).save(transactionCaptor.capture());
+        assertEquals(List.of(marchTransactions.get(0), postedInterest), result);
+    }
+
+    @Test
+    @DisplayName("Should not earn interest on interest credited in earlier months")
+    void shouldNotEarnInterestOnCreditedInterest() {
+        YearMonth statementYearMonth = YearMonth.of(2025, 3);
+
+        when(interestRuleService.getRateSchedule()).thenReturn(InterestRateSchedule.of(testInterestRules));
 
-        Transaction newInterestTransaction = transactionCaptor.getValue();
-        assertEquals(existingInterestTransaction.id(), newInterestTransaction.id());
-        assertTrue(newInterestTransaction.amount().compareTo(BigDecimal.ZERO) > 0);
+        long interest = statementService.calculateMonthlyInterest(
+                new LedgerMonth(statementYearMonth, new BalanceCheckpoint(150500, 500), marchTransactions));
+
+        assertEquals(346, interest);
     }
 
     @Test
     @DisplayName("Should not add interest transaction when no interest rules are applicable")
     void shouldNotAddInterestTransactionWhenNoInterestRulesAreApplicable() {
         YearMonth statementYearMonth = YearMonth.of(2025, 3);
-        LocalDate startDate = statementYearMonth.atDay(1);
-        LocalDate endDate = statementYearMonth.atEndOfMonth();
-
-        List<Transaction> marchTransactions = List.of(
-                new Transaction("20250310-01", LocalDate.of(2025, 3, 10), ACCOUNT_NUMBER,
-                        Transaction.TransactionType.WITHDRAWAL, BigDecimal.valueOf(200.00), BigDecimal.valueOf(1300.00))
-        );
 
-        when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
-        when(transactionService.findByAccountNumberAndDateRange(ACCOUNT_NUMBER, startDate, endDate))
-                .thenReturn(marchTransactions);
-        when(interestRuleService.getAllInterestRules()).thenReturn(new ArrayList<>());
-
-        when(transactionService.findByAccountNumberAndDateRange(eq(ACCOUNT_NUMBER), eq(LocalDate.MIN), eq(endDate)))
-                .thenReturn(marchTransactions);
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, statementYearMonth))
+                .thenReturn(new LedgerMonth(statementYearMonth, new BalanceCheckpoint(150000, 0), marchTransactions));
+        when(interestRuleService.getRateSchedule()).thenReturn(InterestRateSchedule.of(List.of()));
 
         List<Transaction> result = statementService.generateAccountStatement(ACCOUNT_NUMBER, 2025, 3);
 
         assertEquals(1, result.size()); // Only the existing withdrawal transaction
-        verify(transactionService, never()).save(any(Transaction.class));
-        verify(accountService, never()).updateAccount(any(Account.class));
-    }
-
-    @Test
-    @DisplayName("Should update account balance when generating statement for current month")
-    void shouldUpdateAccountBalanceWhenGeneratingStatementForCurrentMonth() {
-        int currentYear = LocalDate.now().getYear();
-        int currentMonth = LocalDate.now().getMonthValue();
-        YearMonth statementYearMonth = YearMonth.of(currentYear, currentMonth);
-        LocalDate startDate = statementYearMonth.atDay(1);
-        LocalDate endDate = statementYearMonth.atEndOfMonth();
-
-        List<Transaction> currentMonthTransactions = new ArrayList<>();
-
-        when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
-        when(transactionService.findByAccountNumberAndDateRange(ACCOUNT_NUMBER, startDate, endDate))
-                .thenReturn(currentMonthTransactions);
-        when(transactionService.findByAccountNumberAndDateRange(eq(ACCOUNT_NUMBER), eq(LocalDate.MIN), eq(endDate)))
-                .thenReturn(testTransactions);
-        when(interestRuleService.getAllInterestRules()).thenReturn(testInterestRules);
-
-        when(transactionService.save(any(Transaction.class)))
-                .thenAnswer(invocation -> {
-                    Transaction t = invocation.getArgument(0);
-                    if (t.id().isEmpty()) {
-                        return new Transaction(
-                                t.date().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd")) + "-01",
-                                t.date(), t.accountNumber(), t.type(), t.amount(), t.balance());
-                    }
-                    return t;
-                });
-
-        List<Transaction> result = statementService.generateAccountStatement(ACCOUNT_NUMBER, currentYear, currentMonth);
-
-        verify(accountService).updateAccount(any(Account.class));
     }
 
     @Test
     @DisplayName("Should handle account with no transactions")
     void shouldHandleAccountWithNoTransactions() {
         YearMonth statementYearMonth = YearMonth.of(2025, 3);
-        LocalDate startDate = statementYearMonth.atDay(1);
-        LocalDate endDate = statementYearMonth.atEndOfMonth();
 
-        when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
-        when(transactionService.findByAccountNumberAndDateRange(ACCOUNT_NUMBER, startDate, endDate))
-                .thenReturn(new ArrayList<>());
-        when(transactionService.findByAccountNumberAndDateRange(eq(ACCOUNT_NUMBER), eq(LocalDate.MIN), eq(endDate)))
-                .thenReturn(new ArrayList<>());
-        when(interestRuleService.getAllInterestRules()).thenReturn(testInterestRules);
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, statementYearMonth))
+                .thenReturn(LedgerMonth.empty(statementYearMonth));
+        when(interestRuleService.getRateSchedule()).thenReturn(InterestRateSchedule.of(testInterestRules));
 
         List<Transaction> result = statementService.generateAccountStatement(ACCOUNT_NUMBER, 2025, 3);
 
         assertTrue(result.isEmpty());
-        verify(transactionService, never()).save(any(Transaction.class));
     }
 
     @Test
     @DisplayName("Should handle multiple interest rule changes within statement period")
     void shouldHandleMultipleInterestRuleChangesWithinStatementPeriod() {
         YearMonth statementYearMonth = YearMonth.of(2025, 3);
-        LocalDate startDate = statementYearMonth.atDay(1);
-        LocalDate endDate = statementYearMonth.atEndOfMonth();
 
         testInterestRules.add(new InterestRule(
                 LocalDate.of(2025, 3, 15),
@@ -311,27 +241,9 @@ public class StatementServiceTest {
                 BigDecimal.valueOf(3.5)
         ));
 
-        List<Transaction> marchTransactions = List.of(
-                new Transaction("20250310-01", LocalDate.of(2025, 3, 10), ACCOUNT_NUMBER,
-                        Transaction.TransactionType.WITHDRAWAL, BigDecimal.valueOf(200.00), BigDecimal.valueOf(1300.00))
-        );
-
-        when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
-        when(transactionService.findByAccountNumberAndDateRange(ACCOUNT_NUMBER, startDate, endDate))
-                .thenReturn(marchTransactions);
-        when(transactionService.findByAccountNumberAndDateRange(eq(ACCOUNT_NUMBER), eq(LocalDate.MIN), eq(endDate)))
-                .thenReturn(testTransactions);
-        when(interestRuleService.getAllInterestRules()).thenReturn(testInterestRules);
-
-        when(transactionService.save(any(Transaction.class)))
-                .thenAnswer(invocation -> {
-                    Transaction t = invocation.getArgument(0);
-                    if (t.id().isEmpty()) {
-                        return new Transaction("20250331-01", t.date(), t.accountNumber(),
-                                t.type(), t.amount(), t.balance());
-                    }
-                    return t;
-                });
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, statementYearMonth))
+                .thenReturn(new LedgerMonth(statementYearMonth, new BalanceCheckpoint(150000, 0), marchTransactions));
+        when(interestRuleService.getRateSchedule()).thenReturn(InterestRateSchedule.of(testInterestRules));
 
         List<Transaction> result = statementService.generateAccountStatement(ACCOUNT_NUMBER, 2025, 3);
 
@@ -343,8 +255,106 @@ public class StatementServiceTest {
                 .orElseThrow();
 
         assertEquals(LocalDate.of(2025, 3, 31), interestTransaction.date());
-        assertTrue(interestTransaction.amount().compareTo(BigDecimal.ZERO) > 0);
+        // 9 days at 1500.00 and 5 days at 1300.00 at 3.0%, then 17 days at 1300.00 at 3.5%
+        assertEquals(376, interestTransaction.amount());
+    }
+
+    @Test
+    @DisplayName("Should serve a repeated statement from cache until the ledger changes")
+    void shouldServeRepeatedStatementFromCacheUntilLedgerChanges() {
+        YearMonth statementYearMonth = YearMonth.of(2025, 3);
+
+        when(transactionService.findLedgerRevision(ACCOUNT_NUMBER, statementYearMonth)).thenReturn(5L, 5L, 6L);
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, statementYearMonth))
+                .thenReturn(new LedgerMonth(statementYearMonth, new BalanceCheckpoint(150000, 0), marchTransactions));
+        when(interestRuleService.getRateSchedule()).thenReturn(InterestRateSchedule.of(testInterestRules));
+
+        List<Transaction> first = statementService.generateAccountStatement(ACCOUNT_NUMBER, 2025, 3);
+        List<Transaction> second = statementService.generateAccountStatement(ACCOUNT_NUMBER, 2025, 3);
+        statementService.generateAccountStatement(ACCOUNT_NUMBER, 2025, 3);
+
+        assertSame(first, second);
+        verify(transactionService, times(2)).findLedgerMonth(ACCOUNT_NUMBER, statementYearMonth);
+        assertEquals(new StatementCache.Stats(1, 2, 0), statementService.getStatementCacheStats());
+    }
+
+    @Test
+    @DisplayName("Should rebuild a cached statement when the interest rules for the month change")
+    void shouldRebuildCachedStatementWhenRulesChange() {
+        YearMonth statementYearMonth = YearMonth.of(2025, 3);
+
+        testInterestRules.add(new InterestRule(
+                LocalDate.of(2025, 3, 15),
+                "RULE-003",
+                BigDecimal.valueOf(3.5)
+        ));
 
-        verify(transactionService).save(any(Transaction.class));
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, statementYearMonth))
+                .thenReturn(new LedgerMonth(statementYearMonth, new BalanceCheckpoint(150000, 0), marchTransactions));
+        when(interestRuleService.getRateSchedule())
+                .thenReturn(InterestRateSchedule.of(testInterestRules.subList(0, 2)))
+                .thenReturn(InterestRateSchedule.of(testInterestRules));
+
+        List<Transaction> before = statementService.generateAccountStatement(ACCOUNT_NUMBER, 2025, 3);
+        List<Transaction> after = statementService.generateAccountStatement(ACCOUNT_NUMBER, 2025, 3);
+
+        assertEquals(346, before.get(1).amount());
+        assertEquals(376, after.get(1).amount());
+    }
+
+    @Test
+    @DisplayName("Should stream a range statement month by month with each month's interest line")
+    void shouldStreamRangeStatementMonthByMonth() {
+        YearMonth february = YearMonth.of(2025, 2);
+        YearMonth march = YearMonth.of(2025, 3);
+        Transaction februaryDeposit = new Transaction(
+                TransactionId.parse("20250201-01"),
+                LocalDate.of(2025, 2, 1),
+                ACCOUNT_NUMBER,
+                Transaction.TransactionType.DEPOSIT,
+                150000,
+                150000
+        );
+
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, february))
+                .thenReturn(new LedgerMonth(february, BalanceCheckpoint.ZERO, List.of(februaryDeposit)));
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, march))
+                .thenReturn(new LedgerMonth(march, new BalanceCheckpoint(150000, 0), marchTransactions));
+        when(interestRuleService.getRateSchedule()).thenReturn(InterestRateSchedule.of(testInterestRules));
+
+        List<Transaction> statement = statementService.generateStatement(ACCOUNT_NUMBER, february, march).toList();
+
+        assertEquals(4, statement.size());
+        assertEquals(februaryDeposit, statement.get(0));
+        assertEquals(Transaction.TransactionType.INTEREST, statement.get(1).type());
+        assertEquals(LocalDate.of(2025, 2, 28), statement.get(1).date());
+        assertEquals(marchTransactions.get(0), statement.get(2));
+        assertEquals(346, statement.get(3).amount());
+        verify(interestRuleService, times(1)).getRateSchedule();
+    }
+
+    @Test
+    @DisplayName("Should read a month of a range statement only when the stream reaches it")
+    void shouldReadRangeStatementLazily() {
+        YearMonth march = YearMonth.of(2025, 3);
+
+        when(transactionService.findLedgerMonth(ACCOUNT_NUMBER, march))
+                .thenReturn(new LedgerMonth(march, new BalanceCheckpoint(150000, 0), marchTransactions));
+        when(interestRuleService.getRateSchedule()).thenReturn(InterestRateSchedule.of(testInterestRules));
+
+        Transaction first = statementService.generateStatement(ACCOUNT_NUMBER, march, YearMonth.of(2025, 12))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(marchTransactions.get(0), first);
+        verify(transactionService, never()).findLedgerMonth(ACCOUNT_NUMBER, YearMonth.of(2025, 4));
+    }
+
+    @Test
+    @DisplayName("Should reject a range statement that ends before it starts")
+    void shouldRejectInvertedRange() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                statementService.generateStatement(ACCOUNT_NUMBER, YearMonth.of(2025, 3), YearMonth.of(2025, 2)));
+        assertEquals("Statement range start must not be after its end", exception.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package org.awesomegic.service;
 
 import org.awesomegic.model.Account;
 import org.awesomegic.model.Transaction;
+import org.awesomegic.model.TransactionId;
 import org.awesomegic.repositoy.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,7 +14,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -45,26 +45,24 @@ public class TransactionServiceTest {
 
     @BeforeEach
     void setUp() {
-        testAccount = new Account(ACCOUNT_NUMBER, BigDecimal.valueOf(1000.00), LocalDate.now());
+        testAccount = new Account(ACCOUNT_NUMBER, 100000, LocalDate.now());
     }
 
     @Test
-    @DisplayName("Should return transactions sorted by date when getTransactionsByAccountNumber is called")
-    void shouldReturnTransactionsSortedByDateWhenGetTransactionsByAccountNumberIsCalled() {
+    @DisplayName("Should return the ledger's transactions in ledger order without re-sorting when getTransactionsByAccountNumber is called")
+    void shouldReturnLedgerOrderWhenGetTransactionsByAccountNumberIsCalled() {
         LocalDate date1 = LocalDate.of(2023, 1, 1);
         LocalDate date2 = LocalDate.of(2023, 1, 5);
 
-        List<Transaction> unsortedTransactions = new ArrayList<>();
-        unsortedTransactions.add(new Transaction("T2", date2, ACCOUNT_NUMBER, Transaction.TransactionType.DEPOSIT, BigDecimal.TEN, BigDecimal.TEN));
-        unsortedTransactions.add(new Transaction("T1", date1, ACCOUNT_NUMBER, Transaction.TransactionType.DEPOSIT, BigDecimal.ONE, BigDecimal.ONE));
+        List<Transaction> ledgerOrder = new ArrayList<>();
+        ledgerOrder.add(new Transaction(TransactionId.of(date1, 1), date1, ACCOUNT_NUMBER, Transaction.TransactionType.DEPOSIT, 100, 100));
+        ledgerOrder.add(new Transaction(TransactionId.of(date2, 1), date2, ACCOUNT_NUMBER, Transaction.TransactionType.DEPOSIT, 1000, 1100));
 
-        when(transactionRepository.findByAccountNumber(ACCOUNT_NUMBER)).thenReturn(unsortedTransactions);
+        when(transactionRepository.findByAccountNumber(ACCOUNT_NUMBER)).thenReturn(ledgerOrder);
 
         List<Transaction> result = transactionService.getTransactionsByAccountNumber(ACCOUNT_NUMBER);
 
-        assertEquals(2, result.size());
-        assertEquals(date1, result.get(0).date());
-        assertEquals(date2, result.get(1).date());
+        assertSame(ledgerOrder, result);
         verify(transactionRepository).findByAccountNumber(ACCOUNT_NUMBER);
     }
 
@@ -95,7 +93,7 @@ public class TransactionServiceTest {
     @DisplayName("Should throw exception when first transaction is withdrawal")
     void shouldThrowExceptionWhenFirstTransactionIsWithdrawal() {
         when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
-        when(accountService.getAccountTransactionCount(ACCOUNT_NUMBER)).thenReturn(0);
+        when(accountService.hasTransactions(ACCOUNT_NUMBER)).thenReturn(false);
 
         IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
                 transactionService.processTransaction(TRANSACTION_INPUT_WITHDRAWAL));
@@ -118,12 +116,79 @@ public class TransactionServiceTest {
     @DisplayName("Should handle transaction repository failure")
     void shouldHandleTransactionRepositoryFailure() {
         when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
-        when(accountService.getAccountTransactionCount(ACCOUNT_NUMBER)).thenReturn(1);
-        when(transactionRepository.findTransactionsByDate(TRANSACTION_DATE)).thenReturn(new ArrayList<>());
         when(transactionRepository.save(any(Transaction.class))).thenThrow(new RuntimeException("Database error"));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
                 transactionService.processTransaction(TRANSACTION_INPUT_DEPOSIT));
         assertEquals("Transaction creation failed", exception.getMessage());
     }
+
+    @Test
+    @DisplayName("Should allocate sequential transaction IDs per date")
+    void shouldAllocateSequentialTransactionIdsPerDate() {
+        when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Transaction first = transactionService.processTransaction(TRANSACTION_INPUT_DEPOSIT);
+        Transaction second = transactionService.processTransaction(TRANSACTION_INPUT_DEPOSIT);
+
+        assertEquals(TransactionId.of(TRANSACTION_DATE, 1), first.id());
+        assertEquals(TransactionId.of(TRANSACTION_DATE, 2), second.id());
+        verify(transactionRepository, never()).findTransactionsByDate(any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Should continue after the last sequence the ledger has used on the date")
+    void shouldContinueSequenceOfExistingTransactions() {
+        when(transactionRepository.findLastSequence(TRANSACTION_DATE)).thenReturn(7);
+        TransactionService service = new TransactionService(transactionRepository, accountService);
+        when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Transaction transaction = service.processTransaction(TRANSACTION_INPUT_DEPOSIT);
+
+        assertEquals(TransactionId.of(TRANSACTION_DATE, 8), transaction.id());
+    }
+
+    @Test
+    @DisplayName("Should stamp a back-dated posting from the balance on its date and update the account")
+    void shouldStampBackDatedPostingFromBalanceOnItsDate() {
+        when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
+        when(transactionRepository.findBalanceAsOf(ACCOUNT_NUMBER, TRANSACTION_DATE)).thenReturn(30000L);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Transaction transaction = transactionService.processTransaction(TRANSACTION_INPUT_DEPOSIT);
+
+        assertEquals(80000, transaction.balance());
+        verify(accountService).updateAccountBalance(transaction);
+        verify(accountService, never()).hasTransactions(anyString());
+        verify(accountService, never()).getAccountTransactionCount(anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject a back-dated withdrawal larger than the balance on its date")
+    void shouldRejectBackDatedWithdrawalLargerThanBalanceOnItsDate() {
+        when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
+        when(accountService.hasTransactions(ACCOUNT_NUMBER)).thenReturn(true);
+        when(transactionRepository.findLowestBalanceFrom(ACCOUNT_NUMBER, TRANSACTION_DATE)).thenReturn(10000L);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                transactionService.processTransaction(TRANSACTION_INPUT_WITHDRAWAL));
+        assertEquals("Insufficient funds for withdrawal", exception.getMessage());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a back-dated withdrawal that would overdraw a later balance")
+    void shouldRejectBackDatedWithdrawalThatWouldOverdrawLaterBalance() {
+        when(accountService.findOrCreateAccount(ACCOUNT_NUMBER)).thenReturn(testAccount);
+        when(accountService.hasTransactions(ACCOUNT_NUMBER)).thenReturn(true);
+        when(transactionRepository.findBalanceAsOf(ACCOUNT_NUMBER, TRANSACTION_DATE)).thenReturn(100000L);
+        when(transactionRepository.findLowestBalanceFrom(ACCOUNT_NUMBER, TRANSACTION_DATE)).thenReturn(1000L);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                transactionService.processTransaction(TRANSACTION_INPUT_WITHDRAWAL));
+        assertEquals("Insufficient funds for withdrawal", exception.getMessage());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
 }
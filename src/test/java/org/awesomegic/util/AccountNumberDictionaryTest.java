@@ -0,0 +1,57 @@
+package org.awesomegic.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumberDictionaryTest {
+
+    @Test
+    @DisplayName("should assign dense ids in order of first sight and look them up both ways")
+    void shouldAssignDenseIds() {
+        AccountNumberDictionary dictionary = new AccountNumberDictionary();
+
+        assertEquals(0, dictionary.idOf("ACC001"));
+        assertEquals(1, dictionary.idOf("ACC002"));
+        assertEquals(0, dictionary.idOf(new String("ACC001")));
+
+        assertEquals(1, dictionary.find("ACC002"));
+        assertEquals(AccountNumberDictionary.ABSENT, dictionary.find("ACC003"));
+        assertEquals("ACC002", dictionary.accountNumber(1));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.accountNumber(2));
+    }
+
+    @Test
+    @DisplayName("should give every account exactly one id under concurrent first sight")
+    void shouldAssignOneIdPerAccountConcurrently() throws Exception {
+        AccountNumberDictionary dictionary = new AccountNumberDictionary();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        dictionary.idOf("ACC" + j);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1000, dictionary.size());
+        for (int id = 0; id < 1000; id++) {
+            assertEquals(id, dictionary.find(dictionary.accountNumber(id)));
+        }
+    }
+}
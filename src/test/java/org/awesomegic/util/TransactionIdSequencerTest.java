@@ -0,0 +1,66 @@
+package org.awesomegic.util;
+
+import org.awesomegic.model.TransactionId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdSequencerTest {
+
+    private final LocalDate date = LocalDate.of(2025, 6, 26);
+
+    @Test
+    @DisplayName("should allocate unique IDs under concurrent postings")
+    void shouldAllocateUniqueIdsConcurrently() throws Exception {
+        TransactionIdSequencer sequencer = new TransactionIdSequencer();
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        ids.add(sequencer.nextId(date));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(4000, ids.size(), "Every allocated ID should be unique");
+    }
+
+    @Test
+    @DisplayName("should continue after IDs that were registered")
+    void shouldContinueAfterRegisteredIds() {
+        TransactionIdSequencer sequencer = new TransactionIdSequencer();
+        sequencer.register(TransactionId.of(date, 5));
+        sequencer.register(TransactionId.of(date, 3));
+
+        assertEquals(TransactionId.of(date, 6), sequencer.nextId(date));
+        assertEquals(TransactionId.of(date.plusDays(1), 1), sequencer.nextId(date.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("should continue after the last sequence already used on each date")
+    void shouldContinueAfterLastUsedSequence() {
+        TransactionIdSequencer sequencer = new TransactionIdSequencer(d -> d.equals(date) ? 9 : 0);
+
+        assertEquals(TransactionId.of(date, 10), sequencer.nextId(date));
+        assertEquals(TransactionId.of(date.plusDays(1), 1), sequencer.nextId(date.plusDays(1)));
+    }
+}